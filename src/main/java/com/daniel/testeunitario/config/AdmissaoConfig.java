@@ -0,0 +1,56 @@
+package com.daniel.testeunitario.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.daniel.testeunitario.service.support.BaldesTokensClientes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/* Controle de admissão do EmpregadoController (ver AdmissaoFilter):
+*
+*  - empregados.admissao.taxa-cliente (200 req/s) e empregados.admissao.rajada-cliente (400): balde de fichas de cada cliente;
+*    empregados.admissao.faixas (4096) é o número de baldes.
+*  - empregados.admissao.cliente-por-endereco (false): as requisições sem X-Client-Id usam o endereço de origem como cliente. Atrás de um
+*    proxy ou balanceador esse endereço é o do proxy, e todos os clientes dividiriam um só balde: só ligue junto com
+*    server.forward-headers-strategy, para o endereço vir do X-Forwarded-For.
+*
+*  Não há limite global de concorrência. Um limite adaptativo, no interceptor e depois num filtro de servlet, foi medido no cenário de
+*  muitos clientes dentro do balde (EmpregadoAdmissaoCargaTest) e não segurou o p99: com a latência do cliente em 10 s, o filtro via menos
+*  de 40 requisições em andamento, então a fila estava antes dele (parsing do Tomcat e CPU), onde nenhum limite do servidor recusa nada.
+*
+*  Vale para /api/empregados e os caminhos abaixo dele que são do EmpregadoController. Ficam de fora os controllers com controle próprio
+*  (importação, write-behind, feed de alterações) e a exportação. Desliga com empregados.admissao.habilitada=false.
+**/
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "empregados.admissao.habilitada", havingValue = "true", matchIfMissing = true)
+public class AdmissaoConfig {
+
+    private static final List<String> CAMINHOS_EXCLUIDOS = List.of("/api/empregados/import", "/api/empregados/write-behind",
+            "/api/empregados/changes", "/api/empregados/export");
+
+    @Bean
+    public FilterRegistrationBean<AdmissaoFilter> admissaoFilter(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${empregados.admissao.taxa-cliente:200}") double taxaCliente,
+            @Value("${empregados.admissao.rajada-cliente:400}") int rajadaCliente,
+            @Value("${empregados.admissao.faixas:4096}") int faixas,
+            @Value("${empregados.admissao.cliente-por-endereco:false}") boolean clientePorEndereco) {
+        AdmissaoFilter filtro = new AdmissaoFilter(new BaldesTokensClientes(taxaCliente, rajadaCliente, faixas), clientePorEndereco,
+                CAMINHOS_EXCLUIDOS, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        FilterRegistrationBean<AdmissaoFilter> registro = new FilterRegistrationBean<>(filtro);
+        registro.addUrlPatterns("/api/empregados", "/api/empregados/*");
+        // Antes dos filtros do Spring (métricas, encoding de formulário), para que a recusa custe o mínimo.
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registro;
+    }
+}
@@ -0,0 +1,92 @@
+package com.daniel.testeunitario.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.daniel.testeunitario.service.support.BaldesTokensClientes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/* Admissão das requisições do EmpregadoController pelo balde de fichas de cada cliente, num filtro de servlet que roda antes do
+*  DispatcherServlet: a recusa é um 429 com Retry-After que não passa pelo Spring MVC nem toca no banco.
+*
+*  O cliente é o cabeçalho X-Client-Id. O cabeçalho não é autenticado: o objetivo é conter uma integração com defeito, não um cliente
+*  mal-intencionado. Sem o cabeçalho a requisição é admitida, a não ser que clientePorEndereco esteja ligado: aí o cliente é o endereço de
+*  origem (ver AdmissaoConfig).
+*
+*  Métrica: empregados.admissao.recusadas, com a tag motivo:taxa.
+**/
+public class AdmissaoFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO_CLIENTE = "X-Client-Id";
+
+    private static final int TAMANHO_MAXIMO_CLIENTE = 128;
+
+    private final BaldesTokensClientes baldes;
+
+    private final boolean clientePorEndereco;
+
+    private final List<String> caminhosExcluidos;
+
+    private final Counter recusadasTaxa;
+
+    public AdmissaoFilter(BaldesTokensClientes baldes, boolean clientePorEndereco, List<String> caminhosExcluidos,
+            MeterRegistry meterRegistry) {
+        this.baldes = baldes;
+        this.clientePorEndereco = clientePorEndereco;
+        this.caminhosExcluidos = caminhosExcluidos;
+        this.recusadasTaxa = meterRegistry.counter("empregados.admissao.recusadas", "motivo", "taxa");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        for (String excluido : caminhosExcluidos) {
+            if (caminho.equals(excluido) || caminho.startsWith(excluido + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String cliente = cliente(request);
+        long espera = cliente == null ? 0 : baldes.consumir(cliente);
+        if (espera > 0) {
+            recusadasTaxa.increment();
+            recusar(response, (espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String cliente(HttpServletRequest request) {
+        String cliente = request.getHeader(CABECALHO_CLIENTE);
+        if (cliente == null || cliente.isBlank()) {
+            return clientePorEndereco ? request.getRemoteAddr() : null;
+        }
+        return cliente.length() > TAMANHO_MAXIMO_CLIENTE ? cliente.substring(0, TAMANHO_MAXIMO_CLIENTE) : cliente;
+    }
+
+    private static void recusar(HttpServletResponse response, long segundos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"erro\":\"Limite de requisições do cliente excedido\"}");
+    }
+}
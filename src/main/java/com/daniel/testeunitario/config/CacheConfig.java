@@ -0,0 +1,20 @@
+package com.daniel.testeunitario.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/* Cache de leitura dos empregados por id (Caffeine).
+*
+*  O tamanho máximo e a expiração ficam em spring.cache.caffeine.spec (application.properties). Com "recordStats" o Actuator publica
+*  os contadores de acerto, falha e remoção: /actuator/metrics/cache.gets?tag=result:hit e /actuator/metrics/cache.evictions.
+*
+*  O cache fica por fora da transação (ordem menor que a do @Transactional): um acerto não abre transação nem pega conexão, e
+*  @CachePut/@CacheEvict só rodam depois do commit.
+**/
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String CACHE_EMPREGADOS = "empregados";
+}
@@ -0,0 +1,75 @@
+package com.daniel.testeunitario.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/* Executores gerenciados pelo Spring (encerrados junto com o contexto).
+*
+*  empregadosExecutor: operações assíncronas de empregados (EmpregadoAsyncService).
+*
+*  Número fixo de threads e fila limitada: com a fila cheia a tarefa é recusada na hora (AbortPolicy) em vez de acumular trabalho que já vai
+*  chegar atrasado. O padrão de 10 threads acompanha o pool do Hikari (maximum-pool-size = 10), já que cada tarefa usa uma conexão.
+*
+*  O Actuator publica as métricas do executor (o Spring Boot instrumenta os ThreadPoolTaskExecutor): /actuator/metrics/executor.queued,
+*  executor.active e executor.queue.remaining com a tag name:empregadosExecutor. As recusas e os timeouts ficam em empregados.async.rejeitadas e
+*  empregados.async.expiradas.
+*
+*  filtroEmailsExecutor: uma única thread para a reconstrução do filtro de emails (FiltroBloomEmails), que já garante que só há uma
+*  reconstrução por vez; no encerramento a reconstrução em andamento é interrompida, porque o filtro é refeito de qualquer jeito na partida.
+*
+*  importacaoExecutor: as etapas de validação e gravação das importações (EmpregadoImportacaoService). Cada importação ocupa
+*  empregados.importacao.validadores + 1 threads até o fim, e o serviço recusa a que passar de empregados.importacao.simultaneas (1), então
+*  o executor tem exatamente as threads das importações permitidas. A fila só cobre o instante entre uma etapa terminar e a thread voltar
+*  ao pool.
+**/
+@Configuration
+public class ExecutorConfig {
+
+    public static final String EXECUTOR_EMPREGADOS = "empregadosExecutor";
+
+    public static final String EXECUTOR_FILTRO_EMAILS = "filtroEmailsExecutor";
+
+    public static final String EXECUTOR_IMPORTACAO = "importacaoExecutor";
+
+    @Bean(name = EXECUTOR_EMPREGADOS)
+    public ThreadPoolTaskExecutor empregadosExecutor(@Value("${empregados.async.threads:10}") int threads,
+            @Value("${empregados.async.fila:200}") int capacidadeFila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(capacidadeFila);
+        executor.setThreadNamePrefix("empregados-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    @Bean(name = EXECUTOR_FILTRO_EMAILS)
+    public ThreadPoolTaskExecutor filtroEmailsExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("filtro-emails-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Bean(name = EXECUTOR_IMPORTACAO)
+    public ThreadPoolTaskExecutor importacaoExecutor(@Value("${empregados.importacao.validadores:2}") int validadores,
+            @Value("${empregados.importacao.simultaneas:1}") int simultaneas) {
+        int threads = Math.max(1, simultaneas) * (Math.max(1, validadores) + 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("importacao-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
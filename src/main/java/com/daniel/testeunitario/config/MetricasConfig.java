@@ -0,0 +1,58 @@
+package com.daniel.testeunitario.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.daniel.testeunitario.service.support.ContadorSql;
+import com.daniel.testeunitario.service.support.MetricasServicoAspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/* Métricas do caminho quente, publicadas no Actuator:
+*
+*  - /actuator/metrics/empregados.servico?tag=metodo:getEmpregadoById: tempo de cada método do EmpregadoService (p50/p99/p999 na tag phi
+*    de empregados.servico.percentile).
+*  - /actuator/metrics/empregados.sql.por.requisicao?tag=endpoint:EmpregadoController.findByIdEmpregado: comandos SQL por requisição.
+*
+*  Tudo pode ser desligado com empregados.metricas.habilitadas=false; aí nenhum desses beans é criado e o caminho quente fica sem nenhum
+*  custo de medição.
+**/
+@Configuration
+@ConditionalOnProperty(name = "empregados.metricas.habilitadas", havingValue = "true", matchIfMissing = true)
+public class MetricasConfig {
+
+    @Bean
+    public MetricasServicoAspect metricasServicoAspect(MeterRegistry meterRegistry) {
+        return new MetricasServicoAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSqlCustomizer() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorSql());
+    }
+
+    /* Os testes com @WebMvcTest carregam todo WebMvcConfigurer, mas não têm MeterRegistry; nesse caso o interceptor não é registrado. **/
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class MetricasWebConfig implements WebMvcConfigurer {
+
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        MetricasWebConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            meterRegistry.ifAvailable(registro ->
+                    registry.addInterceptor(new MetricasSqlInterceptor(registro)).addPathPatterns("/api/**"));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.daniel.testeunitario.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.daniel.testeunitario.service.support.ContadorSql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/* Registra quantos comandos SQL cada requisição executou, em empregados.sql.por.requisicao (tag endpoint = Controller.metodo).
+*
+*  O ContadorSql é zerado no início da requisição e lido no fim, na mesma thread; comandos executados em outras threads (como no
+*  EmpregadoAsyncController) não entram na conta da requisição.
+**/
+public class MetricasSqlInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, DistributionSummary> resumos = new ConcurrentHashMap<>();
+
+    public MetricasSqlInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ContadorSql.zerar();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod)) {
+            return;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        DistributionSummary resumo = resumos.get(handlerMethod.getMethod());
+        if (resumo == null) {
+            resumo = resumos.computeIfAbsent(handlerMethod.getMethod(), metodo -> criarResumo(handlerMethod));
+        }
+        resumo.record(ContadorSql.total());
+    }
+
+    private DistributionSummary criarResumo(HandlerMethod handlerMethod) {
+        return DistributionSummary.builder("empregados.sql.por.requisicao")
+                .description("Comandos SQL executados por requisição")
+                .baseUnit("comandos")
+                .tag("endpoint", handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
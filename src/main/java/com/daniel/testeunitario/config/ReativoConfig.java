@@ -0,0 +1,49 @@
+package com.daniel.testeunitario.config;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/* Perfil "reactive" (application-reactive.properties).
+*
+*  O JPA continua ativo ao lado do R2DBC (cria o schema e atende os serviços bloqueantes), mas o Spring Boot deixa de configurar o DataSource
+*  JDBC quando existe um ConnectionFactory R2DBC; por isso ele é declarado aqui, com as mesmas propriedades spring.datasource.*.
+*
+*  Também passam a existir dois gerenciadores de transação: o do JPA e o R2dbcTransactionManager. O do JPA é @Primary para o @Transactional
+*  continuar funcionando; a pilha reativa usa o TransactionalOperator, que o Spring Boot liga ao único ReactiveTransactionManager (o do R2DBC).
+*
+*  Com Tomcat no classpath (spring-boot-starter-web) o Spring Boot também usaria o Tomcat para o WebFlux; o servidor Netty é declarado para a
+*  pilha reativa rodar no event loop, com poucas threads para todas as conexões.
+**/
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReativoConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
@@ -0,0 +1,152 @@
+package com.daniel.testeunitario.controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.EmpregadoAsyncService;
+
+import lombok.AllArgsConstructor;
+
+/* Mesmas operações de EmpregadoController em /api/async/empregados, devolvendo CompletableFuture.
+*
+*  O Spring MVC libera a thread do Tomcat assim que o método retorna e só volta a ocupar uma thread para escrever a resposta quando o futuro
+*  completa; enquanto isso a consulta roda no executor dedicado (ExecutorConfig). Executor lotado ou operação acima do tempo limite viram
+*  503 (Service Unavailable), com Retry-After quando a fila está cheia.
+**/
+@RestController
+@RequestMapping(value = "/api/async/empregados")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AllArgsConstructor
+public class EmpregadoAsyncController {
+
+    private static final String SEGUNDOS_PARA_NOVA_TENTATIVA = "1";
+
+    private EmpregadoAsyncService empregadoService;
+
+    // Criar empregado - http://localhost:8080/api/async/empregados
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public CompletableFuture<Empregado> criarEmpregado(@RequestBody Empregado empregado) {
+        return empregadoService.salvarEmpregado(empregado);
+    }
+
+    // Listar todos os empregados - http://localhost:8080/api/async/empregados
+    @GetMapping
+    public CompletableFuture<List<Empregado>> findAllEmpregados() {
+        return empregadoService.getAllEmpregados();
+    }
+
+    // Listar empregados paginados por cursor - http://localhost:8080/api/async/empregados?limit=50&after={proximoCursor}
+    @GetMapping(params = "limit")
+    public CompletableFuture<PaginaEmpregados> findEmpregadosPorCursor(@RequestParam(value = "after", required = false) Long after,
+            @RequestParam("limit") int limit) {
+        return empregadoService.getEmpregadosPorCursor(after, limit);
+    }
+
+    // Buscar empregado por id, com a versão no ETag - http://localhost:8080/api/async/empregados/{id}
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Empregado>> findByIdEmpregado(@PathVariable("id") Long id) {
+        return empregadoService.getEmpregadoById(id).thenApply(empregado -> empregado
+                .map(encontrado -> EtagEmpregado.comEtag(ResponseEntity.ok(), encontrado).body(encontrado))
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    // Atualizar empregado (If-Match opcional: 412 se a versão mudou, 409 em alteração concorrente) - http://localhost:8080/api/async/empregados/{id}
+    @PutMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Empregado>> atualizarPorIdEmpregado(@PathVariable Long id, @RequestBody Empregado empregado,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versaoEsperada = EtagEmpregado.versaoDoEtag(ifMatch);
+        return empregadoService.getEmpregadoById(id).thenCompose(encontrado -> {
+            if (encontrado.isEmpty()) {
+                return CompletableFuture.completedFuture(ResponseEntity.notFound().<Empregado>build());
+            }
+            Empregado empregadoSalvo = encontrado.get();
+            if (versaoEsperada != null && !versaoEsperada.equals(empregadoSalvo.getVersao())) {
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Empregado>build());
+            }
+
+            Empregado salvarEmpregado = Empregado.builder()
+                    .id(empregadoSalvo.getId())
+                    .nome(empregado.getNome())
+                    .sobrenome(empregado.getSobrenome())
+                    .email(empregado.getEmail())
+                    .versao(empregadoSalvo.getVersao()).build();
+
+            return empregadoService.updateEmpregado(salvarEmpregado)
+                    .thenApply(empregadoAtualizado -> EtagEmpregado.comEtag(ResponseEntity.ok(), empregadoAtualizado).body(empregadoAtualizado))
+                    .exceptionally(ex -> {
+                        if (causa(ex) instanceof ObjectOptimisticLockingFailureException) {
+                            return ResponseEntity.status(versaoEsperada != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+                        }
+                        throw new CompletionException(causa(ex));
+                    });
+        });
+    }
+
+    // Atualizar só os campos enviados, com um único UPDATE - PATCH http://localhost:8080/api/async/empregados/{id}
+    @PatchMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Void>> atualizarParcialmentePorIdEmpregado(@PathVariable Long id, @RequestBody Empregado empregado,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versaoEsperada = EtagEmpregado.versaoDoEtag(ifMatch);
+        return empregadoService.atualizarParcialmente(id, empregado, versaoEsperada)
+                .thenApply(atualizado -> {
+                    if (!atualizado) {
+                        return ResponseEntity.notFound().<Void>build();
+                    }
+                    return versaoEsperada != null
+                            ? ResponseEntity.noContent().eTag(String.valueOf(versaoEsperada + 1)).<Void>build()
+                            : ResponseEntity.noContent().<Void>build();
+                })
+                .exceptionally(ex -> {
+                    if (causa(ex) instanceof ObjectOptimisticLockingFailureException) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+                    }
+                    throw new CompletionException(causa(ex));
+                });
+    }
+
+    // Deletar empregado (204 quando removido, 404 quando o id não existe) - http://localhost:8080/api/async/empregados/{id}
+    @DeleteMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Void>> deletarPorIdEmpregado(@PathVariable Long id) {
+        return empregadoService.deleteEmpregado(id)
+                .thenApply(removido -> removido ? ResponseEntity.noContent().<Void>build() : ResponseEntity.notFound().<Void>build());
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> executorLotado() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, SEGUNDOS_PARA_NOVA_TENTATIVA).build();
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<Void> tempoEsgotado() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    private static Throwable causa(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+}
@@ -1,36 +1,111 @@
 package com.daniel.testeunitario.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.daniel.testeunitario.dto.FiltroEmpregados;
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.dto.PaginaFiltroEmpregados;
+import com.daniel.testeunitario.dto.RemocaoEmLote;
+import com.daniel.testeunitario.dto.ResultadoBuscaPorIds;
+import com.daniel.testeunitario.exception.ConflitoIdempotenciaException;
 import com.daniel.testeunitario.model.Empregado;
 import com.daniel.testeunitario.service.EmpregadoService;
+import com.daniel.testeunitario.service.support.RegistroIdempotencia;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import lombok.AllArgsConstructor;
 
+// Pilha Spring MVC + JPA (padrão). No perfil "reactive" a mesma API é servida pelo EmpregadoReativoController.
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(value = "/api/empregados")
 @AllArgsConstructor
 public class EmpregadoController {
 
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final int LIMITE_IDS_POR_BUSCA = 10000;
+
+    // Linhas que /filtro aceita pular (pagina x limit); além disso o OFFSET fica caro e a navegação deve ser pelo cursor (?after=).
+    private static final long LIMITE_DESLOCAMENTO_FILTRO = 1_000_000;
+
+    // Domínio de email em /batch/delete: rótulos de letras, dígitos e hífen separados por pontos. Curingas ('%', '_', '*'), '@' e espaços dão 400.
+    private static final Pattern DOMINIO_EMAIL = Pattern.compile("[\\p{Alnum}-]+(\\.[\\p{Alnum}-]+)*");
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    // Campos aceitos em ?fields= (atributos de Empregado).
+    private static final Set<String> CAMPOS_PROJECAO = Set.of("id", "nome", "sobrenome", "email", "versao");
+
     private EmpregadoService empregadoService;
 
-    // Criar empregado - http://localhost:8080/api/empregados
+    private ObjectMapper objectMapper;
+
+    private RegistroIdempotencia registroIdempotencia;
+
+    /* Criar empregado - http://localhost:8080/api/empregados
+    *
+    * Com o cabeçalho Idempotency-Key, uma nova tentativa do cliente (por exemplo, depois de um timeout) recebe a resposta da primeira, com
+    * Idempotent-Replayed: true, sem passar de novo pelo serviço e pelo banco; tentativas simultâneas com a mesma chave esperam a primeira.
+    * A mesma chave com outro corpo é 422 (Unprocessable Entity).
+    **/
     @PostMapping
+    public ResponseEntity<Empregado> criarEmpregado(@RequestBody Empregado empregado,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String chaveIdempotencia) {
+        if (chaveIdempotencia == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(empregadoService.salvarEmpregado(empregado));
+        }
+        if (chaveIdempotencia.isBlank() || chaveIdempotencia.length() > RegistroIdempotencia.TAMANHO_MAXIMO_CHAVE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        RegistroIdempotencia.Resultado<Empregado> resultado = registroIdempotencia.executar(chaveIdempotencia,
+                impressao(empregado), () -> empregadoService.salvarEmpregado(empregado));
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(HttpStatus.CREATED);
+        if (resultado.isRepetido()) {
+            resposta.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return resposta.body(resultado.getValor());
+    }
+
+    // Criar empregados em lote (INSERTs agrupados em lotes JDBC) - http://localhost:8080/api/empregados/batch
+    @PostMapping("/batch")
     @ResponseStatus(HttpStatus.CREATED)
-    public Empregado criarEmpregado(@RequestBody Empregado empregado) {
-        return empregadoService.salvarEmpregado(empregado);
+    public List<Empregado> criarEmpregadosEmLote(@RequestBody List<Empregado> empregados) {
+        return empregadoService.salvarEmpregadosEmLote(empregados);
     }
 
     // Listar todos os empregados - - http://localhost:8080/api/empregados
@@ -39,6 +114,85 @@ public class EmpregadoController {
         return empregadoService.getAllEmpregados();
     }
 
+    // Listar só alguns campos de todos os empregados (SELECT apenas dessas colunas) - http://localhost:8080/api/empregados?fields=id,email
+    @GetMapping(params = {"fields", "!limit", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> findAllEmpregadosProjetados(@RequestParam("fields") String fields) {
+        List<String> campos = camposProjecao(fields);
+        if (campos == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(empregadoService.getAllEmpregadosProjetados(campos));
+    }
+
+    // Listar empregados paginados por cursor - http://localhost:8080/api/empregados?limit=50&after={proximoCursor}
+    @GetMapping(params = {"limit", "!ids"})
+    public PaginaEmpregados findEmpregadosPorCursor(@RequestParam(value = "after", required = false) Long after,
+            @RequestParam("limit") int limit) {
+        return empregadoService.getEmpregadosPorCursor(after, limit);
+    }
+
+    // Buscar vários empregados por id em uma requisição - http://localhost:8080/api/empregados?ids=1,2,3
+    @GetMapping(params = "ids")
+    public ResponseEntity<ResultadoBuscaPorIds> findEmpregadosPorIds(@RequestParam("ids") List<Long> ids) {
+        return buscarPorIds(ids);
+    }
+
+    // Mesma busca com os ids no corpo, para listas grandes demais para a URL - http://localhost:8080/api/empregados/ids
+    @PostMapping("/ids")
+    public ResponseEntity<ResultadoBuscaPorIds> findEmpregadosPorIdsNoCorpo(@RequestBody List<Long> ids) {
+        return buscarPorIds(ids);
+    }
+
+    private ResponseEntity<ResultadoBuscaPorIds> buscarPorIds(List<Long> ids) {
+        if (ids.size() > LIMITE_IDS_POR_BUSCA) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(empregadoService.getEmpregadosByIds(ids));
+    }
+
+    /* Filtrar empregados pelos critérios informados, paginado e ordenado - todos os parâmetros são opcionais:
+    * http://localhost:8080/api/empregados/filtro?sobrenome=Pen&dominioEmail=gmail.com&idMinimo=1&idMaximo=500&ordenarPor=sobrenome&pagina=0&limit=50
+    **/
+    @GetMapping("/filtro")
+    public ResponseEntity<PaginaFiltroEmpregados> filtrarEmpregados(FiltroEmpregados filtro,
+            @RequestParam(value = "pagina", defaultValue = "0") int pagina,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        if ((long) pagina * Math.max(1, limit) > LIMITE_DESLOCAMENTO_FILTRO) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(empregadoService.filtrarEmpregados(filtro, pagina, limit));
+    }
+
+    // Buscar por parte do nome, sobrenome ou email, do mais relevante para o menos - http://localhost:8080/api/empregados/search?q=dan&limit=20
+    @GetMapping("/search")
+    public List<Empregado> buscarEmpregados(@RequestParam("q") String consulta,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return empregadoService.buscarEmpregados(consulta, limit);
+    }
+
+    /* Exportar todos os empregados em NDJSON (um JSON por linha) - http://localhost:8080/api/empregados/export
+    *
+    * Cada empregado é serializado direto no output stream da resposta assim que sai do cursor do banco, sem montar a lista inteira em memória.
+    * O flush fica a cargo do buffer do servlet, e não de cada registro.
+    **/
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON)
+    public void exportarEmpregados(HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_NDJSON);
+        ObjectWriter writer = objectMapper.writerFor(Empregado.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            gerador.setRootValueSeparator(null);
+            empregadoService.exportarEmpregados(empregado -> {
+                try {
+                    writer.writeValue(gerador, empregado);
+                    gerador.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
     /* Analisando buscar empregado por id:
     * 1. @GetMapping("/{id}"): Esta anotação mapeia uma solicitação HTTP GET para o endpoint representado por /{id}. O valor {id} é uma variável 
     *    de caminho que captura o valor do id da URL e o torna disponível como um parâmetro para o método.
@@ -58,31 +212,131 @@ public class EmpregadoController {
     *    empregado correspondente ao ID foi encontrado), este trecho gera uma resposta com status 404 (Not Found). ResponseEntity.notFound().build() 
     *    cria um ResponseEntity com status 404 e corpo vazio.
     *
+    * 6. ETag: a resposta leva a versão do empregado no cabeçalho ETag. Quando o cliente envia If-None-Match com a mesma versão, o próprio Spring
+    *    (HttpEntityMethodProcessor) responde 304 (Not Modified) sem corpo, então quem faz polling não baixa de novo um registro que não mudou.
+    *
     * http://localhost:8080/api/empregados/{id}
     **/
     @GetMapping("/{id}")
     public ResponseEntity<Empregado> findByIdEmpregado(@PathVariable("id") Long id) {
-        return empregadoService.getEmpregadoById(id).map(ResponseEntity::ok)
+        return empregadoService.getEmpregadoById(id).map(empregado -> EtagEmpregado.comEtag(ResponseEntity.ok(), empregado).body(empregado))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Buscar só alguns campos de um empregado (sem ETag, que depende da versão completa) - http://localhost:8080/api/empregados/{id}?fields=id,email
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findByIdEmpregadoProjetado(@PathVariable("id") Long id, @RequestParam("fields") String fields) {
+        List<String> campos = camposProjecao(fields);
+        if (campos == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return empregadoService.getEmpregadoProjetadoById(id, campos).map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    // Atualizar empregado - http://localhost:8080/api/empregados/{id}
+    /* Atualizar empregado - http://localhost:8080/api/empregados/{id}
+    *
+    * O empregado devolvido por getEmpregadoById pode ser a instância guardada no cache, por isso ela não é alterada aqui: os novos dados vão
+    * em um objeto novo e updateEmpregado remove a entrada do cache.
+    *
+    * Com o cabeçalho If-Match (ETag recebido no GET) a atualização só acontece se o empregado ainda estiver naquela versão; senão a resposta
+    * é 412 (Precondition Failed). Sem If-Match vale a versão que updateEmpregado lê do banco, e uma alteração concorrente entre essa leitura
+    * e o UPDATE dá 409 (Conflict). A versão nunca vem do empregado buscado aqui, que pode ser a cópia do cache.
+    **/
     @PutMapping("/{id}")
-    public ResponseEntity<Empregado> atualizarPorIdEmpregado(@PathVariable Long id, @RequestBody Empregado empregado){
-        return empregadoService.getEmpregadoById(id).map(salvarEmpregado -> {
-            salvarEmpregado.setNome(empregado.getNome());
-            salvarEmpregado.setSobrenome(empregado.getSobrenome());
-            salvarEmpregado.setEmail(empregado.getEmail());
-
-            Empregado empregadoAtualizado = empregadoService.updateEmpregado(salvarEmpregado);
-            return new ResponseEntity<>(empregadoAtualizado, HttpStatus.OK);
+    public ResponseEntity<Empregado> atualizarPorIdEmpregado(@PathVariable Long id, @RequestBody Empregado empregado,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long versaoEsperada = EtagEmpregado.versaoDoEtag(ifMatch);
+        return empregadoService.getEmpregadoById(id).map(empregadoSalvo -> {
+            Empregado salvarEmpregado = Empregado.builder()
+                    .id(empregadoSalvo.getId())
+                    .nome(empregado.getNome())
+                    .sobrenome(empregado.getSobrenome())
+                    .email(empregado.getEmail())
+                    .versao(versaoEsperada).build();
+
+            try {
+                Empregado empregadoAtualizado = empregadoService.updateEmpregado(salvarEmpregado);
+                return EtagEmpregado.comEtag(ResponseEntity.ok(), empregadoAtualizado).body(empregadoAtualizado);
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                return ResponseEntity.status(versaoEsperada != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).<Empregado>build();
+            }
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    // Deletar empregado - http://localhost:8080/api/empregados/{id}
+    // Atualizar só os campos enviados, com um único UPDATE (If-Match opcional, 412 se a versão mudou) - PATCH http://localhost:8080/api/empregados/{id}
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> atualizarParcialmentePorIdEmpregado(@PathVariable Long id, @RequestBody Empregado empregado,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long versaoEsperada = EtagEmpregado.versaoDoEtag(ifMatch);
+        try {
+            if (!empregadoService.atualizarParcialmente(id, empregado, versaoEsperada)) {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+
+        // Sabendo a versão anterior, a nova é a seguinte; sem If-Match o cliente precisa de um GET para obter o ETag atualizado.
+        return versaoEsperada != null
+                ? ResponseEntity.noContent().eTag(String.valueOf(versaoEsperada + 1)).build()
+                : ResponseEntity.noContent().build();
+    }
+
+    // Deletar empregado (204 quando removido, 404 quando o id não existe) - http://localhost:8080/api/empregados/{id}
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deletarPorIdEmpregado(@PathVariable Long id){
-        empregadoService.deleteEmpregado(id);
-        return new ResponseEntity<String>("Empregado deletado com Sucesso!", HttpStatus.OK);
+    public ResponseEntity<Void> deletarPorIdEmpregado(@PathVariable Long id){
+        if (empregadoService.deleteEmpregado(id)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // Deletar empregados em lote, por ids ou por domínio de email - http://localhost:8080/api/empregados/batch/delete
+    @PostMapping("/batch/delete")
+    public ResponseEntity<Map<String, Integer>> deletarEmpregadosEmLote(@RequestBody RemocaoEmLote remocao){
+        boolean porIds = remocao.getIds() != null && !remocao.getIds().isEmpty();
+        boolean porDominio = remocao.getDominioEmail() != null && !remocao.getDominioEmail().isBlank();
+        if (porIds == porDominio || porDominio && !DOMINIO_EMAIL.matcher(remocao.getDominioEmail()).matches()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int removidos = porIds
+                ? empregadoService.deleteEmpregadosPorIds(remocao.getIds())
+                : empregadoService.deleteEmpregadosPorDominioEmail(remocao.getDominioEmail());
+        return ResponseEntity.ok(Map.of("removidos", removidos));
+    }
+
+    @ExceptionHandler(ConflitoIdempotenciaException.class)
+    public ResponseEntity<Map<String, String>> chaveIdempotenciaReutilizada(ConflitoIdempotenciaException ex) {
+        return ResponseEntity.unprocessableEntity().body(Map.of("erro", ex.getMessage()));
+    }
+
+    /* Campos do corpo que definem a criação, para reconhecer a mesma Idempotency-Key enviada com outro empregado. Cada campo vai com o
+    *  tamanho na frente ("6:Daniel"), e o nulo como "-": nenhum valor, nem um com separadores dentro ou o texto "null", se confunde com outro.
+    **/
+    private static String impressao(Empregado empregado) {
+        StringBuilder impressao = new StringBuilder();
+        for (String campo : new String[] {empregado.getNome(), empregado.getSobrenome(), empregado.getEmail()}) {
+            if (campo == null) {
+                impressao.append('-');
+            } else {
+                impressao.append(campo.length()).append(':').append(campo);
+            }
+        }
+        return impressao.toString();
+    }
+
+    // Lista de campos de ?fields=, sem repetições e na ordem pedida; null quando vazia ou com campo desconhecido.
+    private static List<String> camposProjecao(String fields) {
+        Set<String> campos = new LinkedHashSet<>();
+        for (String campo : fields.split(",")) {
+            String nome = campo.trim();
+            if (!CAMPOS_PROJECAO.contains(nome)) {
+                return null;
+            }
+            campos.add(nome);
+        }
+        return new ArrayList<>(campos);
     }
 }
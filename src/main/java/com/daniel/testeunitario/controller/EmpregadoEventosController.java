@@ -0,0 +1,65 @@
+package com.daniel.testeunitario.controller;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.daniel.testeunitario.dto.PaginaEventos;
+import com.daniel.testeunitario.service.EmpregadoEventosService;
+
+import lombok.AllArgsConstructor;
+
+/* Feed de alterações de empregados (criações, atualizações e remoções feitas pelo EmpregadoService), em ordem de sequência.
+*
+*  Para montar uma cópia local sem perder nada: guarde a ultimaSequencia de GET /changes?since=0&limit=1 (ou comece do 0), baixe
+*  GET /api/empregados e depois acompanhe o feed a partir dessa sequência. Um evento pode chegar repetido em relação à carga inicial, então
+*  aplique-os como "gravar/remover pelo empregadoId".
+**/
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/api/empregados/changes")
+@AllArgsConstructor
+public class EmpregadoEventosController {
+
+    private static final String SEGUNDOS_PARA_NOVA_TENTATIVA = "5";
+
+    private EmpregadoEventosService eventosService;
+
+    private TransmissaoEventosEmpregados transmissao;
+
+    // Alterações depois de uma sequência; repita com since=ultimaSequencia enquanto maisEventos - http://localhost:8080/api/empregados/changes?since=0&limit=500
+    @GetMapping
+    public PaginaEventos getAlteracoes(@RequestParam(value = "since", defaultValue = "0") long since,
+            @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        return eventosService.getEventos(since, limit);
+    }
+
+    /* Alterações em Server-Sent Events - http://localhost:8080/api/empregados/changes/stream?since=0
+    *
+    *  O ponto de partida é o cabeçalho Last-Event-ID (enviado pelo EventSource ao reconectar), senão ?since=; sem nenhum dos dois, só as
+    *  alterações a partir de agora. Cada evento SSE leva a sequência no id e o tipo (CRIADO, ATUALIZADO, REMOVIDO) no nome.
+    **/
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter transmitirAlteracoes(@RequestParam(value = "since", required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEventoRecebido) {
+        long desde = ultimoEventoRecebido != null ? ultimoEventoRecebido
+                : since != null ? since : eventosService.getUltimaSequencia();
+        return transmissao.assinar(desde);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> assinantesDemais() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, SEGUNDOS_PARA_NOVA_TENTATIVA).build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.daniel.testeunitario.controller;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.daniel.testeunitario.dto.RelatorioImportacao;
+import com.daniel.testeunitario.service.EmpregadoImportacaoService;
+import com.daniel.testeunitario.service.EmpregadoImportacaoService.Formato;
+
+import lombok.AllArgsConstructor;
+
+/* Importação em massa de empregados - POST http://localhost:8080/api/empregados/import
+*
+*  O corpo é passado como fluxo para o EmpregadoImportacaoService (sem @RequestBody, que leria tudo antes), no formato indicado pelo
+*  Content-Type: application/x-ndjson ou text/csv. A resposta é o relatório com os erros por linha e a vazão da importação.
+*
+*  Com o limite de importações simultâneas atingido a resposta é 503 com Retry-After.
+**/
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/api/empregados/import")
+@AllArgsConstructor
+public class EmpregadoImportacaoController {
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private static final String SEGUNDOS_PARA_NOVA_TENTATIVA = "5";
+
+    private EmpregadoImportacaoService importacaoService;
+
+    @PostMapping(consumes = APPLICATION_NDJSON)
+    public RelatorioImportacao importarNdjson(HttpServletRequest request) throws IOException {
+        return importacaoService.importarEmpregados(request.getInputStream(), Formato.NDJSON);
+    }
+
+    @PostMapping(consumes = TEXT_CSV)
+    public RelatorioImportacao importarCsv(HttpServletRequest request) throws IOException {
+        return importacaoService.importarEmpregados(request.getInputStream(), Formato.CSV);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> importacaoEmAndamento(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, SEGUNDOS_PARA_NOVA_TENTATIVA)
+                .body(Map.of("erro", ex.getMessage()));
+    }
+
+    // Cabeçalho do CSV sem as colunas obrigatórias.
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> arquivoInvalido(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of("erro", ex.getMessage()));
+    }
+}
@@ -0,0 +1,178 @@
+package com.daniel.testeunitario.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.dto.RemocaoEmLote;
+import com.daniel.testeunitario.dto.ResultadoBuscaPorIds;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.EmpregadoReativoService;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/* Mesma API de EmpregadoController (mesmas URLs, status e JSON) servida por WebFlux + R2DBC no perfil "reactive".
+*
+*  Nenhum método bloqueia: cada um devolve um Mono/Flux e a thread do event loop (Netty) fica livre enquanto o banco responde, então poucas
+*  threads atendem muitas conexões simultâneas. No GET por id o próprio WebFlux (ResponseEntityResultHandler) responde 304 quando o
+*  If-None-Match coincide com o ETag, como o Spring MVC faz na pilha bloqueante.
+**/
+@RestController
+@RequestMapping(value = "/api/empregados")
+@Profile("reactive")
+@AllArgsConstructor
+public class EmpregadoReativoController {
+
+    private static final int LIMITE_IDS_POR_BUSCA = 10000;
+
+    // Domínio de email em /batch/delete: rótulos de letras, dígitos e hífen separados por pontos. Curingas ('%', '_', '*'), '@' e espaços dão 400.
+    private static final Pattern DOMINIO_EMAIL = Pattern.compile("[\\p{Alnum}-]+(\\.[\\p{Alnum}-]+)*");
+
+    private EmpregadoReativoService empregadoService;
+
+    // Criar empregado - http://localhost:8080/api/empregados
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Empregado> criarEmpregado(@RequestBody Empregado empregado) {
+        return empregadoService.salvarEmpregado(empregado);
+    }
+
+    // Criar empregados em lote, em uma única transação - http://localhost:8080/api/empregados/batch
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Flux<Empregado> criarEmpregadosEmLote(@RequestBody List<Empregado> empregados) {
+        return empregadoService.salvarEmpregadosEmLote(empregados);
+    }
+
+    // Listar todos os empregados - http://localhost:8080/api/empregados
+    @GetMapping
+    public Flux<Empregado> findAllEmpregados() {
+        return empregadoService.getAllEmpregados();
+    }
+
+    // Listar empregados paginados por cursor - http://localhost:8080/api/empregados?limit=50&after={proximoCursor}
+    @GetMapping(params = {"limit", "!ids"})
+    public Mono<PaginaEmpregados> findEmpregadosPorCursor(@RequestParam(value = "after", required = false) Long after,
+            @RequestParam("limit") int limit) {
+        return empregadoService.getEmpregadosPorCursor(after, limit);
+    }
+
+    // Buscar vários empregados por id em uma requisição - http://localhost:8080/api/empregados?ids=1,2,3
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<ResultadoBuscaPorIds>> findEmpregadosPorIds(@RequestParam("ids") List<Long> ids) {
+        return buscarPorIds(ids);
+    }
+
+    // Mesma busca com os ids no corpo - http://localhost:8080/api/empregados/ids
+    @PostMapping("/ids")
+    public Mono<ResponseEntity<ResultadoBuscaPorIds>> findEmpregadosPorIdsNoCorpo(@RequestBody List<Long> ids) {
+        return buscarPorIds(ids);
+    }
+
+    private Mono<ResponseEntity<ResultadoBuscaPorIds>> buscarPorIds(List<Long> ids) {
+        if (ids.size() > LIMITE_IDS_POR_BUSCA) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return empregadoService.getEmpregadosByIds(ids).map(ResponseEntity::ok);
+    }
+
+    // Exportar todos os empregados em NDJSON, um JSON por linha escrito conforme sai do banco - http://localhost:8080/api/empregados/export
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Empregado> exportarEmpregados() {
+        return empregadoService.exportarEmpregados();
+    }
+
+    // Buscar empregado por id, com a versão no ETag - http://localhost:8080/api/empregados/{id}
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Empregado>> findByIdEmpregado(@PathVariable("id") Long id) {
+        return empregadoService.getEmpregadoById(id)
+                .map(empregado -> EtagEmpregado.comEtag(ResponseEntity.ok(), empregado).body(empregado))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Atualizar empregado (If-Match opcional: 412 se a versão mudou, 409 em alteração concorrente) - http://localhost:8080/api/empregados/{id}
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Empregado>> atualizarPorIdEmpregado(@PathVariable Long id, @RequestBody Empregado empregado,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long versaoEsperada = EtagEmpregado.versaoDoEtag(ifMatch);
+        return empregadoService.getEmpregadoById(id).flatMap(empregadoSalvo -> {
+            if (versaoEsperada != null && !versaoEsperada.equals(empregadoSalvo.getVersao())) {
+                return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Empregado>build());
+            }
+
+            Empregado salvarEmpregado = Empregado.builder()
+                    .id(empregadoSalvo.getId())
+                    .nome(empregado.getNome())
+                    .sobrenome(empregado.getSobrenome())
+                    .email(empregado.getEmail())
+                    .versao(empregadoSalvo.getVersao()).build();
+
+            return empregadoService.updateEmpregado(salvarEmpregado)
+                    .map(empregadoAtualizado -> EtagEmpregado.comEtag(ResponseEntity.ok(), empregadoAtualizado).body(empregadoAtualizado))
+                    .onErrorResume(ObjectOptimisticLockingFailureException.class, ex -> Mono.just(ResponseEntity
+                            .status(versaoEsperada != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).<Empregado>build()));
+        }).defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Atualizar só os campos enviados, com um único UPDATE - PATCH http://localhost:8080/api/empregados/{id}
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Void>> atualizarParcialmentePorIdEmpregado(@PathVariable Long id, @RequestBody Empregado empregado,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long versaoEsperada = EtagEmpregado.versaoDoEtag(ifMatch);
+        return empregadoService.atualizarParcialmente(id, empregado, versaoEsperada)
+                .map(atualizado -> {
+                    if (!atualizado) {
+                        return ResponseEntity.notFound().<Void>build();
+                    }
+                    return versaoEsperada != null
+                            ? ResponseEntity.noContent().eTag(String.valueOf(versaoEsperada + 1)).<Void>build()
+                            : ResponseEntity.noContent().<Void>build();
+                })
+                .onErrorResume(ObjectOptimisticLockingFailureException.class,
+                        ex -> Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Void>build()));
+    }
+
+    // Deletar empregado (204 quando removido, 404 quando o id não existe) - http://localhost:8080/api/empregados/{id}
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deletarPorIdEmpregado(@PathVariable Long id){
+        return empregadoService.deleteEmpregado(id)
+                .map(removido -> removido ? ResponseEntity.noContent().<Void>build() : ResponseEntity.notFound().<Void>build());
+    }
+
+    // Deletar empregados em lote, por ids ou por domínio de email - http://localhost:8080/api/empregados/batch/delete
+    @PostMapping("/batch/delete")
+    public Mono<ResponseEntity<Map<String, Integer>>> deletarEmpregadosEmLote(@RequestBody RemocaoEmLote remocao){
+        boolean porIds = remocao.getIds() != null && !remocao.getIds().isEmpty();
+        boolean porDominio = remocao.getDominioEmail() != null && !remocao.getDominioEmail().isBlank();
+        if (porIds == porDominio || porDominio && !DOMINIO_EMAIL.matcher(remocao.getDominioEmail()).matches()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        Mono<Integer> removidos = porIds
+                ? empregadoService.deleteEmpregadosPorIds(remocao.getIds())
+                : empregadoService.deleteEmpregadosPorDominioEmail(remocao.getDominioEmail());
+        return removidos.map(quantidade -> ResponseEntity.ok(Map.of("removidos", quantidade)));
+    }
+}
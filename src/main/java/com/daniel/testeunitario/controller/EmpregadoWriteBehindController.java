@@ -0,0 +1,70 @@
+package com.daniel.testeunitario.controller;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.daniel.testeunitario.dto.SituacaoGravacao;
+import com.daniel.testeunitario.exception.ResourceNotFoundException;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.EmpregadoWriteBehindService;
+
+import lombok.AllArgsConstructor;
+
+/* Criação de empregados em write-behind (opcional, empregados.write-behind.habilitado=true) - http://localhost:8080/api/empregados/write-behind
+*
+*  O POST responde 202 (Accepted) assim que o empregado entra no buffer, com o token no corpo e a URL da situação no Location; o GET dessa URL
+*  diz se o empregado já foi gravado (com o id) ou rejeitado (com o motivo). Buffer cheio é 503 com Retry-After, como no EmpregadoAsyncController.
+**/
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "empregados.write-behind.habilitado", havingValue = "true")
+@RequestMapping(value = "/api/empregados/write-behind")
+@AllArgsConstructor
+public class EmpregadoWriteBehindController {
+
+    private static final String SEGUNDOS_PARA_NOVA_TENTATIVA = "1";
+
+    private EmpregadoWriteBehindService writeBehindService;
+
+    @PostMapping
+    public ResponseEntity<SituacaoGravacao> criarEmpregado(@RequestBody Empregado empregado) {
+        SituacaoGravacao situacao = writeBehindService.enfileirar(empregado);
+        return ResponseEntity.accepted().location(URI.create("/api/empregados/write-behind/" + situacao.getToken())).body(situacao);
+    }
+
+    // Situação da gravação - http://localhost:8080/api/empregados/write-behind/{token}
+    @GetMapping("/{token}")
+    public ResponseEntity<SituacaoGravacao> getSituacao(@PathVariable("token") String token) {
+        return writeBehindService.getSituacao(token).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> bufferCheio() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, SEGUNDOS_PARA_NOVA_TENTATIVA).build();
+    }
+
+    // Mesmo email já aguardando gravação.
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<Map<String, String>> emailPendente(ResourceNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("erro", ex.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> empregadoInvalido(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of("erro", ex.getMessage()));
+    }
+}
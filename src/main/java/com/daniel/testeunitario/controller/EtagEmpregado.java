@@ -0,0 +1,33 @@
+package com.daniel.testeunitario.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import com.daniel.testeunitario.model.Empregado;
+
+// ETag dos empregados (a versão de @Version), compartilhado pelos controllers bloqueante e reativo.
+final class EtagEmpregado {
+
+    private EtagEmpregado() {
+    }
+
+    static ResponseEntity.BodyBuilder comEtag(ResponseEntity.BodyBuilder resposta, Empregado empregado) {
+        return empregado.getVersao() != null ? resposta.eTag(String.valueOf(empregado.getVersao())) : resposta;
+    }
+
+    // Converte o valor de If-Match (ex.: "3" ou W/"3") na versão; "*" ou ausente significam sem restrição de versão.
+    static Long versaoDoEtag(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/")) {
+            valor = valor.substring(2);
+        }
+        try {
+            return Long.valueOf(valor.replace("\"", ""));
+        } catch (NumberFormatException ex) {
+            // ETag que não corresponde a nenhuma versão nunca vai coincidir com a atual
+            return -1L;
+        }
+    }
+}
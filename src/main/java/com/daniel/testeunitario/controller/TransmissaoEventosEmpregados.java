@@ -0,0 +1,166 @@
+package com.daniel.testeunitario.controller;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.daniel.testeunitario.dto.PaginaEventos;
+import com.daniel.testeunitario.model.EventoEmpregado;
+import com.daniel.testeunitario.service.EmpregadoEventosService;
+import com.daniel.testeunitario.service.support.OutboxEmpregados;
+
+import lombok.extern.slf4j.Slf4j;
+
+/* Conexões SSE do feed de alterações, todas atendidas por uma única thread.
+*
+*  Cada assinante guarda a sequência do último evento que recebeu. A cada commit com eventos (OutboxEmpregados.NovosEventos) a thread lê
+*  do banco, numa consulta só, os eventos depois do assinante mais atrasado e entrega a cada um o que ele ainda não tem. Como tudo sai do
+*  outbox, em ordem de sequência, não há evento perdido nem fora de ordem, e quem acabou de conectar com uma sequência antiga é posto em dia
+*  pelo mesmo caminho.
+*
+*  A cada empregados.eventos.heartbeat é enviado um comentário SSE, que mantém a conexão aberta em proxies e detecta clientes que saíram,
+*  e o outbox é lido de novo (cobre um aviso de commit perdido). O envio é bloqueante: um cliente que não lê atrasa a entrega para os
+*  outros até a escrita falhar, por isso o número de assinantes é limitado (empregados.eventos.max-assinantes).
+**/
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TransmissaoEventosEmpregados {
+
+    private static final int TAMANHO_PAGINA = 500;
+
+    private final EmpregadoEventosService eventosService;
+
+    private final long timeoutMs;
+
+    private final int maxAssinantes;
+
+    private final List<Assinante> assinantes = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService despachante = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("eventos-sse-"));
+
+    private final AtomicBoolean despachoPendente = new AtomicBoolean();
+
+    public TransmissaoEventosEmpregados(EmpregadoEventosService eventosService,
+            @Value("${empregados.eventos.sse-timeout:30m}") Duration timeout,
+            @Value("${empregados.eventos.heartbeat:15s}") Duration heartbeat,
+            @Value("${empregados.eventos.max-assinantes:100}") int maxAssinantes) {
+        this.eventosService = eventosService;
+        this.timeoutMs = timeout.toMillis();
+        this.maxAssinantes = maxAssinantes;
+        despachante.scheduleWithFixedDelay(this::pulsar, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Eventos com sequência maior que "desde" e, depois, cada nova alteração. Assinantes demais: RejectedExecutionException.
+    public SseEmitter assinar(long desde) {
+        if (assinantes.size() >= maxAssinantes) {
+            throw new RejectedExecutionException("Limite de assinantes do feed de alterações atingido");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter, desde);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(ex -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+        sinalizar();
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void novosEventos(OutboxEmpregados.NovosEventos aviso) {
+        sinalizar();
+    }
+
+    // Vários commits seguidos viram um único despacho.
+    private void sinalizar() {
+        if (despachoPendente.compareAndSet(false, true)) {
+            despachante.execute(this::despachar);
+        }
+    }
+
+    private void despachar() {
+        despachoPendente.set(false);
+        try {
+            while (!assinantes.isEmpty()) {
+                long desde = assinantes.stream().mapToLong(assinante -> assinante.cursor).min().getAsLong();
+                PaginaEventos pagina = eventosService.getEventos(desde, TAMANHO_PAGINA);
+                for (Assinante assinante : assinantes) {
+                    enviar(assinante, pagina.getEventos());
+                }
+                if (!pagina.isMaisEventos()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // O próximo heartbeat tenta de novo a partir dos mesmos cursores.
+            log.warn("Falha ao ler o feed de alterações de empregados", ex);
+        }
+    }
+
+    private void enviar(Assinante assinante, List<EventoEmpregado> eventos) {
+        try {
+            for (EventoEmpregado evento : eventos) {
+                if (evento.getSequencia() > assinante.cursor) {
+                    // O id vira o Last-Event-ID que o EventSource do navegador manda ao reconectar.
+                    assinante.emitter.send(SseEmitter.event().id(String.valueOf(evento.getSequencia())).name(evento.getTipo().name())
+                            .data(evento, MediaType.APPLICATION_JSON));
+                    assinante.cursor = evento.getSequencia();
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            desconectar(assinante, ex);
+        }
+    }
+
+    private void pulsar() {
+        for (Assinante assinante : assinantes) {
+            try {
+                assinante.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException ex) {
+                desconectar(assinante, ex);
+            }
+        }
+        despachar();
+    }
+
+    private void desconectar(Assinante assinante, Exception ex) {
+        assinantes.remove(assinante);
+        assinante.emitter.completeWithError(ex);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        despachante.shutdownNow();
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        assinantes.clear();
+    }
+
+    private static final class Assinante {
+
+        private final SseEmitter emitter;
+
+        // Só a thread do despacho altera, depois de o assinante ser publicado na lista.
+        private long cursor;
+
+        private Assinante(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.daniel.testeunitario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ErroImportacao {
+
+    // Número da linha no arquivo enviado (no CSV o cabeçalho é a linha 1).
+    private long linha;
+
+    private String mensagem;
+}
@@ -0,0 +1,40 @@
+package com.daniel.testeunitario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FiltroEmpregados {
+
+    public static final String ORDENAR_POR_NOME = "nome";
+
+    public static final String ORDENAR_POR_SOBRENOME = "sobrenome";
+
+    // Todos os critérios são opcionais; os informados são combinados com E.
+    private String nome;
+
+    private String sobrenome;
+
+    private String dominioEmail;
+
+    private Long idMinimo;
+
+    private Long idMaximo;
+
+    // "nome" ou "sobrenome"; qualquer outro valor (ou nenhum) ordena por id.
+    private String ordenarPor;
+}
+
+/**
+ * Observação:
+ * 
+ * nome e sobrenome são prefixos com a mesma grafia do cadastro ("Dan" encontra "Daniel"), para que o filtro use os índices em ordem. Para 
+ * buscar sem acento, sem diferenciar maiúsculas ou por qualquer parte do texto existe GET /api/empregados/search.
+*/
@@ -0,0 +1,29 @@
+package com.daniel.testeunitario.dto;
+
+import java.util.List;
+
+import com.daniel.testeunitario.model.Empregado;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaEmpregados {
+
+    private List<Empregado> conteudo;
+
+    // Id do último empregado da página; é o valor a ser enviado em "after" para buscar a próxima página (null quando não há mais páginas).
+    private Long proximoCursor;
+}
+
+/**
+ * Observação:
+ * 
+ * A paginação por cursor (keyset) não usa OFFSET: cada página é buscada com "WHERE id > :after ORDER BY id LIMIT :limit", o que percorre
+ * o índice da chave primária a partir do cursor. Assim o custo de uma página é o mesmo na primeira ou na última página.
+*/
@@ -0,0 +1,24 @@
+package com.daniel.testeunitario.dto;
+
+import java.util.List;
+
+import com.daniel.testeunitario.model.EventoEmpregado;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaEventos {
+
+    private List<EventoEmpregado> eventos;
+
+    // Valor para o próximo ?since=: a sequência do último evento da página, ou o próprio since quando não houve alteração.
+    private long ultimaSequencia;
+
+    private boolean maisEventos;
+}
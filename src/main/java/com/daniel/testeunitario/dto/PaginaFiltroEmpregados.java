@@ -0,0 +1,22 @@
+package com.daniel.testeunitario.dto;
+
+import java.util.List;
+
+import com.daniel.testeunitario.model.Empregado;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaFiltroEmpregados {
+
+    private List<Empregado> conteudo;
+
+    // Número da próxima página a ser enviado em "pagina" (null quando não há mais páginas).
+    private Integer proximaPagina;
+}
@@ -0,0 +1,31 @@
+package com.daniel.testeunitario.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RelatorioImportacao {
+
+    // Registros lidos do arquivo, sem contar linhas em branco e o cabeçalho do CSV; é sempre importados + rejeitados.
+    private long totalLinhas;
+
+    private long importados;
+
+    private long rejeitados;
+
+    // Os primeiros erros em ordem de linha; os que passam do limite só entram na contagem de errosOmitidos.
+    private List<ErroImportacao> erros;
+
+    private long errosOmitidos;
+
+    private long duracaoMs;
+
+    private double linhasPorSegundo;
+}
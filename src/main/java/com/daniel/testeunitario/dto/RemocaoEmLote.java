@@ -0,0 +1,20 @@
+package com.daniel.testeunitario.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RemocaoEmLote {
+
+    // Informe os ids a remover ou o domínio de email (ex.: "empresa.com"), nunca os dois.
+    private List<Long> ids;
+
+    private String dominioEmail;
+}
@@ -0,0 +1,22 @@
+package com.daniel.testeunitario.dto;
+
+import java.util.List;
+
+import com.daniel.testeunitario.model.Empregado;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoBuscaPorIds {
+
+    // Empregados encontrados, na mesma ordem dos ids pedidos.
+    private List<Empregado> empregados;
+
+    private List<Long> idsNaoEncontrados;
+}
@@ -0,0 +1,30 @@
+package com.daniel.testeunitario.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SituacaoGravacao {
+
+    public enum Situacao {
+        // Aceito e ainda no buffer, aguardando o próximo lote.
+        PENDENTE,
+        GRAVADO,
+        REJEITADO
+    }
+
+    private String token;
+
+    private Situacao situacao;
+
+    // Preenchido quando GRAVADO.
+    private Long id;
+
+    // Motivo quando REJEITADO.
+    private String mensagem;
+}
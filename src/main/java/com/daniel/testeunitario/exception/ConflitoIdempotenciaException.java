@@ -0,0 +1,8 @@
+package com.daniel.testeunitario.exception;
+
+public class ConflitoIdempotenciaException extends RuntimeException{
+
+    public ConflitoIdempotenciaException(String message){
+        super(message);
+    }
+}
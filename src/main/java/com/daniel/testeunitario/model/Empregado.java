@@ -5,9 +5,15 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,15 +21,18 @@ import lombok.Setter;
 
 @Setter
 @Getter
-@AllArgsConstructor
 @NoArgsConstructor
-@Builder
 @Entity
-@Table(name = "empregados")
+@Table(name = "empregados", uniqueConstraints = @UniqueConstraint(name = "uk_empregados_email", columnNames = "email"),
+        indexes = {
+            @Index(name = "idx_empregados_sobrenome_nome", columnList = "sobrenome, nome, id"),
+            @Index(name = "idx_empregados_nome_sobrenome", columnList = "nome, sobrenome, id"),
+            @Index(name = "idx_empregados_email_dominio", columnList = "email_dominio, id")})
 public class Empregado {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "empregados_seq")
+    @SequenceGenerator(name = "empregados_seq", sequenceName = "empregados_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "nome", nullable = false)
@@ -34,11 +43,39 @@ public class Empregado {
     
     @Column(name = "email", nullable = false)
     private String email;
+
+    // Controle de concorrência otimista: incrementada a cada UPDATE e exposta como ETag na API.
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
+    // Só leitura: o próprio banco calcula o domínio a partir do email, em qualquer INSERT/UPDATE (JPA, CriteriaUpdate ou R2DBC).
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "email_dominio", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(substring(email, locate('@', email) + 1)))")
+    private String emailDominio;
+
+    @Builder
+    public Empregado(Long id, String nome, String sobrenome, String email, Long versao) {
+        this.id = id;
+        this.nome = nome;
+        this.sobrenome = sobrenome;
+        this.email = email;
+        this.versao = versao;
+    }
 }
 
 /**
  * Observação:
  * 
- * A classe Empregado é anotada com @Builder. Isso permite criar uma instância da classe Empregado usando um padrão fluente, onde pode definir 
- * os valores dos campos usando métodos encadeados. 
+ * O construtor da classe Empregado é anotado com @Builder. Isso permite criar uma instância da classe Empregado usando um padrão fluente, onde 
+ * pode definir os valores dos campos usando métodos encadeados. O emailDominio fica de fora porque é calculado pelo banco.
+ * 
+ * Os índices seguem os filtros de GET /api/empregados/filtro: (sobrenome, nome, id) e (nome, sobrenome, id) atendem o filtro por prefixo e a 
+ * ordenação sem um passo de sort, e (email_dominio, id) transforma o filtro por domínio numa busca por faixa no índice, em vez do 
+ * "email like '%@dominio'" que percorre a tabela inteira.
+ * 
+ * O id é gerado por uma sequence com alocação em blocos (pooled, allocationSize = 50): o Hibernate reserva 50 ids por chamada à sequence e, 
+ * diferente de IDENTITY, consegue agrupar os INSERTs em lotes JDBC (hibernate.jdbc.batch_size).
 */
\ No newline at end of file
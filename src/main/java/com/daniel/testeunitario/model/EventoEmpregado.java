@@ -0,0 +1,71 @@
+package com.daniel.testeunitario.model;
+
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "empregados_eventos")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventoEmpregado {
+
+    public enum Tipo { CRIADO, ATUALIZADO, REMOVIDO }
+
+    // Número de sequência do feed de alterações: cresce na ordem em que as transações fazem commit (ver OutboxEmpregados).
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "empregados_eventos_seq")
+    @SequenceGenerator(name = "empregados_eventos_seq", sequenceName = "empregados_eventos_seq", allocationSize = 50)
+    private Long sequencia;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 20)
+    private Tipo tipo;
+
+    @Column(name = "empregado_id", nullable = false)
+    private Long empregadoId;
+
+    // Dados do empregado depois da alteração. Numa atualização parcial vêm só os campos alterados; na remoção, nenhum.
+    @Column(name = "nome")
+    private String nome;
+
+    @Column(name = "sobrenome")
+    private String sobrenome;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "versao")
+    private Long versao;
+
+    @Column(name = "ocorrido_em", nullable = false)
+    private Instant ocorridoEm;
+
+    @Builder
+    public EventoEmpregado(Tipo tipo, Long empregadoId, String nome, String sobrenome, String email, Long versao, Instant ocorridoEm) {
+        this.tipo = tipo;
+        this.empregadoId = empregadoId;
+        this.nome = nome;
+        this.sobrenome = sobrenome;
+        this.email = email;
+        this.versao = versao;
+        this.ocorridoEm = ocorridoEm;
+    }
+}
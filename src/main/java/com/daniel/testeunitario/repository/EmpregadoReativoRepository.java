@@ -0,0 +1,169 @@
+package com.daniel.testeunitario.repository;
+
+import java.util.Collection;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import com.daniel.testeunitario.model.Empregado;
+
+import io.r2dbc.spi.Row;
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/* Acesso reativo (R2DBC) à tabela empregados, usado pela pilha WebFlux do perfil "reactive".
+*
+*  As consultas são SQL escrito à mão sobre o DatabaseClient e devolvem o mesmo Empregado do JPA (aqui só como objeto de dados), para a API
+*  reativa ter exatamente o mesmo JSON. Nenhuma operação bloqueia a thread: cada método devolve um Mono/Flux que só executa ao ser assinado.
+**/
+@Repository
+@Profile("reactive")
+@AllArgsConstructor
+public class EmpregadoReativoRepository {
+
+    private static final String COLUNAS = "id, nome, sobrenome, email, versao";
+
+    private DatabaseClient databaseClient;
+
+    public Mono<Empregado> findById(long id) {
+        return databaseClient.sql("select " + COLUNAS + " from empregados where id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> paraEmpregado(row))
+                .one();
+    }
+
+    public Flux<Empregado> findAll() {
+        return databaseClient.sql("select " + COLUNAS + " from empregados order by id")
+                .map((row, metadata) -> paraEmpregado(row))
+                .all();
+    }
+
+    // Paginação por cursor (keyset), como findByIdGreaterThanOrderByIdAsc do EmpregadoRepository.
+    public Flux<Empregado> findByIdGreaterThanOrderByIdAsc(long id, int limite) {
+        return databaseClient.sql("select " + COLUNAS + " from empregados where id > :id order by id limit :limite")
+                .bind("id", id)
+                .bind("limite", limite)
+                .map((row, metadata) -> paraEmpregado(row))
+                .all();
+    }
+
+    public Flux<Empregado> findAllById(Collection<Long> ids) {
+        return databaseClient.sql("select " + COLUNAS + " from empregados where id in (:ids)")
+                .bind("ids", ids)
+                .map((row, metadata) -> paraEmpregado(row))
+                .all();
+    }
+
+    public Mono<Boolean> existsById(long id) {
+        return databaseClient.sql("select count(*) from empregados where id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> row.get(0, Long.class) > 0)
+                .one();
+    }
+
+    /* O id vem da mesma sequence do JPA. O Hibernate (otimizador pooled, allocationSize = 50) trata cada valor da sequence como o fim de um
+    *  bloco de 50 ids; usando só o próprio valor, o INSERT reativo nunca colide com um bloco reservado pelo JPA.
+    **/
+    public Mono<Empregado> inserir(Empregado empregado) {
+        return databaseClient.sql("select next value for empregados_seq")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> vincularCampos(databaseClient.sql(
+                        "insert into empregados (" + COLUNAS + ") values (:id, :nome, :sobrenome, :email, 0)"), empregado)
+                        .bind("id", id)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(Empregado.builder()
+                                .id(id)
+                                .nome(empregado.getNome())
+                                .sobrenome(empregado.getSobrenome())
+                                .email(empregado.getEmail())
+                                .versao(0L).build()));
+    }
+
+    // UPDATE completo com controle otimista: 0 linhas afetadas significa id inexistente ou versão diferente da informada.
+    public Mono<Integer> atualizar(Empregado empregado) {
+        return vincularCampos(databaseClient.sql("update empregados set nome = :nome, sobrenome = :sobrenome, email = :email, "
+                + "versao = versao + 1 where id = :id and versao = :versao"), empregado)
+                .bind("id", empregado.getId())
+                .bind("versao", empregado.getVersao())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // Mesmo UPDATE só com os campos enviados de EmpregadoRepositoryCustom.atualizarCampos.
+    public Mono<Integer> atualizarCampos(long id, Empregado alteracoes, Long versaoEsperada) {
+        StringBuilder sql = new StringBuilder("update empregados set ");
+        if (alteracoes.getNome() != null) {
+            sql.append("nome = :nome, ");
+        }
+        if (alteracoes.getSobrenome() != null) {
+            sql.append("sobrenome = :sobrenome, ");
+        }
+        if (alteracoes.getEmail() != null) {
+            sql.append("email = :email, ");
+        }
+        sql.append("versao = versao + 1 where id = :id");
+        if (versaoEsperada != null) {
+            sql.append(" and versao = :versao");
+        }
+
+        GenericExecuteSpec update = databaseClient.sql(sql.toString()).bind("id", id);
+        if (alteracoes.getNome() != null) {
+            update = update.bind("nome", alteracoes.getNome());
+        }
+        if (alteracoes.getSobrenome() != null) {
+            update = update.bind("sobrenome", alteracoes.getSobrenome());
+        }
+        if (alteracoes.getEmail() != null) {
+            update = update.bind("email", alteracoes.getEmail());
+        }
+        if (versaoEsperada != null) {
+            update = update.bind("versao", versaoEsperada);
+        }
+        return update.fetch().rowsUpdated();
+    }
+
+    public Mono<Integer> deletarPorId(long id) {
+        return databaseClient.sql("delete from empregados where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Integer> deletarPorIds(Collection<Long> ids) {
+        return databaseClient.sql("delete from empregados where id in (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // Como no EmpregadoRepository.findIdsPorDominioEmail: igualdade na coluna email_dominio, com o domínio em minúsculas.
+    public Mono<Integer> deletarPorDominioEmail(String dominio) {
+        return databaseClient.sql("delete from empregados where email_dominio = :dominio")
+                .bind("dominio", dominio)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static GenericExecuteSpec vincularCampos(GenericExecuteSpec spec, Empregado empregado) {
+        return vincular(vincular(vincular(spec, "nome", empregado.getNome()), "sobrenome", empregado.getSobrenome()), "email", empregado.getEmail());
+    }
+
+    // Campos nulos precisam de bindNull com o tipo; o banco é quem recusa (colunas NOT NULL), como no JPA.
+    private static GenericExecuteSpec vincular(GenericExecuteSpec spec, String nome, String valor) {
+        return valor != null ? spec.bind(nome, valor) : spec.bindNull(nome, String.class);
+    }
+
+    private static Empregado paraEmpregado(Row row) {
+        return Empregado.builder()
+                .id(row.get("id", Long.class))
+                .nome(row.get("nome", String.class))
+                .sobrenome(row.get("sobrenome", String.class))
+                .email(row.get("email", String.class))
+                .versao(row.get("versao", Long.class)).build();
+    }
+}
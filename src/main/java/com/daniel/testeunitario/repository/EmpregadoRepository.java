@@ -1,13 +1,73 @@
 package com.daniel.testeunitario.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.daniel.testeunitario.model.Empregado;
 
-public interface EmpregadoRepository extends JpaRepository<Empregado, Long>{
+public interface EmpregadoRepository extends JpaRepository<Empregado, Long>, EmpregadoRepositoryCustom{
 
     Optional<Empregado> findByEmail(String email);
+
+    // Verifica de uma vez quais emails de um lote já estão cadastrados (um único SELECT ... IN em vez de um findByEmail por empregado).
+    @Query("select e.email from Empregado e where e.email in :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    /* Leituras do serviço com a dica "org.hibernate.readOnly": as entidades entram no contexto de persistência sem snapshot e ficam fora do
+    *  dirty checking. O @Transactional(readOnly = true) sozinho não basta com open-in-view, porque o Spring só deixa a sessão inteira somente
+    *  leitura quando o EntityManager é da própria transação. Alterações nessas instâncias não vão para o banco: para gravar, use save.
+    **/
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    List<Empregado> findAll();
+
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    List<Empregado> findAllById(Iterable<Long> ids);
+
+    // Implementado no EmpregadoRepositoryCustomImpl, que passa a dica ao find do Hibernate.
+    @Override
+    Optional<Empregado> findById(Long id);
+
+    // Paginação por cursor (keyset): o Pageable só define o LIMIT, a posição é dada pelo id do último registro da página anterior.
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    List<Empregado> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select e.email from Empregado e")
+    Stream<String> streamAllEmails();
+
+    // Para reconstruir o índice de busca: o "new" devolve objetos fora do contexto de persistência, sem snapshot nem dirty checking.
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new com.daniel.testeunitario.model.Empregado(e.id, e.nome, e.sobrenome, e.email, e.versao) from Empregado e")
+    Stream<Empregado> streamAllParaIndice();
+
+    // Ids que existem entre os informados, e ids de um domínio de email: o serviço remove por esses ids e registra um evento para cada um.
+    @Query("select e.id from Empregado e where e.id in :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // Igualdade na coluna email_dominio (já em minúsculas), resolvida pelo índice (email_dominio, id); o domínio deve vir em minúsculas.
+    @Query("select e.id from Empregado e where e.emailDominio = :dominio")
+    List<Long> findIdsPorDominioEmail(@Param("dominio") String dominio);
+
+    // DELETEs diretos, sem carregar as entidades antes (deleteById faz um SELECT por id). Retornam o número de linhas removidas.
+    @Modifying
+    @Query("delete from Empregado e where e.id = :id")
+    int deletarPorId(@Param("id") long id);
+
+    @Modifying
+    @Query("delete from Empregado e where e.id in :ids")
+    int deletarPorIds(@Param("ids") Collection<Long> ids);
     
 }
@@ -0,0 +1,37 @@
+package com.daniel.testeunitario.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.daniel.testeunitario.dto.FiltroEmpregados;
+import com.daniel.testeunitario.model.Empregado;
+
+public interface EmpregadoRepositoryCustom {
+
+    /* UPDATE direto só com os campos não nulos de "alteracoes", incrementando a versão; retorna o número de linhas afetadas (0 quando o id
+    *  não existe ou, se versaoEsperada não for nula, quando a versão atual é outra).
+    **/
+    int atualizarCampos(long id, Empregado alteracoes, Long versaoEsperada);
+
+    /* SELECT só com os critérios informados em "filtro", na ordenação pedida (sempre desempatando pelo id), a partir de "inicio" e com no
+    *  máximo "limite" linhas.
+    **/
+    List<Empregado> filtrar(FiltroEmpregados filtro, long inicio, int limite);
+
+    /* Projeção só com as colunas pedidas (nomes dos atributos de Empregado), na ordem pedida: o SELECT traz apenas essas colunas e o resultado
+    *  são valores soltos, sem entidades no contexto de persistência.
+    **/
+    List<Map<String, Object>> findAllProjetado(List<String> campos);
+
+    Optional<Map<String, Object>> findProjetadoById(long id, List<String> campos);
+
+    // Substitui o findById do JpaRepository por uma busca somente leitura (ver EmpregadoRepository).
+    Optional<Empregado> findById(Long id);
+
+    /* Varredura da tabela inteira em ordem de id por uma StatelessSession: sem contexto de persistência, snapshots nem dirty checking,
+    *  a memória fica constante qualquer que seja o tamanho da tabela. Usa a conexão da transação corrente.
+    **/
+    void percorrerSemEstado(Consumer<Empregado> consumidor);
+}
@@ -0,0 +1,195 @@
+package com.daniel.testeunitario.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.daniel.testeunitario.dto.FiltroEmpregados;
+import com.daniel.testeunitario.model.Empregado;
+
+public class EmpregadoRepositoryCustomImpl implements EmpregadoRepositoryCustom {
+
+    // Cursor JDBC da varredura sem estado: as linhas são lidas em blocos (fetch size) em vez de carregar a tabela inteira.
+    private static final int TAMANHO_BLOCO_LEITURA = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int atualizarCampos(long id, Empregado alteracoes, Long versaoEsperada) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Empregado> update = criteriaBuilder.createCriteriaUpdate(Empregado.class);
+        Root<Empregado> empregado = update.from(Empregado.class);
+
+        if (alteracoes.getNome() != null) {
+            update.set(empregado.<String>get("nome"), alteracoes.getNome());
+        }
+        if (alteracoes.getSobrenome() != null) {
+            update.set(empregado.<String>get("sobrenome"), alteracoes.getSobrenome());
+        }
+        if (alteracoes.getEmail() != null) {
+            update.set(empregado.<String>get("email"), alteracoes.getEmail());
+        }
+        update.set(empregado.<Long>get("versao"), criteriaBuilder.sum(empregado.<Long>get("versao"), 1L));
+
+        // id e versão como parâmetros (e não literais) para o SQL ser o mesmo para qualquer id e reaproveitar o plano da consulta.
+        Predicate condicao = criteriaBuilder.equal(empregado.get("id"), criteriaBuilder.parameter(Long.class, "id"));
+        if (versaoEsperada != null) {
+            condicao = criteriaBuilder.and(condicao, criteriaBuilder.equal(empregado.get("versao"), criteriaBuilder.parameter(Long.class, "versao")));
+        }
+        update.where(condicao);
+
+        Query query = entityManager.createQuery(update).setParameter("id", id);
+        if (versaoEsperada != null) {
+            query.setParameter("versao", versaoEsperada);
+        }
+        int linhasAfetadas = query.executeUpdate();
+
+        // O UPDATE não passa pelo contexto de persistência; limpa para que uma leitura posterior não devolva a versão antiga (como @Modifying(clearAutomatically = true)).
+        entityManager.clear();
+        return linhasAfetadas;
+    }
+
+    /* Cada critério vira um predicado que o índice correspondente resolve por faixa: prefixo com "like 'Dan%'" (sem lower(), que impediria o
+    *  uso do índice), domínio por igualdade na coluna email_dominio e faixa de ids pela chave primária. A ordenação segue as colunas dos
+    *  índices (sobrenome, nome, id) e (nome, sobrenome, id).
+    **/
+    @Override
+    @Transactional(readOnly = true)
+    public List<Empregado> filtrar(FiltroEmpregados filtro, long inicio, int limite) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Empregado> consulta = criteriaBuilder.createQuery(Empregado.class);
+        Root<Empregado> empregado = consulta.from(Empregado.class);
+
+        List<Predicate> condicoes = new ArrayList<>();
+        if (filtro.getNome() != null && !filtro.getNome().isEmpty()) {
+            condicoes.add(criteriaBuilder.like(empregado.get("nome"), prefixo(filtro.getNome()), '\\'));
+        }
+        if (filtro.getSobrenome() != null && !filtro.getSobrenome().isEmpty()) {
+            condicoes.add(criteriaBuilder.like(empregado.get("sobrenome"), prefixo(filtro.getSobrenome()), '\\'));
+        }
+        if (filtro.getDominioEmail() != null && !filtro.getDominioEmail().isEmpty()) {
+            condicoes.add(criteriaBuilder.equal(empregado.get("emailDominio"), filtro.getDominioEmail().toLowerCase(Locale.ROOT)));
+        }
+        if (filtro.getIdMinimo() != null) {
+            condicoes.add(criteriaBuilder.greaterThanOrEqualTo(empregado.get("id"), filtro.getIdMinimo()));
+        }
+        if (filtro.getIdMaximo() != null) {
+            condicoes.add(criteriaBuilder.lessThanOrEqualTo(empregado.get("id"), filtro.getIdMaximo()));
+        }
+        consulta.select(empregado).where(condicoes.toArray(new Predicate[0])).orderBy(ordenacao(criteriaBuilder, empregado, filtro.getOrdenarPor()));
+
+        // Somente leitura, como as leituras do EmpregadoRepository: sem snapshot nem dirty checking.
+        return entityManager.createQuery(consulta)
+                .setHint("org.hibernate.readOnly", true)
+                .setFirstResult(Math.toIntExact(inicio))
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    private static List<Order> ordenacao(CriteriaBuilder criteriaBuilder, Root<Empregado> empregado, String ordenarPor) {
+        List<Order> ordem = new ArrayList<>();
+        if (FiltroEmpregados.ORDENAR_POR_SOBRENOME.equalsIgnoreCase(ordenarPor)) {
+            ordem.add(criteriaBuilder.asc(empregado.get("sobrenome")));
+            ordem.add(criteriaBuilder.asc(empregado.get("nome")));
+        } else if (FiltroEmpregados.ORDENAR_POR_NOME.equalsIgnoreCase(ordenarPor)) {
+            ordem.add(criteriaBuilder.asc(empregado.get("nome")));
+            ordem.add(criteriaBuilder.asc(empregado.get("sobrenome")));
+        }
+        ordem.add(criteriaBuilder.asc(empregado.get("id")));
+        return ordem;
+    }
+
+    // "%" e "_" digitados pelo usuário são literais, não curingas do LIKE.
+    private static String prefixo(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAllProjetado(List<String> campos) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = criteriaBuilder.createTupleQuery();
+        Root<Empregado> empregado = consulta.from(Empregado.class);
+        consulta.multiselect(selecoes(empregado, campos)).orderBy(criteriaBuilder.asc(empregado.get("id")));
+
+        List<Tuple> linhas = entityManager.createQuery(consulta).getResultList();
+        List<Map<String, Object>> projetados = new ArrayList<>(linhas.size());
+        for (Tuple linha : linhas) {
+            projetados.add(paraMapa(linha, campos));
+        }
+        return projetados;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findProjetadoById(long id, List<String> campos) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = criteriaBuilder.createTupleQuery();
+        Root<Empregado> empregado = consulta.from(Empregado.class);
+        consulta.multiselect(selecoes(empregado, campos))
+                .where(criteriaBuilder.equal(empregado.get("id"), criteriaBuilder.parameter(Long.class, "id")));
+
+        return entityManager.createQuery(consulta).setParameter("id", id).getResultStream().findFirst()
+                .map(linha -> paraMapa(linha, campos));
+    }
+
+    // Somente leitura como as leituras do EmpregadoRepository. A dica vai como Boolean: o find do Hibernate não aceita o "true" em texto
+    // que o @QueryHints do Spring Data passaria.
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Empregado> findById(Long id) {
+        return Optional.ofNullable(entityManager.find(Empregado.class, id, Map.of("org.hibernate.readOnly", Boolean.TRUE)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void percorrerSemEstado(Consumer<Empregado> consumidor) {
+        SessionImplementor sessao = entityManager.unwrap(SessionImplementor.class);
+        // Com a conexão passada explicitamente, fechar a StatelessSession não fecha a conexão, que continua com a transação.
+        try (StatelessSession sessaoSemEstado = sessao.getFactory().withStatelessOptions().connection(sessao.connection()).openStatelessSession();
+             Stream<Empregado> empregados = sessaoSemEstado.createQuery("select e from Empregado e order by e.id", Empregado.class)
+                     .setFetchSize(TAMANHO_BLOCO_LEITURA)
+                     .stream()) {
+            empregados.forEach(consumidor);
+        }
+    }
+
+    private static List<Selection<?>> selecoes(Root<Empregado> empregado, List<String> campos) {
+        List<Selection<?>> selecoes = new ArrayList<>(campos.size());
+        for (String campo : campos) {
+            selecoes.add(empregado.get(campo).alias(campo));
+        }
+        return selecoes;
+    }
+
+    private static Map<String, Object> paraMapa(Tuple linha, List<String> campos) {
+        Map<String, Object> mapa = new LinkedHashMap<>(campos.size() * 2);
+        for (String campo : campos) {
+            mapa.put(campo, linha.get(campo));
+        }
+        return mapa;
+    }
+}
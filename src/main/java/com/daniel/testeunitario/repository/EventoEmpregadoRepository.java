@@ -0,0 +1,22 @@
+package com.daniel.testeunitario.repository;
+
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import com.daniel.testeunitario.model.EventoEmpregado;
+
+public interface EventoEmpregadoRepository extends JpaRepository<EventoEmpregado, Long> {
+
+    // Eventos depois de uma sequência, pela chave primária; o Pageable só define o LIMIT, como na paginação por cursor de empregados.
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    List<EventoEmpregado> findBySequenciaGreaterThanOrderBySequenciaAsc(long sequencia, Pageable pageable);
+
+    @Query("select coalesce(max(e.sequencia), 0) from EventoEmpregado e")
+    long findUltimaSequencia();
+}
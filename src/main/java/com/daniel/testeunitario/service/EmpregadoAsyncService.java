@@ -0,0 +1,30 @@
+package com.daniel.testeunitario.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.model.Empregado;
+
+/* Variante assíncrona do EmpregadoService: cada operação roda no executor dedicado e devolve um CompletableFuture.
+*
+*  O futuro falha com RejectedExecutionException quando a fila do executor está cheia e com TimeoutException quando a operação passa do
+*  tempo limite (leitura ou escrita).
+**/
+public interface EmpregadoAsyncService {
+
+    CompletableFuture<Empregado> salvarEmpregado(Empregado empregado);
+
+    CompletableFuture<List<Empregado>> getAllEmpregados();
+
+    CompletableFuture<PaginaEmpregados> getEmpregadosPorCursor(Long after, int limit);
+
+    CompletableFuture<Optional<Empregado>> getEmpregadoById(long id);
+
+    CompletableFuture<Empregado> updateEmpregado(Empregado atualizarEmpregado);
+
+    CompletableFuture<Boolean> atualizarParcialmente(long id, Empregado alteracoes, Long versaoEsperada);
+
+    CompletableFuture<Boolean> deleteEmpregado(long id);
+}
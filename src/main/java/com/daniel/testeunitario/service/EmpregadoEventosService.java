@@ -0,0 +1,12 @@
+package com.daniel.testeunitario.service;
+
+import com.daniel.testeunitario.dto.PaginaEventos;
+
+// Leitura do feed de alterações de empregados gravado pelo OutboxEmpregados.
+public interface EmpregadoEventosService {
+
+    PaginaEventos getEventos(long desde, int limite);
+
+    // Sequência do último evento gravado (0 sem eventos): ponto de partida de quem só quer as alterações daqui para frente.
+    long getUltimaSequencia();
+}
@@ -0,0 +1,23 @@
+package com.daniel.testeunitario.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.daniel.testeunitario.dto.RelatorioImportacao;
+
+/* Importação em massa de empregados a partir de um arquivo lido como fluxo, sem carregá-lo inteiro em memória.
+*
+*  Linhas inválidas ou com email já cadastrado não interrompem a importação: ficam no relatório com o número da linha. Um CSV sem as colunas
+*  obrigatórias no cabeçalho é recusado com IllegalArgumentException antes de importar qualquer registro.
+**/
+public interface EmpregadoImportacaoService {
+
+    enum Formato {
+        // Um empregado em JSON por linha.
+        NDJSON,
+        // Cabeçalho com as colunas nome, sobrenome e email (em qualquer ordem) e um empregado por linha.
+        CSV
+    }
+
+    RelatorioImportacao importarEmpregados(InputStream entrada, Formato formato) throws IOException;
+}
@@ -0,0 +1,38 @@
+package com.daniel.testeunitario.service;
+
+import java.util.List;
+
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.dto.ResultadoBuscaPorIds;
+import com.daniel.testeunitario.model.Empregado;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Contraparte reativa do EmpregadoService (perfil "reactive"): mesmas operações, devolvendo Mono/Flux em vez de bloquear a thread.
+public interface EmpregadoReativoService {
+
+    Mono<Empregado> salvarEmpregado(Empregado empregado);
+
+    Flux<Empregado> salvarEmpregadosEmLote(List<Empregado> empregados);
+
+    Flux<Empregado> getAllEmpregados();
+
+    Mono<PaginaEmpregados> getEmpregadosPorCursor(Long after, int limit);
+
+    Flux<Empregado> exportarEmpregados();
+
+    Mono<Empregado> getEmpregadoById(long id);
+
+    Mono<ResultadoBuscaPorIds> getEmpregadosByIds(List<Long> ids);
+
+    Mono<Empregado> updateEmpregado(Empregado atualizarEmpregado);
+
+    Mono<Boolean> atualizarParcialmente(long id, Empregado alteracoes, Long versaoEsperada);
+
+    Mono<Boolean> deleteEmpregado(long id);
+
+    Mono<Integer> deleteEmpregadosPorIds(List<Long> ids);
+
+    Mono<Integer> deleteEmpregadosPorDominioEmail(String dominio);
+}
@@ -1,19 +1,47 @@
 package com.daniel.testeunitario.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import com.daniel.testeunitario.dto.FiltroEmpregados;
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.dto.PaginaFiltroEmpregados;
+import com.daniel.testeunitario.dto.ResultadoBuscaPorIds;
 import com.daniel.testeunitario.model.Empregado;
 
 public interface EmpregadoService {
 
     Empregado salvarEmpregado(Empregado empregado);
 
+    List<Empregado> salvarEmpregadosEmLote(List<Empregado> empregados);
+
     List<Empregado> getAllEmpregados();
 
+    List<Map<String, Object>> getAllEmpregadosProjetados(List<String> campos);
+
+    PaginaEmpregados getEmpregadosPorCursor(Long after, int limit);
+
+    PaginaFiltroEmpregados filtrarEmpregados(FiltroEmpregados filtro, int pagina, int limite);
+
+    void exportarEmpregados(Consumer<Empregado> consumidor);
+
     Optional<Empregado> getEmpregadoById(long id);
 
+    Optional<Map<String, Object>> getEmpregadoProjetadoById(long id, List<String> campos);
+
+    ResultadoBuscaPorIds getEmpregadosByIds(List<Long> ids);
+
+    List<Empregado> buscarEmpregados(String consulta, int limite);
+
     Empregado updateEmpregado(Empregado atualizarEmpregado);
 
-    void deleteEmpregado(long id);
+    boolean atualizarParcialmente(long id, Empregado alteracoes, Long versaoEsperada);
+
+    boolean deleteEmpregado(long id);
+
+    int deleteEmpregadosPorIds(List<Long> ids);
+
+    int deleteEmpregadosPorDominioEmail(String dominio);
 }
@@ -0,0 +1,21 @@
+package com.daniel.testeunitario.service;
+
+import java.util.Optional;
+
+import com.daniel.testeunitario.dto.SituacaoGravacao;
+import com.daniel.testeunitario.model.Empregado;
+
+/* Criação de empregados em write-behind: o empregado entra num buffer em memória e é gravado depois, num lote, sem a requisição esperar
+*  pelo banco. Quem chamou recebe um token para acompanhar a gravação.
+*
+*  Recusas no momento do envio: buffer cheio (RejectedExecutionException), email já pendente no buffer (ResourceNotFoundException, como em
+*  EmpregadoService) e empregado sem email (IllegalArgumentException). Email já cadastrado só é descoberto na gravação e aparece como
+*  REJEITADO na situação do token.
+**/
+public interface EmpregadoWriteBehindService {
+
+    SituacaoGravacao enfileirar(Empregado empregado);
+
+    // Vazio para token desconhecido ou cuja situação já expirou (empregados.write-behind.retencao).
+    Optional<SituacaoGravacao> getSituacao(String token);
+}
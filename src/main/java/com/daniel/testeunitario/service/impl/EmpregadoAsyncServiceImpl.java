@@ -0,0 +1,118 @@
+package com.daniel.testeunitario.service.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.daniel.testeunitario.config.ExecutorConfig;
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.EmpregadoAsyncService;
+import com.daniel.testeunitario.service.EmpregadoService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Delega ao EmpregadoService (com cache, filtro de emails etc.), trocando só a thread que executa a operação.
+@Service
+public class EmpregadoAsyncServiceImpl implements EmpregadoAsyncService {
+
+    private final EmpregadoService empregadoService;
+
+    private final Executor executor;
+
+    private final Duration timeoutLeitura;
+
+    private final Duration timeoutEscrita;
+
+    private final Counter rejeitadas;
+
+    private final Counter expiradas;
+
+    public EmpregadoAsyncServiceImpl(EmpregadoService empregadoService, @Qualifier(ExecutorConfig.EXECUTOR_EMPREGADOS) Executor executor,
+            MeterRegistry meterRegistry, @Value("${empregados.async.timeout-leitura:2s}") Duration timeoutLeitura,
+            @Value("${empregados.async.timeout-escrita:5s}") Duration timeoutEscrita) {
+        this.empregadoService = empregadoService;
+        this.executor = executor;
+        this.timeoutLeitura = timeoutLeitura;
+        this.timeoutEscrita = timeoutEscrita;
+        this.rejeitadas = meterRegistry.counter("empregados.async.rejeitadas");
+        this.expiradas = meterRegistry.counter("empregados.async.expiradas");
+    }
+
+    @Override
+    public CompletableFuture<Empregado> salvarEmpregado(Empregado empregado) {
+        return executar(timeoutEscrita, () -> empregadoService.salvarEmpregado(empregado));
+    }
+
+    @Override
+    public CompletableFuture<List<Empregado>> getAllEmpregados() {
+        return executar(timeoutLeitura, empregadoService::getAllEmpregados);
+    }
+
+    @Override
+    public CompletableFuture<PaginaEmpregados> getEmpregadosPorCursor(Long after, int limit) {
+        return executar(timeoutLeitura, () -> empregadoService.getEmpregadosPorCursor(after, limit));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Empregado>> getEmpregadoById(long id) {
+        return executar(timeoutLeitura, () -> empregadoService.getEmpregadoById(id));
+    }
+
+    @Override
+    public CompletableFuture<Empregado> updateEmpregado(Empregado atualizarEmpregado) {
+        return executar(timeoutEscrita, () -> empregadoService.updateEmpregado(atualizarEmpregado));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> atualizarParcialmente(long id, Empregado alteracoes, Long versaoEsperada) {
+        return executar(timeoutEscrita, () -> empregadoService.atualizarParcialmente(id, alteracoes, versaoEsperada));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteEmpregado(long id) {
+        return executar(timeoutEscrita, () -> empregadoService.deleteEmpregado(id));
+    }
+
+    /* O timeout conta desde a submissão, incluindo o tempo na fila. Uma tarefa que expirou enquanto esperava nem chega a rodar, o que evita
+    *  gastar uma thread e uma conexão com uma resposta que ninguém mais espera. Uma consulta que já começou não é interrompida: o timeout só
+    *  libera quem está aguardando o resultado.
+    **/
+    private <T> CompletableFuture<T> executar(Duration timeout, Supplier<T> operacao) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (resultado.isDone()) {
+                    return;
+                }
+                try {
+                    resultado.complete(operacao.get());
+                } catch (Throwable ex) {
+                    resultado.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejeitadas.increment();
+            resultado.completeExceptionally(ex);
+            return resultado;
+        }
+
+        resultado.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((valor, ex) -> {
+            if (ex instanceof TimeoutException) {
+                expiradas.increment();
+            }
+        });
+        return resultado;
+    }
+}
@@ -0,0 +1,44 @@
+package com.daniel.testeunitario.service.impl;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.daniel.testeunitario.dto.PaginaEventos;
+import com.daniel.testeunitario.model.EventoEmpregado;
+import com.daniel.testeunitario.repository.EventoEmpregadoRepository;
+import com.daniel.testeunitario.service.EmpregadoEventosService;
+
+import lombok.AllArgsConstructor;
+
+@Service
+@AllArgsConstructor
+public class EmpregadoEventosServiceImpl implements EmpregadoEventosService {
+
+    private static final int LIMITE_MAXIMO_PAGINA = 1000;
+
+    private EventoEmpregadoRepository eventoRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaEventos getEventos(long desde, int limite) {
+        int tamanhoPagina = Math.max(1, Math.min(limite, LIMITE_MAXIMO_PAGINA));
+
+        // Um registro a mais indica se existe próxima página, sem COUNT.
+        List<EventoEmpregado> eventos = eventoRepository.findBySequenciaGreaterThanOrderBySequenciaAsc(desde,
+                PageRequest.of(0, tamanhoPagina + 1));
+
+        boolean maisEventos = eventos.size() > tamanhoPagina;
+        List<EventoEmpregado> conteudo = maisEventos ? eventos.subList(0, tamanhoPagina) : eventos;
+        long ultimaSequencia = conteudo.isEmpty() ? desde : conteudo.get(conteudo.size() - 1).getSequencia();
+        return new PaginaEventos(conteudo, ultimaSequencia, maisEventos);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getUltimaSequencia() {
+        return eventoRepository.findUltimaSequencia();
+    }
+}
@@ -0,0 +1,457 @@
+package com.daniel.testeunitario.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.daniel.testeunitario.config.ExecutorConfig;
+import com.daniel.testeunitario.dto.ErroImportacao;
+import com.daniel.testeunitario.dto.RelatorioImportacao;
+import com.daniel.testeunitario.exception.ResourceNotFoundException;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+import com.daniel.testeunitario.service.EmpregadoImportacaoService;
+import com.daniel.testeunitario.service.EmpregadoService;
+import com.daniel.testeunitario.service.support.FiltroBloomEmails;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/* Pipeline de importação em três etapas ligadas por filas limitadas:
+*
+*  1. leitura (thread da requisição): lê o corpo linha a linha e converte cada uma em Empregado;
+*  2. validação (empregados.importacao.validadores threads): confere campos obrigatórios, tamanho e formato do email;
+*  3. gravação (uma thread): junta lotes de TAMANHO_LOTE, descarta emails repetidos ou já cadastrados e grava cada lote com
+*     salvarEmpregadosEmLote (uma transação, INSERTs em lotes JDBC).
+*
+*  Com as filas cheias a etapa anterior espera, até a leitura parar de consumir o corpo da requisição: a memória usada depende do tamanho das
+*  filas e do lote, e não do tamanho do arquivo. Se uma etapa falhar as outras param, e a exceção chega a quem chamou.
+*
+*  As etapas 2 e 3 rodam no importacaoExecutor (ExecutorConfig), que tem threads para empregados.importacao.simultaneas importações (1);
+*  acima disso a importação é recusada na hora com RejectedExecutionException. A vaga só é devolvida depois que as etapas terminam.
+**/
+@Service
+public class EmpregadoImportacaoServiceImpl implements EmpregadoImportacaoService {
+
+    // Empregados por transação; dentro dela os INSERTs vão em lotes JDBC de hibernate.jdbc.batch_size.
+    private static final int TAMANHO_LOTE = 500;
+
+    private static final int CAPACIDADE_FILA = 1000;
+
+    private static final int LIMITE_ERROS_RELATORIO = 1000;
+
+    // Tamanho das colunas varchar(255) da tabela empregados.
+    private static final int TAMANHO_MAXIMO_CAMPO = 255;
+
+    private static final Pattern FORMATO_EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+    private static final long ESPERA_FILA_MS = 100;
+
+    // Marca de fim de fluxo: cada validador recebe uma e repassa uma para a gravação.
+    private static final Linha FIM = new Linha(0, null);
+
+    private final EmpregadoService empregadoService;
+
+    private final EmpregadoRepository empregadoRepository;
+
+    private final FiltroBloomEmails filtroEmails;
+
+    private final ObjectReader leitorJson;
+
+    private final int validadores;
+
+    private final AsyncTaskExecutor executor;
+
+    private final Semaphore vagas;
+
+    public EmpregadoImportacaoServiceImpl(EmpregadoService empregadoService, EmpregadoRepository empregadoRepository,
+            FiltroBloomEmails filtroEmails, ObjectMapper objectMapper, @Value("${empregados.importacao.validadores:2}") int validadores,
+            @Qualifier(ExecutorConfig.EXECUTOR_IMPORTACAO) AsyncTaskExecutor executor,
+            @Value("${empregados.importacao.simultaneas:1}") int simultaneas) {
+        this.empregadoService = empregadoService;
+        this.empregadoRepository = empregadoRepository;
+        this.filtroEmails = filtroEmails;
+        this.leitorJson = objectMapper.readerFor(Empregado.class);
+        this.validadores = Math.max(1, validadores);
+        this.executor = executor;
+        this.vagas = new Semaphore(Math.max(1, simultaneas));
+    }
+
+    @Override
+    public RelatorioImportacao importarEmpregados(InputStream entrada, Formato formato) throws IOException {
+        if (!vagas.tryAcquire()) {
+            throw new RejectedExecutionException("Limite de importações simultâneas atingido");
+        }
+        try {
+            return importar(entrada, formato);
+        } finally {
+            vagas.release();
+        }
+    }
+
+    private RelatorioImportacao importar(InputStream entrada, Formato formato) throws IOException {
+        long inicio = System.nanoTime();
+        Execucao execucao = new Execucao();
+        List<Future<?>> etapas = new ArrayList<>();
+        try {
+            for (int i = 0; i < validadores; i++) {
+                etapas.add(executor.submit(() -> execucao.etapa(() -> validar(execucao))));
+            }
+            etapas.add(executor.submit(() -> execucao.etapa(() -> gravar(execucao))));
+
+            ler(entrada, formato, execucao);
+            for (int i = 0; i < validadores; i++) {
+                execucao.colocar(execucao.lidas, FIM);
+            }
+            aguardar(etapas, execucao);
+        } finally {
+            // Sem efeito se as etapas já terminaram; senão elas desistem das filas na próxima espera (ESPERA_FILA_MS).
+            execucao.abortado = true;
+            encerrar(etapas);
+        }
+        return execucao.relatorio(System.nanoTime() - inicio);
+    }
+
+    // Etapa 1: converte as linhas e entrega para a validação. Linhas que não convertem já viram erro aqui.
+    private void ler(InputStream entrada, Formato formato, Execucao execucao) throws IOException {
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        Map<String, Integer> colunas = null;
+        long numero = 0;
+        String texto;
+        while (!execucao.abortado && (texto = leitor.readLine()) != null) {
+            numero++;
+            // BOM que alguns editores gravam no início de arquivos UTF-8.
+            if (numero == 1 && texto.startsWith("\uFEFF")) {
+                texto = texto.substring(1);
+            }
+            if (texto.isBlank()) {
+                continue;
+            }
+            if (formato == Formato.CSV && colunas == null) {
+                colunas = colunasCsv(texto);
+                continue;
+            }
+
+            execucao.totalLinhas++;
+            Empregado empregado;
+            try {
+                empregado = formato == Formato.CSV ? empregadoCsv(texto, colunas) : leitorJson.readValue(texto);
+            } catch (JsonProcessingException ex) {
+                execucao.rejeitar(numero, "JSON inválido: " + ex.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException ex) {
+                execucao.rejeitar(numero, "CSV inválido: " + ex.getMessage());
+                continue;
+            }
+            execucao.colocar(execucao.lidas, new Linha(numero, empregado));
+        }
+    }
+
+    // Etapa 2: roda em paralelo; a ordem das linhas não é preservada (o relatório é ordenado no fim).
+    private void validar(Execucao execucao) {
+        Linha linha;
+        while ((linha = execucao.retirar(execucao.lidas)) != null && linha != FIM) {
+            String erro = validar(linha.empregado);
+            if (erro != null) {
+                execucao.rejeitar(linha.numero, erro);
+            } else {
+                execucao.colocar(execucao.validas, linha);
+            }
+        }
+        execucao.colocar(execucao.validas, FIM);
+    }
+
+    // Etapa 3: uma única thread, para a conferência de emails de um lote já enxergar os lotes gravados antes.
+    private void gravar(Execucao execucao) {
+        List<Linha> lote = new ArrayList<>(TAMANHO_LOTE);
+        int validadoresFinalizados = 0;
+        while (validadoresFinalizados < validadores) {
+            Linha linha = execucao.retirar(execucao.validas);
+            if (linha == null) {
+                return;
+            }
+            if (linha == FIM) {
+                validadoresFinalizados++;
+                continue;
+            }
+            lote.add(linha);
+            if (lote.size() == TAMANHO_LOTE) {
+                gravarLote(lote, execucao);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravarLote(lote, execucao);
+        }
+    }
+
+    private void gravarLote(List<Linha> lote, Execucao execucao) {
+        // Email repetido dentro do lote: fica a primeira ocorrência que chegou.
+        Map<String, Linha> porEmail = new LinkedHashMap<>();
+        for (Linha linha : lote) {
+            if (porEmail.putIfAbsent(linha.empregado.getEmail(), linha) != null) {
+                execucao.rejeitar(linha.numero, "Email repetido na importação: " + linha.empregado.getEmail());
+            }
+        }
+
+        // Já cadastrados, inclusive por lotes anteriores desta importação: só os emails que o filtro não descarta vão ao banco.
+        List<String> emailsSuspeitos = porEmail.keySet().stream().filter(filtroEmails::podeConter).collect(Collectors.toList());
+        if (!emailsSuspeitos.isEmpty()) {
+            for (String email : empregadoRepository.findEmailsExistentes(emailsSuspeitos)) {
+                execucao.rejeitar(porEmail.remove(email).numero, "Já existe empregado com esse email: " + email);
+            }
+        }
+        if (porEmail.isEmpty()) {
+            return;
+        }
+
+        List<Empregado> empregados = porEmail.values().stream().map(linha -> linha.empregado).collect(Collectors.toList());
+        try {
+            empregadoService.salvarEmpregadosEmLote(empregados);
+            execucao.importados.addAndGet(empregados.size());
+        } catch (ResourceNotFoundException | DataIntegrityViolationException ex) {
+            // O banco recusou uma das linhas (ex.: outra requisição cadastrou um desses emails depois da conferência): o lote inteiro voltou,
+            // então é gravado um a um e só a linha recusada entra no relatório.
+            for (Linha linha : porEmail.values()) {
+                try {
+                    empregadoService.salvarEmpregado(linha.empregado);
+                    execucao.importados.incrementAndGet();
+                } catch (ResourceNotFoundException | DataIntegrityViolationException exEmpregado) {
+                    execucao.rejeitar(linha.numero, exEmpregado.getMessage());
+                }
+            }
+        }
+    }
+
+    private static String validar(Empregado empregado) {
+        if (empregado == null) {
+            return "Linha sem empregado";
+        }
+        empregado.setNome(aparar(empregado.getNome()));
+        empregado.setSobrenome(aparar(empregado.getSobrenome()));
+        empregado.setEmail(aparar(empregado.getEmail()));
+        // Como no POST, o id vem da sequence e a versão começa na inicial, mesmo que a linha traga esses campos.
+        empregado.setId(null);
+        empregado.setVersao(null);
+
+        if (empregado.getNome() == null || empregado.getSobrenome() == null || empregado.getEmail() == null) {
+            return "Nome, sobrenome e email são obrigatórios";
+        }
+        if (empregado.getNome().length() > TAMANHO_MAXIMO_CAMPO || empregado.getSobrenome().length() > TAMANHO_MAXIMO_CAMPO
+                || empregado.getEmail().length() > TAMANHO_MAXIMO_CAMPO) {
+            return "Campo com mais de " + TAMANHO_MAXIMO_CAMPO + " caracteres";
+        }
+        if (!FORMATO_EMAIL.matcher(empregado.getEmail()).matches()) {
+            return "Email inválido: " + empregado.getEmail();
+        }
+        return null;
+    }
+
+    private static String aparar(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    private static Map<String, Integer> colunasCsv(String cabecalho) {
+        List<String> nomes = camposCsv(cabecalho);
+        Map<String, Integer> colunas = new LinkedHashMap<>();
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String obrigatoria : List.of("nome", "sobrenome", "email")) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new IllegalArgumentException("Cabeçalho do CSV sem a coluna " + obrigatoria);
+            }
+        }
+        return colunas;
+    }
+
+    private static Empregado empregadoCsv(String texto, Map<String, Integer> colunas) {
+        List<String> campos = camposCsv(texto);
+        if (campos.size() != colunas.size()) {
+            throw new IllegalArgumentException("esperadas " + colunas.size() + " colunas, encontradas " + campos.size());
+        }
+        return Empregado.builder()
+                .nome(campos.get(colunas.get("nome")))
+                .sobrenome(campos.get(colunas.get("sobrenome")))
+                .email(campos.get(colunas.get("email"))).build();
+    }
+
+    // Campos separados por vírgula; entre aspas podem ter vírgulas, e "" dentro das aspas é uma aspa. Não aceita quebra de linha no campo.
+    private static List<String> camposCsv(String texto) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (entreAspas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("aspas sem fechamento");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private static void aguardar(List<Future<?>> etapas, Execucao execucao) {
+        try {
+            for (Future<?> etapa : etapas) {
+                etapa.get();
+            }
+        } catch (InterruptedException ex) {
+            execucao.abortado = true;
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importação interrompida", ex);
+        } catch (ExecutionException ex) {
+            execucao.abortado = true;
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException("Falha na importação", ex.getCause());
+        }
+    }
+
+    // As threads são do executor compartilhado: a vaga só volta depois que as etapas desta importação pararam de rodar.
+    private static void encerrar(List<Future<?>> etapas) {
+        for (Future<?> etapa : etapas) {
+            try {
+                etapa.get();
+            } catch (ExecutionException | CancellationException ex) {
+                // já relatada por aguardar, ou cancelada no encerramento do executor
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static final class Linha {
+
+        private final long numero;
+
+        private final Empregado empregado;
+
+        private Linha(long numero, Empregado empregado) {
+            this.numero = numero;
+            this.empregado = empregado;
+        }
+    }
+
+    // Estado de uma importação, compartilhado pelas etapas.
+    private static final class Execucao {
+
+        private final BlockingQueue<Linha> lidas = new ArrayBlockingQueue<>(CAPACIDADE_FILA);
+
+        private final BlockingQueue<Linha> validas = new ArrayBlockingQueue<>(CAPACIDADE_FILA);
+
+        private final AtomicLong importados = new AtomicLong();
+
+        private final List<ErroImportacao> erros = new ArrayList<>();
+
+        private long rejeitados;
+
+        private long errosOmitidos;
+
+        // Só a thread da leitura escreve; as outras etapas já terminaram quando o relatório é montado.
+        private long totalLinhas;
+
+        private volatile boolean abortado;
+
+        // Uma etapa que falha aborta as outras, para nenhuma ficar esperando vaga numa fila que não anda mais.
+        private void etapa(Runnable acao) {
+            try {
+                acao.run();
+            } catch (RuntimeException | Error ex) {
+                abortado = true;
+                throw ex;
+            }
+        }
+
+        private synchronized void rejeitar(long numero, String mensagem) {
+            rejeitados++;
+            if (erros.size() < LIMITE_ERROS_RELATORIO) {
+                erros.add(new ErroImportacao(numero, mensagem));
+            } else {
+                errosOmitidos++;
+            }
+        }
+
+        // Espera vaga na fila (é aqui que a etapa mais lenta segura as anteriores), desistindo se a importação for abortada.
+        private void colocar(BlockingQueue<Linha> fila, Linha linha) {
+            try {
+                while (!abortado) {
+                    if (fila.offer(linha, ESPERA_FILA_MS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException ex) {
+                abortado = true;
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Devolve null se a importação for abortada.
+        private Linha retirar(BlockingQueue<Linha> fila) {
+            try {
+                while (!abortado) {
+                    Linha linha = fila.poll(ESPERA_FILA_MS, TimeUnit.MILLISECONDS);
+                    if (linha != null) {
+                        return linha;
+                    }
+                }
+            } catch (InterruptedException ex) {
+                abortado = true;
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+
+        private synchronized RelatorioImportacao relatorio(long duracaoNanos) {
+            erros.sort(Comparator.comparingLong(ErroImportacao::getLinha));
+            long duracaoMs = TimeUnit.NANOSECONDS.toMillis(duracaoNanos);
+            double linhasPorSegundo = duracaoNanos == 0 ? 0 : totalLinhas * 1_000_000_000.0 / duracaoNanos;
+            return new RelatorioImportacao(totalLinhas, importados.get(), rejeitados, new ArrayList<>(erros), errosOmitidos, duracaoMs,
+                    linhasPorSegundo);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.daniel.testeunitario.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.dto.ResultadoBuscaPorIds;
+import com.daniel.testeunitario.exception.ResourceNotFoundException;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoReativoRepository;
+import com.daniel.testeunitario.service.EmpregadoReativoService;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@AllArgsConstructor
+public class EmpregadoReativoServiceImpl implements EmpregadoReativoService {
+
+    private static final int LIMITE_MAXIMO_PAGINA = 1000;
+
+    private static final int LIMITE_CLAUSULA_IN = 1000;
+
+    private static final String CONSTRAINT_EMAIL_UNICO = "UK_EMPREGADOS_EMAIL";
+
+    private EmpregadoReativoRepository empregadoRepository;
+
+    private TransactionalOperator transactionalOperator;
+
+    // Sem SELECT por email antes do INSERT: o índice único recusa o email repetido e o erro vira a mesma exceção da pilha bloqueante.
+    @Override
+    public Mono<Empregado> salvarEmpregado(Empregado empregado) {
+        return empregadoRepository.inserir(empregado)
+                .onErrorMap(DataIntegrityViolationException.class, ex -> emailRepetido(ex, empregado));
+    }
+
+    // Todos os INSERTs do lote na mesma transação R2DBC: se um falhar, nenhum empregado do lote fica gravado.
+    @Override
+    public Flux<Empregado> salvarEmpregadosEmLote(List<Empregado> empregados) {
+        Set<String> emails = new LinkedHashSet<>();
+        for (Empregado empregado : empregados) {
+            if (!emails.add(empregado.getEmail())) {
+                return Flux.error(new ResourceNotFoundException("Email repetido no lote: " + empregado.getEmail()));
+            }
+        }
+
+        return Flux.fromIterable(empregados)
+                .concatMap(empregado -> empregadoRepository.inserir(empregado)
+                        .onErrorMap(DataIntegrityViolationException.class, ex -> emailRepetido(ex, empregado)))
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Flux<Empregado> getAllEmpregados() {
+        return empregadoRepository.findAll();
+    }
+
+    @Override
+    public Mono<PaginaEmpregados> getEmpregadosPorCursor(Long after, int limit) {
+        int tamanhoPagina = Math.max(1, Math.min(limit, LIMITE_MAXIMO_PAGINA));
+        long cursor = after == null ? 0L : after;
+
+        // Busca um registro a mais para saber se existe próxima página sem precisar de um COUNT.
+        return empregadoRepository.findByIdGreaterThanOrderByIdAsc(cursor, tamanhoPagina + 1)
+                .collectList()
+                .map(empregados -> {
+                    if (empregados.size() <= tamanhoPagina) {
+                        return new PaginaEmpregados(empregados, null);
+                    }
+                    List<Empregado> conteudo = empregados.subList(0, tamanhoPagina);
+                    return new PaginaEmpregados(conteudo, conteudo.get(tamanhoPagina - 1).getId());
+                });
+    }
+
+    // As linhas chegam do driver conforme o cliente consome (backpressure), sem montar a lista inteira em memória.
+    @Override
+    public Flux<Empregado> exportarEmpregados() {
+        return empregadoRepository.findAll();
+    }
+
+    @Override
+    public Mono<Empregado> getEmpregadoById(long id) {
+        return empregadoRepository.findById(id);
+    }
+
+    @Override
+    public Mono<ResultadoBuscaPorIds> getEmpregadosByIds(List<Long> ids) {
+        List<Long> idsDistintos = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        return Flux.fromIterable(particionar(idsDistintos, LIMITE_CLAUSULA_IN))
+                .concatMap(empregadoRepository::findAllById)
+                .collectMap(Empregado::getId)
+                .map(encontrados -> montarResultado(idsDistintos, encontrados));
+    }
+
+    @Override
+    public Mono<Empregado> updateEmpregado(Empregado atualizarEmpregado) {
+        return empregadoRepository.atualizar(atualizarEmpregado)
+                .onErrorMap(DataIntegrityViolationException.class, ex -> emailRepetido(ex, atualizarEmpregado))
+                .flatMap(linhasAfetadas -> {
+                    if (linhasAfetadas == 0) {
+                        return Mono.error(new ObjectOptimisticLockingFailureException(Empregado.class, atualizarEmpregado.getId()));
+                    }
+                    atualizarEmpregado.setVersao(atualizarEmpregado.getVersao() + 1);
+                    return Mono.just(atualizarEmpregado);
+                });
+    }
+
+    @Override
+    public Mono<Boolean> atualizarParcialmente(long id, Empregado alteracoes, Long versaoEsperada) {
+        if (alteracoes.getNome() == null && alteracoes.getSobrenome() == null && alteracoes.getEmail() == null) {
+            return empregadoRepository.existsById(id);
+        }
+
+        return empregadoRepository.atualizarCampos(id, alteracoes, versaoEsperada)
+                .onErrorMap(DataIntegrityViolationException.class, ex -> emailRepetido(ex, alteracoes))
+                .flatMap(linhasAfetadas -> {
+                    if (linhasAfetadas > 0) {
+                        return Mono.just(true);
+                    }
+                    if (versaoEsperada == null) {
+                        return Mono.just(false);
+                    }
+                    // Com versão esperada, nenhuma linha afetada pode ser id inexistente ou versão diferente; só então vale a consulta extra.
+                    return empregadoRepository.existsById(id).flatMap(existe -> existe
+                            ? Mono.error(new ObjectOptimisticLockingFailureException(Empregado.class, id))
+                            : Mono.just(false));
+                });
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmpregado(long id) {
+        return empregadoRepository.deletarPorId(id).map(linhasRemovidas -> linhasRemovidas > 0);
+    }
+
+    @Override
+    public Mono<Integer> deleteEmpregadosPorIds(List<Long> ids) {
+        return Flux.fromIterable(particionar(new ArrayList<>(new LinkedHashSet<>(ids)), LIMITE_CLAUSULA_IN))
+                .concatMap(empregadoRepository::deletarPorIds)
+                .reduce(0, Integer::sum)
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Integer> deleteEmpregadosPorDominioEmail(String dominio) {
+        return empregadoRepository.deletarPorDominioEmail(dominio.toLowerCase(Locale.ROOT));
+    }
+
+    private static ResultadoBuscaPorIds montarResultado(List<Long> idsDistintos, Map<Long, Empregado> encontrados) {
+        List<Empregado> empregados = new ArrayList<>(encontrados.size());
+        List<Long> idsNaoEncontrados = new ArrayList<>();
+        for (Long id : idsDistintos) {
+            Empregado empregado = encontrados.get(id);
+            if (empregado != null) {
+                empregados.add(empregado);
+            } else {
+                idsNaoEncontrados.add(id);
+            }
+        }
+        return new ResultadoBuscaPorIds(empregados, idsNaoEncontrados);
+    }
+
+    private static Throwable emailRepetido(DataIntegrityViolationException ex, Empregado empregado) {
+        String mensagem = ex.getMessage();
+        if (mensagem != null && mensagem.toUpperCase().contains(CONSTRAINT_EMAIL_UNICO)) {
+            return new ResourceNotFoundException("Já existe empregado com esse email: " + empregado.getEmail());
+        }
+        return ex;
+    }
+
+    private static <T> List<List<T>> particionar(List<T> itens, int tamanho) {
+        List<List<T>> lotes = new ArrayList<>();
+        for (int inicio = 0; inicio < itens.size(); inicio += tamanho) {
+            lotes.add(itens.subList(inicio, Math.min(inicio + tamanho, itens.size())));
+        }
+        return lotes;
+    }
+}
@@ -1,52 +1,436 @@
 package com.daniel.testeunitario.service.impl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.daniel.testeunitario.config.CacheConfig;
+import com.daniel.testeunitario.dto.FiltroEmpregados;
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.dto.PaginaFiltroEmpregados;
+import com.daniel.testeunitario.dto.ResultadoBuscaPorIds;
 import com.daniel.testeunitario.exception.ResourceNotFoundException;
 import com.daniel.testeunitario.model.Empregado;
 import com.daniel.testeunitario.repository.EmpregadoRepository;
 import com.daniel.testeunitario.service.EmpregadoService;
+import com.daniel.testeunitario.service.support.BuscaCompartilhada;
+import com.daniel.testeunitario.service.support.FiltroBloomEmails;
+import com.daniel.testeunitario.service.support.IndiceBuscaEmpregados;
+import com.daniel.testeunitario.service.support.OutboxEmpregados;
 
 import lombok.AllArgsConstructor;
 
 
+/* Política de transação do serviço:
+*  - leituras em @Transactional(readOnly = true): o Spring põe a sessão do Hibernate em FlushMode.MANUAL e em modo somente leitura, então
+*    as entidades carregadas não guardam snapshot e não passam pelo dirty checking;
+*  - varreduras grandes (exportação) por uma StatelessSession, sem contexto de persistência;
+*  - escritas em uma única transação, incluindo a verificação de email antes do INSERT e o evento da alteração no outbox (OutboxEmpregados),
+*    registrado como último passo.
+*  O cache fica por fora da transação (CacheConfig), então acertos do cache não abrem transação. As atualizações removem a entrada duas
+*  vezes: antes de começar, para uma falha (409/412, email repetido) não deixar no cache a versão que já estava lá, e depois do commit,
+*  para não sobrar a linha antiga que uma leitura concorrente tenha guardado durante a transação.
+**/
 @Service
 @AllArgsConstructor
 public class EmpregadoServiceImpl implements EmpregadoService{
 
+    private static final int LIMITE_MAXIMO_PAGINA = 1000;
+
+    // Mesmo valor de hibernate.jdbc.batch_size: a cada lote o contexto de persistência é descarregado e limpo.
+    private static final int TAMANHO_LOTE = 50;
+
+    private static final int LIMITE_CLAUSULA_IN = 1000;
+
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
+
+    private static final String CONSTRAINT_EMAIL_UNICO = "UK_EMPREGADOS_EMAIL";
+
+    // A mesma tradução que o Spring aplica às exceções dos repositórios.
+    private static final HibernateJpaDialect TRADUTOR_EXCECOES = new HibernateJpaDialect();
+
     private EmpregadoRepository empregadoRepository;
 
+    private EntityManager entityManager;
+
+    private FiltroBloomEmails filtroEmails;
+
+    private IndiceBuscaEmpregados indiceBusca;
+
+    private OutboxEmpregados outbox;
+
+    // Threads que buscam o mesmo id/email ao mesmo tempo (ex.: logo após a entrada sair do cache) compartilham uma única consulta.
+    private final BuscaCompartilhada<Long, Optional<Empregado>> buscasPorId = new BuscaCompartilhada<>();
+
+    private final BuscaCompartilhada<String, Optional<Empregado>> buscasPorEmail = new BuscaCompartilhada<>();
+
     @Override
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.CACHE_EMPREGADOS, key = "#result.id")
     public Empregado salvarEmpregado(Empregado empregado) {
-        Optional<Empregado> criarEmpregado = empregadoRepository.findByEmail(empregado.getEmail());
-        
-        if(criarEmpregado.isPresent()){
-            throw new ResourceNotFoundException("Já existe empregado com esse email: " + empregado.getEmail());
+        // Criação sempre gera um novo id e começa na versão inicial, mesmo que o corpo da requisição traga esses campos.
+        empregado.setId(null);
+        empregado.setVersao(null);
+
+        // Só consulta o banco quando o filtro indica que o email talvez exista; emails novos vão direto para o INSERT.
+        if (filtroEmails.podeConter(empregado.getEmail())) {
+            Optional<Empregado> criarEmpregado = buscasPorEmail.executar(empregado.getEmail(),
+                    () -> empregadoRepository.findByEmail(empregado.getEmail()));
+
+            if(criarEmpregado.isPresent()){
+                throw new ResourceNotFoundException("Já existe empregado com esse email: " + empregado.getEmail());
+            }
         }
-       return empregadoRepository.save(empregado);
+        Empregado empregadoSalvo = salvarComEmailUnico(empregado);
+        outbox.registrarCriacoes(List.of(empregadoSalvo));
+        filtroEmails.adicionar(empregadoSalvo.getEmail());
+        depoisDoCommit(() -> indiceBusca.indexar(empregadoSalvo));
+        return empregadoSalvo;
     }
 
     @Override
+    @Transactional
+    public List<Empregado> salvarEmpregadosEmLote(List<Empregado> empregados) {
+        Set<String> emails = new LinkedHashSet<>();
+        for (Empregado empregado : empregados) {
+            if (!emails.add(empregado.getEmail())) {
+                throw new ResourceNotFoundException("Email repetido no lote: " + empregado.getEmail());
+            }
+        }
+
+        // Só os emails que o filtro não descarta precisam ser conferidos no banco.
+        List<String> emailsSuspeitos = new ArrayList<>();
+        for (String email : emails) {
+            if (filtroEmails.podeConter(email)) {
+                emailsSuspeitos.add(email);
+            }
+        }
+
+        Set<String> emailsExistentes = new HashSet<>();
+        for (List<String> lote : particionar(emailsSuspeitos, LIMITE_CLAUSULA_IN)) {
+            emailsExistentes.addAll(empregadoRepository.findEmailsExistentes(lote));
+        }
+        if (!emailsExistentes.isEmpty()) {
+            throw new ResourceNotFoundException("Já existe empregado com esse email: " + String.join(", ", emailsExistentes));
+        }
+
+        persistirEmLote(empregados);
+        outbox.registrarCriacoes(empregados);
+        emails.forEach(filtroEmails::adicionar);
+        depoisDoCommit(() -> empregados.forEach(indiceBusca::indexar));
+        return empregados;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Empregado> getAllEmpregados() {
         return empregadoRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllEmpregadosProjetados(List<String> campos) {
+        return empregadoRepository.findAllProjetado(campos);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaEmpregados getEmpregadosPorCursor(Long after, int limit) {
+        int tamanhoPagina = Math.max(1, Math.min(limit, LIMITE_MAXIMO_PAGINA));
+        long cursor = after == null ? 0L : after;
+
+        // Busca um registro a mais para saber se existe próxima página sem precisar de um COUNT.
+        List<Empregado> empregados = empregadoRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, tamanhoPagina + 1));
+
+        if (empregados.size() <= tamanhoPagina) {
+            return new PaginaEmpregados(empregados, null);
+        }
+        List<Empregado> conteudo = empregados.subList(0, tamanhoPagina);
+        return new PaginaEmpregados(conteudo, conteudo.get(tamanhoPagina - 1).getId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaFiltroEmpregados filtrarEmpregados(FiltroEmpregados filtro, int pagina, int limite) {
+        int tamanhoPagina = Math.max(1, Math.min(limite, LIMITE_MAXIMO_PAGINA));
+        int numeroPagina = Math.max(0, pagina);
+
+        // Como na paginação por cursor, um registro a mais indica se existe próxima página, sem COUNT.
+        List<Empregado> empregados = empregadoRepository.filtrar(filtro, (long) numeroPagina * tamanhoPagina, tamanhoPagina + 1);
+
+        if (empregados.size() <= tamanhoPagina) {
+            return new PaginaFiltroEmpregados(empregados, null);
+        }
+        return new PaginaFiltroEmpregados(empregados.subList(0, tamanhoPagina), numeroPagina + 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarEmpregados(Consumer<Empregado> consumidor) {
+        // StatelessSession: cada empregado é lido, entregue e esquecido, sem passar pelo contexto de persistência.
+        empregadoRepository.percorrerSemEstado(consumidor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CACHE_EMPREGADOS, key = "#id", unless = "#result == null")
     public Optional<Empregado> getEmpregadoById(long id) {
-        return empregadoRepository.findById(id);
+        return buscasPorId.executar(id, () -> empregadoRepository.findById(id));
+    }
+
+    // Não passa pelo cache de empregados (que guarda a entidade inteira): é um SELECT só com as colunas pedidas.
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getEmpregadoProjetadoById(long id, List<String> campos) {
+        return empregadoRepository.findProjetadoById(id, campos);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResultadoBuscaPorIds getEmpregadosByIds(List<Long> ids) {
+        List<Long> idsDistintos = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        // Uma consulta "WHERE id IN (...)" por lote, com no máximo LIMITE_CLAUSULA_IN ids em cada uma.
+        Map<Long, Empregado> encontrados = new HashMap<>();
+        for (List<Long> lote : particionar(idsDistintos, LIMITE_CLAUSULA_IN)) {
+            for (Empregado empregado : empregadoRepository.findAllById(lote)) {
+                encontrados.put(empregado.getId(), empregado);
+            }
+        }
+
+        List<Empregado> empregados = new ArrayList<>(encontrados.size());
+        List<Long> idsNaoEncontrados = new ArrayList<>();
+        for (Long id : idsDistintos) {
+            Empregado empregado = encontrados.get(id);
+            if (empregado != null) {
+                empregados.add(empregado);
+            } else {
+                idsNaoEncontrados.add(id);
+            }
+        }
+        return new ResultadoBuscaPorIds(empregados, idsNaoEncontrados);
     }
 
+    // Respondida pelo índice em memória, sem consulta ao banco.
     @Override
+    public List<Empregado> buscarEmpregados(String consulta, int limite) {
+        return indiceBusca.buscar(consulta, Math.max(1, Math.min(limite, LIMITE_MAXIMO_BUSCA)));
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CACHE_EMPREGADOS, key = "#atualizarEmpregado.id", beforeInvocation = true),
+            @CacheEvict(cacheNames = CacheConfig.CACHE_EMPREGADOS, key = "#atualizarEmpregado.id")})
     public Empregado updateEmpregado(Empregado atualizarEmpregado) {
-       return empregadoRepository.save(atualizarEmpregado);
+       Empregado atual = liberarParaEscrita(atualizarEmpregado.getId());
+       // Sem versão esperada vale a versão lida aqui, dentro da transação, e nunca a de uma cópia do cache.
+       if (atualizarEmpregado.getVersao() == null && atual != null) {
+           atualizarEmpregado.setVersao(atual.getVersao());
+       }
+       Empregado empregadoAtualizado = salvarComEmailUnico(atualizarEmpregado);
+       outbox.registrarAtualizacao(empregadoAtualizado);
+       // O email antigo continua no filtro como falso positivo até a próxima reconstrução.
+       filtroEmails.adicionar(empregadoAtualizado.getEmail());
+       depoisDoCommit(() -> indiceBusca.indexar(empregadoAtualizado));
+       return empregadoAtualizado;
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CACHE_EMPREGADOS, key = "#id", beforeInvocation = true),
+            @CacheEvict(cacheNames = CacheConfig.CACHE_EMPREGADOS, key = "#id")})
+    public boolean atualizarParcialmente(long id, Empregado alteracoes, Long versaoEsperada) {
+        if (alteracoes.getNome() == null && alteracoes.getSobrenome() == null && alteracoes.getEmail() == null) {
+            return empregadoRepository.existsById(id);
+        }
+
+        // Um único "UPDATE empregados SET <campos enviados> WHERE id = ?", sem o SELECT anterior; o número de linhas diz se o id existia.
+        int linhasAfetadas;
+        try {
+            linhasAfetadas = empregadoRepository.atualizarCampos(id, alteracoes, versaoEsperada);
+        } catch (DataIntegrityViolationException ex) {
+            if (violouEmailUnico(ex)) {
+                throw new ResourceNotFoundException("Já existe empregado com esse email: " + alteracoes.getEmail());
+            }
+            throw ex;
+        }
+
+        if (linhasAfetadas == 0) {
+            // Com versão esperada, nenhuma linha afetada pode ser id inexistente ou versão diferente; só então vale a consulta extra.
+            if (versaoEsperada != null && empregadoRepository.existsById(id)) {
+                throw new ObjectOptimisticLockingFailureException(Empregado.class, id);
+            }
+            return false;
+        }
+        outbox.registrarAlteracoes(id, alteracoes, versaoEsperada);
+        if (alteracoes.getEmail() != null) {
+            filtroEmails.adicionar(alteracoes.getEmail());
+        }
+        depoisDoCommit(() -> indiceBusca.aplicarAlteracoes(id, alteracoes));
+        return true;
     }
 
     @Override
-    public void deleteEmpregado(long id) {
-        empregadoRepository.deleteById(id);
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_EMPREGADOS, key = "#id")
+    public boolean deleteEmpregado(long id) {
+        boolean removido = empregadoRepository.deletarPorId(id) > 0;
+        if (removido) {
+            outbox.registrarRemocoes(List.of(id));
+            filtroEmails.registrarRemocoes(1);
+            depoisDoCommit(() -> indiceBusca.remover(id));
+        }
+        return removido;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_EMPREGADOS, allEntries = true)
+    public int deleteEmpregadosPorIds(List<Long> ids) {
+        // Os ids que existem são conferidos antes, para o outbox só receber remoções que aconteceram.
+        int removidos = 0;
+        List<Long> idsRemovidos = new ArrayList<>();
+        for (List<Long> lote : particionar(new ArrayList<>(new LinkedHashSet<>(ids)), LIMITE_CLAUSULA_IN)) {
+            List<Long> existentes = empregadoRepository.findIdsExistentes(lote);
+            if (!existentes.isEmpty()) {
+                removidos += empregadoRepository.deletarPorIds(existentes);
+                idsRemovidos.addAll(existentes);
+            }
+        }
+        outbox.registrarRemocoes(idsRemovidos);
+        filtroEmails.registrarRemocoes(removidos);
+        depoisDoCommit(() -> idsRemovidos.forEach(indiceBusca::remover));
+        return removidos;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_EMPREGADOS, allEntries = true)
+    public int deleteEmpregadosPorDominioEmail(String dominio) {
+        // Remove pelos ids do domínio, e não por um DELETE direto, para o outbox ter exatamente os empregados removidos.
+        String dominioMinusculo = dominio.toLowerCase(Locale.ROOT);
+        int removidos = 0;
+        List<Long> idsDominio = empregadoRepository.findIdsPorDominioEmail(dominioMinusculo);
+        for (List<Long> lote : particionar(idsDominio, LIMITE_CLAUSULA_IN)) {
+            removidos += empregadoRepository.deletarPorIds(lote);
+        }
+        outbox.registrarRemocoes(idsDominio);
+        filtroEmails.registrarRemocoes(removidos);
+        depoisDoCommit(() -> indiceBusca.removerPorDominioEmail(dominioMinusculo));
+        return removidos;
+    }
+
+    // O índice único de email é quem garante a unicidade, inclusive entre requisições concorrentes que passaram juntas pelo filtro.
+    private Empregado salvarComEmailUnico(Empregado empregado) {
+        try {
+            return empregadoRepository.saveAndFlush(empregado);
+        } catch (DataIntegrityViolationException ex) {
+            if (violouEmailUnico(ex)) {
+                throw new ResourceNotFoundException("Já existe empregado com esse email: " + empregado.getEmail());
+            }
+            throw ex;
+        }
+    }
+
+    /* O persist direto no EntityManager não passa pela tradução de exceções do repositório: um INSERT recusado pelo banco (ex.: email
+    *  gravado por outra requisição depois da verificação) chegaria como PersistenceException. Aqui ela é traduzida como o repositório faria,
+    *  e a violação do email único vira o mesmo erro de salvarEmpregado. O flush final faz os INSERTs do último lote acontecerem ainda aqui
+    *  dentro, e não no flush do outbox.
+    **/
+    private void persistirEmLote(List<Empregado> empregados) {
+        try {
+            for (int i = 0; i < empregados.size(); i++) {
+                Empregado empregado = empregados.get(i);
+                // O id sempre vem da sequence; com persist direto os INSERTs são agrupados em lotes JDBC.
+                empregado.setId(null);
+                entityManager.persist(empregado);
+
+                if ((i + 1) % TAMANHO_LOTE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+        } catch (PersistenceException ex) {
+            DataAccessException traduzida = TRADUTOR_EXCECOES.translateExceptionIfPossible(ex);
+            if (traduzida instanceof DataIntegrityViolationException && violouEmailUnico((DataIntegrityViolationException) traduzida)) {
+                throw new ResourceNotFoundException("Já existe empregado com um dos emails do lote");
+            }
+            throw traduzida != null ? traduzida : ex;
+        }
+    }
+
+    /* Com o EntityManager aberto na requisição (open-in-view), o empregado lido antes numa transação somente leitura continua no
+    *  contexto de persistência marcado como somente leitura, e o merge nele não geraria UPDATE. O find devolve essa instância sem SQL
+    *  (ou faz o SELECT que o merge faria de qualquer jeito) e ela volta a ser gravável antes do merge.
+    **/
+    private Empregado liberarParaEscrita(Long id) {
+        if (id == null) {
+            return null;
+        }
+        Empregado gerenciado = entityManager.find(Empregado.class, id);
+        if (gerenciado != null) {
+            entityManager.unwrap(Session.class).setReadOnly(gerenciado, false);
+        }
+        return gerenciado;
+    }
+
+    private static boolean violouEmailUnico(DataIntegrityViolationException ex) {
+        if (ex.getCause() instanceof ConstraintViolationException) {
+            String constraint = ((ConstraintViolationException) ex.getCause()).getConstraintName();
+            return constraint != null && constraint.toUpperCase().contains(CONSTRAINT_EMAIL_UNICO);
+        }
+        return false;
+    }
+
+    // O índice de busca só muda depois do commit, para um rollback não deixar nele o que não está no banco. Sem transação, muda na hora.
+    private static void depoisDoCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    private static <T> List<List<T>> particionar(List<T> itens, int tamanho) {
+        List<List<T>> lotes = new ArrayList<>();
+        for (int inicio = 0; inicio < itens.size(); inicio += tamanho) {
+            lotes.add(itens.subList(inicio, Math.min(inicio + tamanho, itens.size())));
+        }
+        return lotes;
     }
     
 }
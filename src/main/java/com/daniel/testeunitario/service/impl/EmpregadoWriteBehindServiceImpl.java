@@ -0,0 +1,281 @@
+package com.daniel.testeunitario.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.daniel.testeunitario.dto.SituacaoGravacao;
+import com.daniel.testeunitario.dto.SituacaoGravacao.Situacao;
+import com.daniel.testeunitario.exception.ResourceNotFoundException;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+import com.daniel.testeunitario.service.EmpregadoService;
+import com.daniel.testeunitario.service.EmpregadoWriteBehindService;
+import com.daniel.testeunitario.service.support.FiltroBloomEmails;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/* Buffer limitado (empregados.write-behind.capacidade) esvaziado por uma única thread de gravação. Um lote é gravado quando junta
+*  empregados.write-behind.tamanho-lote empregados ou quando passa empregados.write-behind.intervalo desde o primeiro empregado do lote, o
+*  que vier antes; cada lote é uma transação de salvarEmpregadosEmLote.
+*
+*  Só existe com empregados.write-behind.habilitado=true. No encerramento da aplicação o buffer é esvaziado antes do EntityManagerFactory
+*  fechar (o @PreDestroy roda depois do servidor web parar de aceitar requisições). O envio confere "ativo" e entra no buffer sob a trava de
+*  leitura, e o encerramento desliga "ativo" sob a de escrita: um envio aceito sempre chega ao buffer antes de a gravação ver o fim.
+*
+*  Métricas: empregados.write-behind.fila (empregados no buffer), empregados.write-behind.gravacao (tempo de gravação de cada lote) e
+*  empregados.write-behind.recusados (envios recusados com o buffer cheio).
+**/
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "empregados.write-behind.habilitado", havingValue = "true")
+public class EmpregadoWriteBehindServiceImpl implements EmpregadoWriteBehindService {
+
+    // Tamanho das colunas varchar(255) da tabela empregados.
+    private static final int TAMANHO_MAXIMO_CAMPO = 255;
+
+    private final EmpregadoService empregadoService;
+
+    private final EmpregadoRepository empregadoRepository;
+
+    private final FiltroBloomEmails filtroEmails;
+
+    private final BlockingQueue<Pedido> buffer;
+
+    // Emails no buffer, para recusar na hora um segundo envio do mesmo email antes de o primeiro ser gravado.
+    private final Set<String> emailsPendentes = ConcurrentHashMap.newKeySet();
+
+    private final Cache<String, SituacaoGravacao> situacoes;
+
+    private final int tamanhoLote;
+
+    private final long intervaloNanos;
+
+    private final Duration tempoEncerramento;
+
+    private final Timer tempoGravacao;
+
+    private final Counter recusados;
+
+    private final Thread gravacao;
+
+    private volatile boolean ativo = true;
+
+    private final ReadWriteLock encerramento = new ReentrantReadWriteLock();
+
+    public EmpregadoWriteBehindServiceImpl(EmpregadoService empregadoService, EmpregadoRepository empregadoRepository,
+            FiltroBloomEmails filtroEmails, MeterRegistry meterRegistry,
+            @Value("${empregados.write-behind.capacidade:10000}") int capacidade,
+            @Value("${empregados.write-behind.tamanho-lote:500}") int tamanhoLote,
+            @Value("${empregados.write-behind.intervalo:200ms}") Duration intervalo,
+            @Value("${empregados.write-behind.retencao:1h}") Duration retencao,
+            @Value("${empregados.write-behind.encerramento:30s}") Duration tempoEncerramento) {
+        this.empregadoService = empregadoService;
+        this.empregadoRepository = empregadoRepository;
+        this.filtroEmails = filtroEmails;
+        this.buffer = new ArrayBlockingQueue<>(capacidade);
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.intervaloNanos = intervalo.toNanos();
+        this.tempoEncerramento = tempoEncerramento;
+        // Situações guardadas por um tempo depois da última mudança; o limite de tamanho evita crescer sem fim com tokens nunca consultados.
+        this.situacoes = Caffeine.newBuilder().expireAfterWrite(retencao).maximumSize(Math.max(capacidade, 100_000)).build();
+
+        Gauge.builder("empregados.write-behind.fila", buffer, BlockingQueue::size).register(meterRegistry);
+        this.tempoGravacao = Timer.builder("empregados.write-behind.gravacao").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.recusados = meterRegistry.counter("empregados.write-behind.recusados");
+
+        // Daemon para não segurar a JVM; a gravação do que sobrou no buffer fica com o encerramento do contexto (SIGTERM aciona o hook).
+        this.gravacao = new Thread(this::gravarEmLotes, "write-behind-gravacao");
+        this.gravacao.setDaemon(true);
+    }
+
+    // Fora do construtor, para a thread de gravação só enxergar o serviço já construído.
+    @PostConstruct
+    public void iniciar() {
+        gravacao.start();
+    }
+
+    @Override
+    public SituacaoGravacao enfileirar(Empregado empregado) {
+        Lock leitura = encerramento.readLock();
+        leitura.lock();
+        try {
+            return enfileirarAtivo(empregado);
+        } finally {
+            leitura.unlock();
+        }
+    }
+
+    private SituacaoGravacao enfileirarAtivo(Empregado empregado) {
+        if (!ativo) {
+            throw new RejectedExecutionException("Aplicação em encerramento");
+        }
+        // Como na importação: o que o banco recusaria é recusado já no envio, e não depois na gravação do lote.
+        if (vazio(empregado.getNome()) || vazio(empregado.getSobrenome()) || vazio(empregado.getEmail())) {
+            throw new IllegalArgumentException("Nome, sobrenome e email são obrigatórios");
+        }
+        if (empregado.getNome().length() > TAMANHO_MAXIMO_CAMPO || empregado.getSobrenome().length() > TAMANHO_MAXIMO_CAMPO
+                || empregado.getEmail().length() > TAMANHO_MAXIMO_CAMPO) {
+            throw new IllegalArgumentException("Campo com mais de " + TAMANHO_MAXIMO_CAMPO + " caracteres");
+        }
+        // Como no POST síncrono, o id vem da sequence e a versão começa na inicial.
+        empregado.setId(null);
+        empregado.setVersao(null);
+
+        String email = empregado.getEmail();
+        if (!emailsPendentes.add(email)) {
+            throw new ResourceNotFoundException("Já existe empregado com esse email aguardando gravação: " + email);
+        }
+
+        SituacaoGravacao pendente = new SituacaoGravacao(UUID.randomUUID().toString(), Situacao.PENDENTE, null, null);
+        situacoes.put(pendente.getToken(), pendente);
+        if (!buffer.offer(new Pedido(pendente.getToken(), empregado))) {
+            emailsPendentes.remove(email);
+            situacoes.invalidate(pendente.getToken());
+            recusados.increment();
+            throw new RejectedExecutionException("Buffer de gravação cheio");
+        }
+        return pendente;
+    }
+
+    @Override
+    public Optional<SituacaoGravacao> getSituacao(String token) {
+        return Optional.ofNullable(situacoes.getIfPresent(token));
+    }
+
+    // Depois de desligada, a thread ainda grava o que restou no buffer antes de terminar.
+    private void gravarEmLotes() {
+        List<Pedido> lote = new ArrayList<>(tamanhoLote);
+        while (ativo || !buffer.isEmpty()) {
+            try {
+                Pedido primeiro = buffer.poll(intervaloNanos, TimeUnit.NANOSECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                long prazo = System.nanoTime() + intervaloNanos;
+                while (lote.size() < tamanhoLote) {
+                    Pedido proximo = buffer.poll(prazo - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+            } catch (InterruptedException ex) {
+                // Só o encerramento interrompe, quando o tempo de encerramento acabou: o que não foi gravado fica perdido.
+                return;
+            }
+
+            if (!lote.isEmpty()) {
+                try {
+                    tempoGravacao.record(() -> gravarLote(lote));
+                } catch (RuntimeException ex) {
+                    log.error("Falha ao gravar lote de {} empregados em write-behind", lote.size(), ex);
+                    lote.forEach(pedido -> concluir(pedido, Situacao.REJEITADO, null, "Falha na gravação: " + ex.getMessage()));
+                }
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravarLote(List<Pedido> lote) {
+        // Os emails do buffer já são distintos (emailsPendentes); falta conferir os já cadastrados, só para quem o filtro não descarta.
+        Map<String, Pedido> porEmail = new LinkedHashMap<>();
+        lote.forEach(pedido -> porEmail.put(pedido.empregado.getEmail(), pedido));
+
+        List<String> emailsSuspeitos = porEmail.keySet().stream().filter(filtroEmails::podeConter).collect(Collectors.toList());
+        if (!emailsSuspeitos.isEmpty()) {
+            for (String email : empregadoRepository.findEmailsExistentes(emailsSuspeitos)) {
+                concluir(porEmail.remove(email), Situacao.REJEITADO, null, "Já existe empregado com esse email: " + email);
+            }
+        }
+        if (porEmail.isEmpty()) {
+            return;
+        }
+
+        List<Empregado> empregados = porEmail.values().stream().map(pedido -> pedido.empregado).collect(Collectors.toList());
+        try {
+            empregadoService.salvarEmpregadosEmLote(empregados);
+            porEmail.values().forEach(pedido -> concluir(pedido, Situacao.GRAVADO, pedido.empregado.getId(), null));
+        } catch (RuntimeException ex) {
+            // O banco recusou o lote (ex.: outra requisição cadastrou um desses emails depois da conferência) e ele voltou inteiro: é gravado
+            // um a um, e só o pedido que falhar de novo é rejeitado.
+            log.warn("Lote de {} empregados em write-behind recusado; gravando um a um", empregados.size(), ex);
+            for (Pedido pedido : porEmail.values()) {
+                try {
+                    Empregado salvo = empregadoService.salvarEmpregado(pedido.empregado);
+                    concluir(pedido, Situacao.GRAVADO, salvo.getId(), null);
+                } catch (ResourceNotFoundException exEmpregado) {
+                    concluir(pedido, Situacao.REJEITADO, null, exEmpregado.getMessage());
+                } catch (RuntimeException exEmpregado) {
+                    concluir(pedido, Situacao.REJEITADO, null, "Falha na gravação: " + exEmpregado.getMessage());
+                }
+            }
+        }
+    }
+
+    private static boolean vazio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    private void concluir(Pedido pedido, Situacao situacao, Long id, String mensagem) {
+        situacoes.put(pedido.token, new SituacaoGravacao(pedido.token, situacao, id, mensagem));
+        emailsPendentes.remove(pedido.empregado.getEmail());
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        // Espera os envios em andamento entrarem no buffer (ou serem recusados) antes de a gravação poder ver "ativo" desligado.
+        Lock escrita = encerramento.writeLock();
+        escrita.lock();
+        try {
+            ativo = false;
+        } finally {
+            escrita.unlock();
+        }
+        gravacao.join(tempoEncerramento.toMillis());
+        if (gravacao.isAlive()) {
+            log.warn("Encerramento sem terminar a gravação em write-behind; {} empregados ainda no buffer", buffer.size());
+            gravacao.interrupt();
+        }
+    }
+
+    private static final class Pedido {
+
+        private final String token;
+
+        private final Empregado empregado;
+
+        private Pedido(String token, Empregado empregado) {
+            this.token = token;
+            this.empregado = empregado;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.daniel.testeunitario.service.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/* Balde de fichas por cliente: cada cliente pode fazer uma rajada de até "rajada" requisições e, depois dela, "taxa" requisições por segundo.
+*
+*  Cada balde é um único long com o horário teórico da próxima chegada (algoritmo GCRA, equivalente a um token bucket): consumir uma ficha é
+*  um compareAndSet, sem trava e sem thread de reabastecimento. Os baldes ficam num vetor fixo de faixas, escolhida pelo hash do cliente, então a
+*  memória não cresce com a quantidade de clientes (o identificador vem de um cabeçalho, e um cliente com defeito pode inventar um por
+*  requisição). Dois clientes na mesma faixa dividem o balde; com o padrão de 4096 faixas isso é raro para a quantidade de integrações
+*  esperada. Cada faixa ocupa a própria linha de cache, para que clientes diferentes não disputem a mesma linha entre núcleos.
+**/
+public class BaldesTokensClientes {
+
+    // 8 longs = 64 bytes, o tamanho da linha de cache; só o primeiro long de cada linha é usado.
+    private static final int LONGS_POR_FAIXA = 8;
+
+    private final AtomicLongArray proximasChegadas;
+
+    private final int mascara;
+
+    private final long intervaloNanos;
+
+    private final long toleranciaNanos;
+
+    private final LongSupplier relogio;
+
+    // Os horários são relativos à criação, para que o zero inicial do vetor signifique "balde cheio" (System.nanoTime() pode ser negativo).
+    private final long origem;
+
+    public BaldesTokensClientes(double taxaPorSegundo, int rajada, int faixas) {
+        this(taxaPorSegundo, rajada, faixas, System::nanoTime);
+    }
+
+    public BaldesTokensClientes(double taxaPorSegundo, int rajada, int faixas, LongSupplier relogio) {
+        if (taxaPorSegundo <= 0 || rajada < 1 || faixas < 1) {
+            throw new IllegalArgumentException("Taxa, rajada e faixas devem ser positivas");
+        }
+        int potenciaDeDois = faixas == 1 ? 1 : Integer.highestOneBit(faixas - 1) << 1;
+        this.proximasChegadas = new AtomicLongArray(potenciaDeDois * LONGS_POR_FAIXA);
+        this.mascara = potenciaDeDois - 1;
+        this.intervaloNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / taxaPorSegundo));
+        this.toleranciaNanos = intervaloNanos * (rajada - 1);
+        this.relogio = relogio;
+        this.origem = relogio.getAsLong();
+    }
+
+    /* Consome uma ficha do balde do cliente. Devolve 0 quando a requisição pode seguir; senão, quantos nanossegundos faltam para a próxima
+    *  ficha (o balde não é alterado quando a requisição é recusada).
+    **/
+    public long consumir(String cliente) {
+        int posicao = faixa(cliente) * LONGS_POR_FAIXA;
+        long agora = relogio.getAsLong() - origem;
+        while (true) {
+            long proximaChegada = proximasChegadas.get(posicao);
+            long base = Math.max(proximaChegada, agora);
+            long adiantamento = base - agora;
+            if (adiantamento > toleranciaNanos) {
+                return adiantamento - toleranciaNanos;
+            }
+            if (proximasChegadas.compareAndSet(posicao, proximaChegada, base + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    private int faixa(String cliente) {
+        int hash = cliente.hashCode();
+        return (hash ^ (hash >>> 16)) & mascara;
+    }
+}
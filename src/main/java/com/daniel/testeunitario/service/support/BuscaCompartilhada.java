@@ -0,0 +1,50 @@
+package com.daniel.testeunitario.service.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/* Agrupa buscas concorrentes pela mesma chave ("single flight").
+*
+*  A primeira thread que pede uma chave executa a busca; as que chegam enquanto ela está em andamento esperam e recebem o mesmo resultado
+*  (ou a mesma exceção). Quando a busca termina a chave sai do mapa, então a próxima chamada consulta o banco de novo: não é um cache.
+**/
+public class BuscaCompartilhada<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> buscasEmAndamento = new ConcurrentHashMap<>();
+
+    public V executar(K chave, Supplier<V> busca) {
+        CompletableFuture<V> minhaBusca = new CompletableFuture<>();
+        CompletableFuture<V> buscaExistente = buscasEmAndamento.putIfAbsent(chave, minhaBusca);
+        if (buscaExistente != null) {
+            return aguardar(buscaExistente);
+        }
+
+        try {
+            V resultado = busca.get();
+            minhaBusca.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error ex) {
+            minhaBusca.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            buscasEmAndamento.remove(chave, minhaBusca);
+        }
+    }
+
+    private V aguardar(CompletableFuture<V> busca) {
+        try {
+            return busca.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.daniel.testeunitario.service.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/* Conta os comandos SQL preparados pelo Hibernate na thread atual, por tipo (registrado como hibernate.session_factory.statement_inspector).
+*
+*  Os contadores são um int[] por thread, criado uma única vez: contar um comando é olhar a primeira letra do SQL e incrementar uma posição,
+*  sem alocar nada. Com lotes JDBC, um lote de INSERTs conta como um comando, que é o que importa para o número de idas ao banco.
+**/
+public class ContadorSql implements StatementInspector {
+
+    public enum Tipo { SELECT, INSERT, UPDATE, DELETE, OUTRO }
+
+    private static final Tipo[] TIPOS = Tipo.values();
+
+    private static final ThreadLocal<int[]> COMANDOS = ThreadLocal.withInitial(() -> new int[TIPOS.length]);
+
+    @Override
+    public String inspect(String sql) {
+        COMANDOS.get()[tipo(sql).ordinal()]++;
+        return sql;
+    }
+
+    public static void zerar() {
+        int[] comandos = COMANDOS.get();
+        for (int i = 0; i < comandos.length; i++) {
+            comandos[i] = 0;
+        }
+    }
+
+    public static int total() {
+        int total = 0;
+        for (int comandos : COMANDOS.get()) {
+            total += comandos;
+        }
+        return total;
+    }
+
+    public static int total(Tipo tipo) {
+        return COMANDOS.get()[tipo.ordinal()];
+    }
+
+    // O Hibernate gera o SQL sem comentários no início; "call next value for ..." (sequence) cai em OUTRO.
+    private static Tipo tipo(String sql) {
+        switch (sql.isEmpty() ? ' ' : Character.toLowerCase(sql.charAt(0))) {
+            case 's':
+                return Tipo.SELECT;
+            case 'i':
+                return Tipo.INSERT;
+            case 'u':
+                return Tipo.UPDATE;
+            case 'd':
+                return Tipo.DELETE;
+            default:
+                return Tipo.OUTRO;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.daniel.testeunitario.service.support;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daniel.testeunitario.config.ExecutorConfig;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class FiltroBloomEmails {
+
+    // Com 10 bits por email e 7 funções de hash a taxa de falso positivo fica em torno de 1%.
+    private static final int BITS_POR_EMAIL = 10;
+    private static final int NUMERO_HASHES = 7;
+    // Maior múltiplo de 64 que cabe num int: as posições são int e o vetor tem no máximo Integer.MAX_VALUE / 64 palavras.
+    private static final long MAXIMO_BITS = Integer.MAX_VALUE & ~63L;
+
+    private final EmpregadoRepository empregadoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor executor;
+    private final int numeroBits;
+    private final long limiteRemocoes;
+
+    private volatile AtomicLongArray bits;
+    private volatile AtomicLongArray bitsEmReconstrucao;
+
+    private final AtomicLong remocoesPendentes = new AtomicLong();
+    private final AtomicBoolean reconstruindo = new AtomicBoolean();
+
+    public FiltroBloomEmails(EmpregadoRepository empregadoRepository, PlatformTransactionManager transactionManager,
+            @Qualifier(ExecutorConfig.EXECUTOR_FILTRO_EMAILS) TaskExecutor executor,
+            @Value("${empregados.filtro-emails.capacidade:1000000}") int capacidade) {
+        this.empregadoRepository = empregadoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.executor = executor;
+        this.numeroBits = (int) Math.min(MAXIMO_BITS, Math.max(64L, (long) capacidade * BITS_POR_EMAIL));
+        this.limiteRemocoes = Math.max(1000, capacidade / 10);
+        this.bits = new AtomicLongArray(numeroPalavras());
+    }
+
+    // false: o email com certeza não está cadastrado. true: talvez esteja (é preciso confirmar no banco).
+    public boolean podeConter(String email) {
+        // Um email nulo nunca é gravado (a coluna é NOT NULL); quem recusa é o banco, e não o filtro.
+        if (email == null) {
+            return false;
+        }
+        AtomicLongArray atual = bits;
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < NUMERO_HASHES; i++) {
+            int posicao = Math.floorMod(h1 + i * h2, numeroBits);
+            if ((atual.get(posicao >>> 6) & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void adicionar(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash = hash(email);
+        marcar(bits, hash);
+        AtomicLongArray novos = bitsEmReconstrucao;
+        if (novos != null) {
+            marcar(novos, hash);
+        }
+    }
+
+    /* Um filtro de Bloom não remove elementos: o email removido continua dando "talvez" (só custa uma consulta a mais). As remoções são
+    *  contadas e, ao passar do limite, o filtro é reconstruído a partir do banco em segundo plano, no executor do filtro (ExecutorConfig).
+    *  Quem vira "reconstruindo" de false para true é o único a enviar a reconstrução; as remoções seguintes só somam até ela terminar.
+    **/
+    public void registrarRemocoes(long quantidade) {
+        if (remocoesPendentes.addAndGet(quantidade) >= limiteRemocoes && reconstruindo.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::reconstruirComTrava);
+            } catch (RejectedExecutionException ex) {
+                // Executor encerrado (aplicação parando): a trava é devolvida e a próxima remoção tenta de novo.
+                reconstruindo.set(false);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        if (reconstruindo.compareAndSet(false, true)) {
+            reconstruirComTrava();
+        }
+    }
+
+    // Só roda com "reconstruindo" já tomado por quem chamou.
+    private void reconstruirComTrava() {
+        try {
+            AtomicLongArray novos = new AtomicLongArray(numeroPalavras());
+            bitsEmReconstrucao = novos;
+            remocoesPendentes.set(0);
+
+            long total = transactionTemplate.execute(status -> {
+                try (Stream<String> emails = empregadoRepository.streamAllEmails()) {
+                    // forEach, e não peek + count: count() pode pular o peek quando o tamanho do stream é conhecido.
+                    AtomicLong marcados = new AtomicLong();
+                    emails.forEach(email -> {
+                        marcar(novos, hash(email));
+                        marcados.incrementAndGet();
+                    });
+                    return marcados.get();
+                }
+            });
+
+            bits = novos;
+            log.info("Filtro de emails reconstruído com {} emails", total);
+        } finally {
+            bitsEmReconstrucao = null;
+            reconstruindo.set(false);
+        }
+    }
+
+    private void marcar(AtomicLongArray destino, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < NUMERO_HASHES; i++) {
+            int posicao = Math.floorMod(h1 + i * h2, numeroBits);
+            int palavra = posicao >>> 6;
+            long mascara = 1L << posicao;
+            long valor;
+            while (((valor = destino.get(palavra)) & mascara) == 0 && !destino.compareAndSet(palavra, valor, valor | mascara)) {
+                // outra thread alterou a mesma palavra; tenta de novo
+            }
+        }
+    }
+
+    private int numeroPalavras() {
+        return (numeroBits + 63) >>> 6;
+    }
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8 do email; as duas metades geram as k posições (h1 + i * h2).
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
+
+/**
+ * Observação:
+ * 
+ * O filtro é apenas uma otimização: quem garante que não existem emails repetidos é o índice único "uk_empregados_email". Um falso negativo
+ * (por exemplo, um email gravado durante a reconstrução) faz o INSERT falhar pela constraint, que é tratada no serviço.
+*/
@@ -0,0 +1,322 @@
+package com.daniel.testeunitario.service.support;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/* Índice invertido em memória para a busca por nome, sobrenome e email (GET /api/empregados/search?q=).
+*
+*  Cada palavra (sem acentos, em minúsculas; o email é quebrado em "d4n", "andrade", "gmail", "com") entra no índice pelos seus trigramas e
+*  pelos prefixos de 1 e 2 letras. Um termo da busca com 3 letras ou mais procura os ids que têm todos os seus trigramas e confere a
+*  substring; termos menores valem como prefixo de palavra. Todos os termos precisam bater (E), e o resultado é ordenado por relevância:
+*  palavra igual > prefixo > substring, com nome e sobrenome valendo o dobro do email.
+*
+*  O EmpregadoService mantém o índice a cada criação, atualização e remoção (depois do commit); na subida da aplicação ele é reconstruído a
+*  partir do banco, indexando blocos de empregados em paralelo.
+**/
+@Slf4j
+@Component
+public class IndiceBuscaEmpregados {
+
+    private static final int TAMANHO_NGRAMA = 3;
+
+    private static final int TAMANHO_BLOCO_RECONSTRUCAO = 5000;
+
+    private static final int PESO_NOME = 2;
+
+    private static final int PESO_EMAIL = 1;
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private final EmpregadoRepository empregadoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<Long, Documento> documentos = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Set<Long>> idsPorChave = new ConcurrentHashMap<>();
+
+    public IndiceBuscaEmpregados(EmpregadoRepository empregadoRepository, PlatformTransactionManager transactionManager) {
+        this.empregadoRepository = empregadoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // Inclui ou substitui o empregado; uma versão mais antiga que a já indexada (ex.: lida pela reconstrução) é ignorada.
+    public void indexar(Empregado empregado) {
+        Documento novo = new Documento(empregado.getId(), empregado.getNome(), empregado.getSobrenome(), empregado.getEmail(),
+                empregado.getVersao());
+        documentos.compute(novo.id, (id, atual) -> {
+            if (atual != null && atual.versao != null && novo.versao != null && atual.versao > novo.versao) {
+                return atual;
+            }
+            return substituir(atual, novo);
+        });
+    }
+
+    // Para o PATCH, que atualiza só os campos enviados sem ler a entidade: aplica as mesmas alterações ao documento indexado.
+    public void aplicarAlteracoes(long id, Empregado alteracoes) {
+        documentos.computeIfPresent(id, (chave, atual) -> substituir(atual, new Documento(id,
+                alteracoes.getNome() != null ? alteracoes.getNome() : atual.nome,
+                alteracoes.getSobrenome() != null ? alteracoes.getSobrenome() : atual.sobrenome,
+                alteracoes.getEmail() != null ? alteracoes.getEmail() : atual.email,
+                atual.versao != null ? atual.versao + 1 : null)));
+    }
+
+    public void remover(long id) {
+        documentos.computeIfPresent(id, (chave, atual) -> substituir(atual, null));
+    }
+
+    // Mesmo critério da coluna email_dominio: o que vem depois do primeiro '@', sem diferenciar maiúsculas.
+    public void removerPorDominioEmail(String dominio) {
+        for (Documento documento : documentos.values()) {
+            if (documento.email != null && dominio.equalsIgnoreCase(documento.email.substring(documento.email.indexOf('@') + 1))) {
+                remover(documento.id);
+            }
+        }
+    }
+
+    public List<Empregado> buscar(String consulta, int limite) {
+        String[] termos = palavras(consulta);
+        if (termos.length == 0 || limite <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Os candidatos vêm da menor lista de ids entre todas as chaves dos termos; as outras listas só são consultadas.
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String termo : termos) {
+            for (String chave : chavesDoTermo(termo)) {
+                Set<Long> ids = idsPorChave.get(chave);
+                if (ids == null) {
+                    return Collections.emptyList();
+                }
+                listas.add(ids);
+            }
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(limite + 1, Resultado.ORDEM.reversed());
+        for (Long id : listas.get(0)) {
+            if (!estaEmTodas(id, listas)) {
+                continue;
+            }
+            Documento documento = documentos.get(id);
+            int pontuacao = documento == null ? 0 : documento.pontuar(termos);
+            if (pontuacao > 0) {
+                melhores.add(new Resultado(documento, pontuacao));
+                if (melhores.size() > limite) {
+                    melhores.poll();
+                }
+            }
+        }
+
+        List<Resultado> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(Resultado.ORDEM);
+        List<Empregado> empregados = new ArrayList<>(ordenados.size());
+        for (Resultado resultado : ordenados) {
+            empregados.add(resultado.documento.paraEmpregado());
+        }
+        return empregados;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Void>> blocos = new ArrayList<>();
+
+        // A leitura é sequencial (um cursor só); cada bloco lido é indexado em paralelo enquanto o próximo é lido.
+        long total = transactionTemplate.execute(status -> {
+            try (Stream<Empregado> empregados = empregadoRepository.streamAllParaIndice()) {
+                List<Empregado> bloco = new ArrayList<>(TAMANHO_BLOCO_RECONSTRUCAO);
+                long lidos = 0;
+                for (Empregado empregado : (Iterable<Empregado>) empregados::iterator) {
+                    bloco.add(empregado);
+                    lidos++;
+                    if (bloco.size() == TAMANHO_BLOCO_RECONSTRUCAO) {
+                        blocos.add(indexarEmParalelo(bloco));
+                        bloco = new ArrayList<>(TAMANHO_BLOCO_RECONSTRUCAO);
+                    }
+                }
+                blocos.add(indexarEmParalelo(bloco));
+                return lidos;
+            }
+        });
+        CompletableFuture.allOf(blocos.toArray(new CompletableFuture[0])).join();
+
+        log.info("Índice de busca reconstruído com {} empregados em {} ms", total, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private CompletableFuture<Void> indexarEmParalelo(List<Empregado> bloco) {
+        return CompletableFuture.runAsync(() -> bloco.forEach(this::indexar));
+    }
+
+    // Chamado dentro do compute do id: atualiza só as chaves que mudaram entre o documento atual e o novo (null = remoção).
+    private Documento substituir(Documento atual, Documento novo) {
+        Set<String> chavesAtuais = atual != null ? atual.chaves : Collections.emptySet();
+        Set<String> chavesNovas = novo != null ? novo.chaves : Collections.emptySet();
+        long id = atual != null ? atual.id : novo.id;
+
+        for (String chave : chavesAtuais) {
+            if (!chavesNovas.contains(chave)) {
+                idsPorChave.computeIfPresent(chave, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+        for (String chave : chavesNovas) {
+            if (!chavesAtuais.contains(chave)) {
+                idsPorChave.compute(chave, (k, ids) -> {
+                    Set<Long> destino = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    destino.add(id);
+                    return destino;
+                });
+            }
+        }
+        return novo;
+    }
+
+    private static boolean estaEmTodas(Long id, List<Set<Long>> listas) {
+        for (int i = 1; i < listas.size(); i++) {
+            if (!listas.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> chavesDoTermo(String termo) {
+        if (termo.length() < TAMANHO_NGRAMA) {
+            return Collections.singletonList("^" + termo);
+        }
+        List<String> chaves = new ArrayList<>();
+        for (int i = 0; i + TAMANHO_NGRAMA <= termo.length(); i++) {
+            chaves.add(termo.substring(i, i + TAMANHO_NGRAMA));
+        }
+        return chaves;
+    }
+
+    private static Set<String> chavesDasPalavras(String[] palavras) {
+        Set<String> chaves = new HashSet<>();
+        for (String palavra : palavras) {
+            chaves.add("^" + palavra.substring(0, 1));
+            if (palavra.length() >= 2) {
+                chaves.add("^" + palavra.substring(0, 2));
+            }
+            if (palavra.length() >= TAMANHO_NGRAMA) {
+                chaves.addAll(chavesDoTermo(palavra));
+            }
+        }
+        return chaves;
+    }
+
+    static String[] palavras(String texto) {
+        if (texto == null) {
+            return new String[0];
+        }
+        String normalizado = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARADORES.split(normalizado)).filter(palavra -> !palavra.isEmpty()).toArray(String[]::new);
+    }
+
+    private static String[] juntar(String[] primeiro, String[] segundo) {
+        String[] todas = Arrays.copyOf(primeiro, primeiro.length + segundo.length);
+        System.arraycopy(segundo, 0, todas, primeiro.length, segundo.length);
+        return todas;
+    }
+
+    private static final class Documento {
+
+        private final long id;
+        private final String nome;
+        private final String sobrenome;
+        private final String email;
+        private final Long versao;
+
+        private final String[] palavrasNome;
+        private final String[] palavrasEmail;
+        private final Set<String> chaves;
+
+        private Documento(long id, String nome, String sobrenome, String email, Long versao) {
+            this.id = id;
+            this.nome = nome;
+            this.sobrenome = sobrenome;
+            this.email = email;
+            this.versao = versao;
+            this.palavrasNome = juntar(palavras(nome), palavras(sobrenome));
+            this.palavrasEmail = palavras(email);
+            this.chaves = chavesDasPalavras(juntar(palavrasNome, palavrasEmail));
+        }
+
+        // 0 quando algum termo não aparece (os trigramas podem estar em palavras diferentes ou fora de ordem).
+        private int pontuar(String[] termos) {
+            int total = 0;
+            for (String termo : termos) {
+                int melhor = Math.max(melhorPontuacao(termo, palavrasNome) * PESO_NOME, melhorPontuacao(termo, palavrasEmail) * PESO_EMAIL);
+                if (melhor == 0) {
+                    return 0;
+                }
+                total += melhor;
+            }
+            return total;
+        }
+
+        private static int melhorPontuacao(String termo, String[] palavras) {
+            int melhor = 0;
+            for (String palavra : palavras) {
+                if (palavra.equals(termo)) {
+                    return 3;
+                }
+                if (palavra.startsWith(termo)) {
+                    melhor = 2;
+                } else if (melhor == 0 && palavra.contains(termo)) {
+                    melhor = 1;
+                }
+            }
+            return melhor;
+        }
+
+        private Empregado paraEmpregado() {
+            return new Empregado(id, nome, sobrenome, email, versao);
+        }
+    }
+
+    private static final class Resultado {
+
+        // Maior pontuação primeiro; no empate, o menor id.
+        private static final Comparator<Resultado> ORDEM = Comparator.comparingInt((Resultado resultado) -> -resultado.pontuacao)
+                .thenComparingLong(resultado -> resultado.documento.id);
+
+        private final Documento documento;
+        private final int pontuacao;
+
+        private Resultado(Documento documento, int pontuacao) {
+            this.documento = documento;
+            this.pontuacao = pontuacao;
+        }
+    }
+}
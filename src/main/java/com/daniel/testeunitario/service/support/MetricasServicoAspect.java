@@ -0,0 +1,59 @@
+package com.daniel.testeunitario.service.support;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/* Tempo de cada método do EmpregadoService, em empregados.servico (tag metodo), com percentis p50/p99/p999.
+*
+*  Fica por fora do cache e das transações (maior precedência), então mede o que quem chama o serviço enxerga, inclusive acertos de cache.
+*  O Timer de cada método é criado na primeira chamada e reaproveitado: depois disso medir uma chamada é um get no mapa e duas leituras de
+*  System.nanoTime(), sem montar tags nem alocar objetos.
+**/
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricasServicoAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public MetricasServicoAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* com.daniel.testeunitario.service.EmpregadoService.*(..))")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method metodo = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer timer = timers.get(metodo);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(metodo, this::criarTimer);
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer criarTimer(Method metodo) {
+        return Timer.builder("empregados.servico")
+                .description("Tempo das operações do EmpregadoService")
+                .tag("metodo", metodo.getName())
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+    }
+}
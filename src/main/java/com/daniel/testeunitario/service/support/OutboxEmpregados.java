@@ -0,0 +1,113 @@
+package com.daniel.testeunitario.service.support;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.model.EventoEmpregado;
+import com.daniel.testeunitario.model.EventoEmpregado.Tipo;
+
+/* Grava as alterações de empregados na tabela empregados_eventos, na mesma transação da alteração: ou as duas vão para o banco, ou nenhuma.
+*
+*  A sequência dos eventos precisa crescer na ordem dos commits, senão um consumidor que já leu até a sequência N perderia um evento N - 1
+*  que fizesse commit depois. Por isso quem registra eventos segura uma trava desde o momento do registro até o fim da transação: as
+*  sequências são geradas e gravadas uma transação de cada vez. Para a trava durar pouco e não esperar por linhas de empregados travadas
+*  por outra transação, as alterações pendentes vão para o banco antes (flush) e o registro fica como último passo de cada escrita.
+*
+*  A trava é da JVM, o que basta com uma única instância (o banco H2 em memória também é de uma instância só). Com várias instâncias ela
+*  teria de ir para o banco, por exemplo uma linha de contador lida com SELECT ... FOR UPDATE.
+*
+*  Depois do commit é publicado um NovosEventos, que a transmissão por SSE usa para buscar os eventos novos sem esperar pelo próximo ciclo.
+**/
+@Component
+public class OutboxEmpregados {
+
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher publicador;
+
+    private final ReentrantLock ordemCommits = new ReentrantLock();
+
+    public OutboxEmpregados(EntityManager entityManager, ApplicationEventPublisher publicador) {
+        this.entityManager = entityManager;
+        this.publicador = publicador;
+    }
+
+    public void registrarCriacoes(Collection<Empregado> empregados) {
+        registrar(empregados.stream().map(empregado -> evento(Tipo.CRIADO, empregado)).collect(Collectors.toList()));
+    }
+
+    public void registrarAtualizacao(Empregado empregado) {
+        registrar(List.of(evento(Tipo.ATUALIZADO, empregado)));
+    }
+
+    // Atualização parcial: só os campos enviados (os nulos não mudaram); a versão nova só é conhecida quando veio a esperada.
+    public void registrarAlteracoes(long id, Empregado alteracoes, Long versaoEsperada) {
+        registrar(List.of(EventoEmpregado.builder()
+                .tipo(Tipo.ATUALIZADO)
+                .empregadoId(id)
+                .nome(alteracoes.getNome())
+                .sobrenome(alteracoes.getSobrenome())
+                .email(alteracoes.getEmail())
+                .versao(versaoEsperada != null ? versaoEsperada + 1 : null)
+                .ocorridoEm(Instant.now()).build()));
+    }
+
+    public void registrarRemocoes(Collection<Long> ids) {
+        registrar(ids.stream()
+                .map(id -> EventoEmpregado.builder().tipo(Tipo.REMOVIDO).empregadoId(id).ocorridoEm(Instant.now()).build())
+                .collect(Collectors.toList()));
+    }
+
+    private void registrar(List<EventoEmpregado> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Eventos de empregados só podem ser registrados dentro de uma transação");
+        }
+
+        entityManager.flush();
+        travarAteOFimDaTransacao();
+        eventos.forEach(entityManager::persist);
+        publicador.publishEvent(new NovosEventos());
+    }
+
+    private void travarAteOFimDaTransacao() {
+        if (ordemCommits.isHeldByCurrentThread()) {
+            return;
+        }
+        ordemCommits.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ordemCommits.unlock();
+            }
+        });
+    }
+
+    private static EventoEmpregado evento(Tipo tipo, Empregado empregado) {
+        return EventoEmpregado.builder()
+                .tipo(tipo)
+                .empregadoId(empregado.getId())
+                .nome(empregado.getNome())
+                .sobrenome(empregado.getSobrenome())
+                .email(empregado.getEmail())
+                .versao(empregado.getVersao())
+                .ocorridoEm(Instant.now()).build();
+    }
+
+    // Aviso de que há eventos novos no banco; entregue a @TransactionalEventListener depois do commit.
+    public static final class NovosEventos {
+    }
+}
@@ -0,0 +1,111 @@
+package com.daniel.testeunitario.service.support;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.daniel.testeunitario.exception.ConflitoIdempotenciaException;
+import com.daniel.testeunitario.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/* Resultados de operações por chave de idempotência (cabeçalho Idempotency-Key): a primeira requisição com uma chave executa a operação e
+*  as repetições recebem o mesmo resultado, sem executá-la de novo.
+*
+*  - Repetições que chegam com a primeira ainda em andamento esperam por ela (BuscaCompartilhada), em vez de executarem em paralelo.
+*  - O resultado fica guardado por empregados.idempotencia.retencao, num máximo de empregados.idempotencia.capacidade chaves (as menos
+*    usadas saem primeiro). Uma repetição depois disso executa a operação de novo.
+*  - Recusas de regra de negócio (ResourceNotFoundException, como email já cadastrado) também são guardadas e repetidas. Qualquer outra
+*    exceção não: a chave fica livre para uma nova tentativa.
+*  - A mesma chave com outra requisição (impressão diferente) é recusada com ConflitoIdempotenciaException.
+*
+*  As chaves valem para a aplicação inteira: não há usuário para separá-las, então o cliente deve gerar chaves únicas (um UUID, por exemplo).
+**/
+@Component
+public class RegistroIdempotencia {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private final Cache<String, Registro> registros;
+
+    private final BuscaCompartilhada<String, Registro> emAndamento = new BuscaCompartilhada<>();
+
+    public RegistroIdempotencia(@Value("${empregados.idempotencia.capacidade:10000}") int capacidade,
+            @Value("${empregados.idempotencia.retencao:24h}") Duration retencao) {
+        this.registros = Caffeine.newBuilder().maximumSize(capacidade).expireAfterWrite(retencao).build();
+    }
+
+    // "impressao" identifica a requisição (por exemplo, os campos do corpo) para detectar a mesma chave usada em outra requisição.
+    @SuppressWarnings("unchecked")
+    public <T> Resultado<T> executar(String chave, String impressao, Supplier<T> operacao) {
+        boolean[] executou = new boolean[1];
+        Registro registro = registros.getIfPresent(chave);
+        if (registro == null) {
+            registro = emAndamento.executar(chave, () -> {
+                // Outra thread pode ter terminado a mesma chave entre a consulta acima e a entrada aqui.
+                Registro existente = registros.getIfPresent(chave);
+                if (existente != null) {
+                    return existente;
+                }
+                executou[0] = true;
+                Registro novo = executar(impressao, operacao);
+                registros.put(chave, novo);
+                return novo;
+            });
+        }
+
+        if (!registro.impressao.equals(impressao)) {
+            throw new ConflitoIdempotenciaException("Idempotency-Key já usada em outra requisição: " + chave);
+        }
+        if (registro.recusa != null) {
+            throw registro.recusa;
+        }
+        return new Resultado<>((T) registro.valor, !executou[0]);
+    }
+
+    private static Registro executar(String impressao, Supplier<?> operacao) {
+        try {
+            return new Registro(impressao, operacao.get(), null);
+        } catch (ResourceNotFoundException ex) {
+            return new Registro(impressao, null, ex);
+        }
+    }
+
+    public static final class Resultado<T> {
+
+        private final T valor;
+
+        private final boolean repetido;
+
+        private Resultado(T valor, boolean repetido) {
+            this.valor = valor;
+            this.repetido = repetido;
+        }
+
+        public T getValor() {
+            return valor;
+        }
+
+        // true quando o valor veio de uma execução anterior (ou concorrente) com a mesma chave.
+        public boolean isRepetido() {
+            return repetido;
+        }
+    }
+
+    private static final class Registro {
+
+        private final String impressao;
+
+        private final Object valor;
+
+        private final ResourceNotFoundException recusa;
+
+        private Registro(String impressao, Object valor, ResourceNotFoundException recusa) {
+            this.impressao = impressao;
+            this.valor = valor;
+            this.recusa = recusa;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.daniel.testeunitario.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.daniel.testeunitario.TesteunitarioApplication;
+import com.daniel.testeunitario.config.AdmissaoFilter;
+
+/* Sobrecarga em /api/empregados com e sem o controle de admissão (AdmissaoConfig): a mesma carga roda contra duas aplicações, uma com
+*  empregados.admissao.habilitada=true e outra com false, e o teste compara o p99 de um cliente bem-comportado nas duas.
+*
+*  Dois clientes em modelo aberto (cada requisição sai no seu horário, e a latência conta a partir dele, como em EmpregadoCargaTest):
+*  - "bem-comportado": carga.admissao.taxaBem (50 req/s), abaixo do limite por cliente;
+*  - "ruidoso": carga.admissao.taxaRuidoso (350 req/s), a integração com defeito, acima do que a aplicação atende.
+*  Mix das operações: carga.admissao.mix (POST:40,GET:30,PUT:30); duração de cada cenário: carga.admissao.duracao (20 s). O limite por
+*  cliente do cenário com admissão é carga.admissao.taxaCliente (50 req/s, rajada do mesmo tamanho). Os padrões são para uma máquina de
+*  1 CPU, onde cliente de carga e aplicação dividem o processador e a capacidade fica perto de 300 req/s com esse mix (com 250 req/s do
+*  ruidoso o p99 sem admissão foi de 67 ms, com 300 de 834 ms); numa máquina maior, suba as taxas. O teste confere que a carga de fato
+*  sobrecarregou a aplicação sem admissão (p99 acima do orçamento) antes de comparar.
+*
+*  Antes dos dois cenários roda um aquecimento descartado (carga.admissao.aquecimento, 60 s, a mesma carga com admissão, para o caminho das
+*  recusas também ser compilado), para a compilação do JIT não pesar só no primeiro. O cenário com admissão roda antes do sem: se sobrar
+*  alguma diferença de aquecimento, ela favorece o sem admissão.
+*
+*  As recusas 429 são respostas imediatas com Retry-After e ficam fora do histograma; timeouts e outros erros entram com o tempo que
+*  levaram. Fica fora do build normal (tag "carga"). Para rodar:
+*  mvn test -Dgroups=carga -DexcludedGroups= -Dtest=EmpregadoAdmissaoCargaTest
+*  Orçamento do p99 do bem-comportado com admissão: -Dcarga.admissao.orcamento.p99Ms (1000).
+**/
+@Tag("carga")
+public class EmpregadoAdmissaoCargaTest {
+
+    private static final int EMPREGADOS_INICIAIS = 1000;
+
+    private static final int MAXIMO_EM_ANDAMENTO = 4000;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final double taxaBem = Double.parseDouble(System.getProperty("carga.admissao.taxaBem", "50"));
+
+    private final double taxaRuidoso = Double.parseDouble(System.getProperty("carga.admissao.taxaRuidoso", "350"));
+
+    private final String taxaCliente = System.getProperty("carga.admissao.taxaCliente", "50");
+
+    private final String mix = System.getProperty("carga.admissao.mix", "POST:40,GET:30,PUT:30");
+
+    private final int duracaoSegundos = Integer.getInteger("carga.admissao.duracao", 20);
+
+    private final int aquecimentoSegundos = Integer.getInteger("carga.admissao.aquecimento", 60);
+
+    private final double orcamentoP99Ms = Double.parseDouble(System.getProperty("carga.admissao.orcamento.p99Ms", "1000"));
+
+    private final AtomicLong sequenciaEmails = new AtomicLong();
+
+    private static final class Medicao {
+
+        private final Histogram latencias = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(60), 3);
+
+        private final LongAdder sucessos = new LongAdder();
+
+        private final LongAdder recusadas = new LongAdder();
+
+        private final LongAdder erros = new LongAdder();
+    }
+
+    private static final class Resultado {
+
+        private final Medicao bem = new Medicao();
+
+        private final Medicao ruidoso = new Medicao();
+    }
+
+    @DisplayName("Teste de sobrecarga comparando o p99 de um cliente bem-comportado com e sem controle de admissão")
+    @Test
+    void testP99EstavelComAdmissao() throws Exception {
+        executarCenario("aquecimento", true, taxaRuidoso, aquecimentoSegundos);
+        Resultado comAdmissao = executarCenario("com", true, taxaRuidoso, duracaoSegundos);
+        Resultado semAdmissao = executarCenario("sem", false, taxaRuidoso, duracaoSegundos);
+
+        System.out.println();
+        System.out.printf("Sobrecarga: bem-comportado %.0f req/s, ruidoso %.0f req/s, limite por cliente %s req/s, mix %s, %d s%n", taxaBem,
+                taxaRuidoso, taxaCliente, mix, duracaoSegundos);
+        System.out.printf("%-14s %-14s %10s %8s %8s %8s %10s %10s %10s%n", "cenario", "cliente", "ok/s", "429", "erros", "% ok",
+                "p50 (ms)", "p99 (ms)", "max (ms)");
+        imprimir("sem admissao", semAdmissao);
+        imprimir("com admissao", comAdmissao);
+
+        double p99Sem = ms(semAdmissao.bem.latencias.getValueAtPercentile(99));
+        double p99Com = ms(comAdmissao.bem.latencias.getValueAtPercentile(99));
+        // Sem sobrecarga a comparação não diz nada: a taxa do ruidoso precisa passar da capacidade desta máquina.
+        assertTrue(p99Sem > orcamentoP99Ms, String.format("Sem admissão o p99 foi de %.2f ms, dentro do orçamento: a carga não sobrecarregou a "
+                + "aplicação; suba -Dcarga.admissao.taxaRuidoso", p99Sem));
+        assertAll("p99 do cliente bem-comportado",
+                () -> assertTrue(p99Com <= orcamentoP99Ms, String.format("p99 com admissão de %.2f ms acima de %.2f ms", p99Com,
+                        orcamentoP99Ms)),
+                () -> assertTrue(p99Com < p99Sem, String.format("p99 com admissão (%.2f ms) não ficou abaixo do p99 sem (%.2f ms)", p99Com,
+                        p99Sem)));
+    }
+
+    private Resultado executarCenario(String nome, boolean admissao, double taxaDoRuidoso, int duracao) throws Exception {
+        // Argumentos de linha de comando, e não properties() do builder: essas são só padrões e perderiam para o application.properties.
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(TesteunitarioApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:admissao-" + nome,
+                "--spring.jpa.show-sql=false",
+                "--empregados.admissao.habilitada=" + admissao,
+                "--empregados.admissao.taxa-cliente=" + taxaCliente,
+                "--empregados.admissao.rajada-cliente=" + taxaCliente);
+        ExecutorService threadsCliente = Executors.newFixedThreadPool(4);
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(threadsCliente)
+                .build();
+        try {
+            String base = "http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            long[] ids = popular(cliente, base);
+            Resultado resultado = new Resultado();
+            Operacao[] sorteio = sorteador();
+            long inicio = System.nanoTime();
+            Thread ruidoso = new Thread(() -> disparar(cliente, base, "ruidoso", taxaDoRuidoso, sorteio, ids, inicio, duracao,
+                    resultado.ruidoso), "carga-ruidoso");
+            if (taxaDoRuidoso > 0) {
+                ruidoso.start();
+            }
+            disparar(cliente, base, "bem-comportado", taxaBem, sorteio, ids, inicio, duracao, resultado.bem);
+            ruidoso.join();
+            return resultado;
+        } finally {
+            threadsCliente.shutdownNow();
+            contexto.close();
+        }
+    }
+
+    private enum Operacao {
+        POST, GET, PUT
+    }
+
+    private long[] popular(HttpClient cliente, String base) throws Exception {
+        StringBuilder corpo = new StringBuilder("[");
+        for (int i = 0; i < EMPREGADOS_INICIAIS; i++) {
+            corpo.append(i == 0 ? "" : ",").append(corpoEmpregado());
+        }
+        HttpResponse<String> resposta = cliente.send(requisicao(base + "/api/empregados/batch", "carga")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo.append("]").toString())).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, resposta.statusCode());
+        String primeiro = resposta.body().substring(resposta.body().indexOf("\"id\":") + 5);
+        String ultimo = resposta.body().substring(resposta.body().lastIndexOf("\"id\":") + 5);
+        return new long[] {lerNumero(primeiro), lerNumero(ultimo)};
+    }
+
+    // Mesmo agendamento de EmpregadoCargaTest: horário previsto = inicio + i / taxa, sem esperar as respostas anteriores.
+    private void disparar(HttpClient cliente, String base, String nome, double taxa, Operacao[] sorteio, long[] ids, long inicio,
+            int duracao, Medicao medicao) {
+        Semaphore emAndamento = new Semaphore(MAXIMO_EM_ANDAMENTO);
+        long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / taxa);
+        long total = TimeUnit.SECONDS.toNanos(duracao);
+
+        for (long i = 0; i * intervalo < total; i++) {
+            long previsto = inicio + i * intervalo;
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+
+            if (!emAndamento.tryAcquire()) {
+                medicao.erros.increment();
+                continue;
+            }
+            Operacao operacao = sorteio[ThreadLocalRandom.current().nextInt(sorteio.length)];
+            enviar(cliente, base, nome, operacao, ids).whenComplete((status, ex) -> {
+                emAndamento.release();
+                if (ex == null && status == 429) {
+                    medicao.recusadas.increment();
+                    return;
+                }
+                medicao.latencias.recordValue(Math.min(System.nanoTime() - previsto, TimeUnit.SECONDS.toNanos(60)));
+                if (ex == null && status < 500) {
+                    medicao.sucessos.increment();
+                } else {
+                    medicao.erros.increment();
+                }
+            });
+        }
+        try {
+            emAndamento.tryAcquire(MAXIMO_EM_ANDAMENTO, TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Integer> enviar(HttpClient cliente, String base, String nome, Operacao operacao, long[] ids) {
+        HttpRequest.Builder requisicao;
+        long id = ThreadLocalRandom.current().nextLong(ids[0], ids[1] + 1);
+        switch (operacao) {
+            case POST:
+                requisicao = requisicao(base + "/api/empregados", nome).POST(HttpRequest.BodyPublishers.ofString(corpoEmpregado()));
+                break;
+            case GET:
+                requisicao = requisicao(base + "/api/empregados/" + id, nome).GET();
+                break;
+            default:
+                requisicao = requisicao(base + "/api/empregados/" + id, nome).PUT(HttpRequest.BodyPublishers.ofString(corpoEmpregado()));
+        }
+        return cliente.sendAsync(requisicao.build(), HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private HttpRequest.Builder requisicao(String url, String nome) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header(AdmissaoFilter.CABECALHO_CLIENTE, nome);
+    }
+
+    private String corpoEmpregado() {
+        return "{\"nome\":\"Carga\",\"sobrenome\":\"Admissao\",\"email\":\"admissao" + sequenciaEmails.incrementAndGet() + "@gmail.com\"}";
+    }
+
+    private static long lerNumero(String texto) {
+        int fim = 0;
+        while (fim < texto.length() && Character.isDigit(texto.charAt(fim))) {
+            fim++;
+        }
+        return Long.parseLong(texto.substring(0, fim));
+    }
+
+    // "POST:40,GET:30" vira um vetor com 40 POST e 30 GET; sortear uma posição respeita os pesos.
+    private Operacao[] sorteador() {
+        List<Operacao> sorteio = new ArrayList<>();
+        for (String parte : mix.split(",")) {
+            String[] pesoOperacao = parte.trim().split(":");
+            Operacao operacao = Operacao.valueOf(pesoOperacao[0].trim().toUpperCase());
+            for (int i = 0; i < Integer.parseInt(pesoOperacao[1].trim()); i++) {
+                sorteio.add(operacao);
+            }
+        }
+        return sorteio.toArray(new Operacao[0]);
+    }
+
+    private void imprimir(String cenario, Resultado resultado) {
+        imprimirLinha(cenario, "bem-comportado", resultado.bem);
+        imprimirLinha(cenario, "ruidoso", resultado.ruidoso);
+    }
+
+    private void imprimirLinha(String cenario, String cliente, Medicao medicao) {
+        long requisicoes = medicao.sucessos.sum() + medicao.recusadas.sum() + medicao.erros.sum();
+        Histogram latencias = medicao.latencias;
+        System.out.printf("%-14s %-14s %10.1f %8d %8d %7.2f%% %10.2f %10.2f %10.2f%n", cenario, cliente,
+                medicao.sucessos.sum() / (double) duracaoSegundos, medicao.recusadas.sum(), medicao.erros.sum(),
+                requisicoes == 0 ? 0 : 100.0 * medicao.sucessos.sum() / requisicoes, ms(latencias.getValueAtPercentile(50)),
+                ms(latencias.getValueAtPercentile(99)), ms(latencias.getMaxValue()));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,309 @@
+package com.daniel.testeunitario.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/* Teste de carga de ponta a ponta em /api/empregados: sobe a aplicação numa porta aleatória e dispara uma mistura de POST/GET/PUT/DELETE
+*  numa taxa fixa (modelo aberto: cada requisição sai no seu horário, sem esperar as anteriores responderem). A latência é medida a partir
+*  do horário previsto de envio, então uma fila no servidor aparece nos percentis em vez de só reduzir a taxa (coordinated omission).
+*
+*  Fica fora do build normal (tag "carga"). Para rodar:
+*  mvn test -Dgroups=carga -DexcludedGroups= -Dtest=EmpregadoCargaTest
+*  Parâmetros opcionais (padrões entre parênteses):
+*  -Dcarga.taxa (100 req/s) -Dcarga.duracao (30 s) -Dcarga.aquecimento (5 s) -Dcarga.mix (POST:20,GET:60,PUT:15,DELETE:5)
+*  Todas as requisições saem do mesmo cliente, então o controle de admissão (AdmissaoConfig) fica desligado: senão o teste mediria o limite
+*  de taxa por cliente, e não a aplicação. A admissão tem o seu próprio teste de carga (EmpregadoAdmissaoCargaTest).
+*  Orçamento, que reprova o teste quando estourado:
+*  -Dcarga.orcamento.p99Ms (250) -Dcarga.orcamento.erros (0.01 = 1%) -Dcarga.orcamento.vazao (0.95 da taxa pedida)
+**/
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:carga", "spring.jpa.show-sql=false", "empregados.admissao.habilitada=false"})
+public class EmpregadoCargaTest {
+
+    private static final int EMPREGADOS_INICIAIS = 1000;
+
+    // Limite de requisições em andamento no cliente; acima disso a requisição é contada como erro em vez de acumular memória sem fim.
+    private static final int MAXIMO_EM_ANDAMENTO = 2000;
+
+    private final double taxa = Double.parseDouble(System.getProperty("carga.taxa", "100"));
+
+    private final int duracaoSegundos = Integer.getInteger("carga.duracao", 30);
+
+    private final int aquecimentoSegundos = Integer.getInteger("carga.aquecimento", 5);
+
+    private final String mix = System.getProperty("carga.mix", "POST:20,GET:60,PUT:15,DELETE:5");
+
+    private final double orcamentoP99Ms = Double.parseDouble(System.getProperty("carga.orcamento.p99Ms", "250"));
+
+    private final double orcamentoErros = Double.parseDouble(System.getProperty("carga.orcamento.erros", "0.01"));
+
+    private final double orcamentoVazao = Double.parseDouble(System.getProperty("carga.orcamento.vazao", "0.95"));
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpClient cliente;
+
+    private final AtomicLong menorId = new AtomicLong();
+
+    private final AtomicLong maiorId = new AtomicLong();
+
+    private final AtomicLong sequenciaEmails = new AtomicLong();
+
+    private enum Operacao {
+        POST, GET, PUT, DELETE;
+
+        // Respostas esperadas: 404 e 409 vêm de disputas normais entre as próprias requisições da carga (ex.: GET de um id já removido).
+        boolean esperado(int status) {
+            switch (this) {
+                case POST:
+                    return status == 201;
+                case GET:
+                    return status == 200 || status == 404;
+                case PUT:
+                    return status == 200 || status == 404 || status == 409;
+                default:
+                    return status == 204 || status == 404;
+            }
+        }
+    }
+
+    private static final class Medicao {
+
+        private final Histogram latencias = new ConcurrentHistogram(3);
+
+        private final LongAdder erros = new LongAdder();
+    }
+
+    @DisplayName("Teste de carga com orçamento de latência, erros e vazão")
+    @Test
+    void testCargaDentroDoOrcamento() throws Exception {
+        ExecutorService threadsCliente = Executors.newFixedThreadPool(4);
+        cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(threadsCliente)
+                .build();
+        try {
+            popular();
+            Map<Operacao, Medicao> medicoes = disparar(sortedor());
+            imprimir(medicoes);
+            verificarOrcamento(medicoes);
+        } finally {
+            threadsCliente.shutdownNow();
+        }
+    }
+
+    private void popular() throws Exception {
+        List<Empregado> empregados = new ArrayList<>(EMPREGADOS_INICIAIS);
+        for (int i = 0; i < EMPREGADOS_INICIAIS; i++) {
+            empregados.add(Empregado.builder().nome("Nome" + i).sobrenome("Sobrenome" + i).email(novoEmail()).build());
+        }
+        HttpResponse<String> resposta = cliente.send(requisicao("/api/empregados/batch")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(empregados))).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, resposta.statusCode());
+
+        JsonNode criados = objectMapper.readTree(resposta.body());
+        menorId.set(criados.get(0).get("id").asLong());
+        maiorId.set(criados.get(criados.size() - 1).get("id").asLong());
+    }
+
+    // Cada requisição tem um horário previsto (inicio + i / taxa); as do aquecimento são enviadas, mas não entram na medição.
+    private Map<Operacao, Medicao> disparar(Operacao[] sorteio) throws InterruptedException {
+        Map<Operacao, Medicao> medicoes = new EnumMap<>(Operacao.class);
+        for (Operacao operacao : Operacao.values()) {
+            medicoes.put(operacao, new Medicao());
+        }
+        Semaphore emAndamento = new Semaphore(MAXIMO_EM_ANDAMENTO);
+        long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / taxa);
+        long aquecimento = TimeUnit.SECONDS.toNanos(aquecimentoSegundos);
+        long total = aquecimento + TimeUnit.SECONDS.toNanos(duracaoSegundos);
+
+        long inicio = System.nanoTime();
+        for (long i = 0; i * intervalo < total; i++) {
+            long previsto = inicio + i * intervalo;
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+
+            Operacao operacao = sorteio[ThreadLocalRandom.current().nextInt(sorteio.length)];
+            Medicao medicao = i * intervalo >= aquecimento ? medicoes.get(operacao) : null;
+            if (!emAndamento.tryAcquire()) {
+                if (medicao != null) {
+                    medicao.erros.increment();
+                }
+                continue;
+            }
+            enviar(operacao).whenComplete((status, ex) -> {
+                emAndamento.release();
+                if (medicao == null) {
+                    return;
+                }
+                if (ex != null || !operacao.esperado(status)) {
+                    medicao.erros.increment();
+                } else {
+                    medicao.latencias.recordValue(System.nanoTime() - previsto);
+                }
+            });
+        }
+
+        if (!emAndamento.tryAcquire(MAXIMO_EM_ANDAMENTO, 30, TimeUnit.SECONDS)) {
+            System.out.println("Requisições ainda em andamento após 30 s: " + (MAXIMO_EM_ANDAMENTO - emAndamento.availablePermits()));
+        }
+        return medicoes;
+    }
+
+    private CompletableFuture<Integer> enviar(Operacao operacao) {
+        HttpRequest.Builder requisicao;
+        switch (operacao) {
+            case POST:
+                requisicao = requisicao("/api/empregados").POST(corpoEmpregado());
+                break;
+            case GET:
+                requisicao = requisicao("/api/empregados/" + idAleatorio()).GET();
+                break;
+            case PUT:
+                requisicao = requisicao("/api/empregados/" + idAleatorio()).PUT(corpoEmpregado());
+                break;
+            default:
+                requisicao = requisicao("/api/empregados/" + idAleatorio()).DELETE();
+        }
+
+        HttpResponse.BodyHandler<String> corpo = HttpResponse.BodyHandlers.ofString();
+        return cliente.sendAsync(requisicao.build(), corpo).thenApply(resposta -> {
+            if (operacao == Operacao.POST && resposta.statusCode() == 201) {
+                long id = lerId(resposta.body());
+                maiorId.accumulateAndGet(id, Math::max);
+            }
+            return resposta.statusCode();
+        });
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher corpoEmpregado() {
+        String email = novoEmail();
+        return HttpRequest.BodyPublishers.ofString("{\"nome\":\"Carga\",\"sobrenome\":\"Teste\",\"email\":\"" + email + "\"}");
+    }
+
+    private String novoEmail() {
+        return "carga" + sequenciaEmails.incrementAndGet() + "@gmail.com";
+    }
+
+    private long idAleatorio() {
+        return ThreadLocalRandom.current().nextLong(menorId.get(), maiorId.get() + 1);
+    }
+
+    private long lerId(String corpo) {
+        try {
+            return objectMapper.readTree(corpo).get("id").asLong();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    // "POST:20,GET:60" vira um vetor com 20 POST e 60 GET; sortear uma posição respeita os pesos.
+    private Operacao[] sortedor() {
+        List<Operacao> sorteio = new ArrayList<>();
+        for (String parte : mix.split(",")) {
+            String[] pesoOperacao = parte.trim().split(":");
+            Operacao operacao = Operacao.valueOf(pesoOperacao[0].trim().toUpperCase());
+            for (int i = 0; i < Integer.parseInt(pesoOperacao[1].trim()); i++) {
+                sorteio.add(operacao);
+            }
+        }
+        return sorteio.toArray(new Operacao[0]);
+    }
+
+    private Medicao somar(Map<Operacao, Medicao> medicoes) {
+        Medicao total = new Medicao();
+        for (Medicao medicao : medicoes.values()) {
+            total.latencias.add(medicao.latencias);
+            total.erros.add(medicao.erros.sum());
+        }
+        return total;
+    }
+
+    private void imprimir(Map<Operacao, Medicao> medicoes) {
+        System.out.println();
+        System.out.printf("Carga: %.0f req/s por %d s (aquecimento de %d s), mix %s%n", taxa, duracaoSegundos, aquecimentoSegundos, mix);
+        System.out.printf("%-8s %10s %8s %9s %10s %10s %10s %10s %10s%n",
+                "operacao", "req/s", "erros", "% erros", "p50 (ms)", "p90 (ms)", "p99 (ms)", "p99.9 (ms)", "max (ms)");
+        for (Map.Entry<Operacao, Medicao> entrada : medicoes.entrySet()) {
+            imprimirLinha(entrada.getKey().name(), entrada.getValue());
+        }
+        imprimirLinha("total", somar(medicoes));
+    }
+
+    private void imprimirLinha(String nome, Medicao medicao) {
+        Histogram latencias = medicao.latencias;
+        long requisicoes = latencias.getTotalCount() + medicao.erros.sum();
+        System.out.printf("%-8s %10.1f %8d %8.2f%% %10.2f %10.2f %10.2f %10.2f %10.2f%n", nome,
+                latencias.getTotalCount() / (double) duracaoSegundos, medicao.erros.sum(),
+                requisicoes == 0 ? 0 : 100.0 * medicao.erros.sum() / requisicoes,
+                ms(latencias.getValueAtPercentile(50)), ms(latencias.getValueAtPercentile(90)), ms(latencias.getValueAtPercentile(99)),
+                ms(latencias.getValueAtPercentile(99.9)), ms(latencias.getMaxValue()));
+    }
+
+    private void verificarOrcamento(Map<Operacao, Medicao> medicoes) {
+        Medicao total = somar(medicoes);
+        long requisicoes = total.latencias.getTotalCount() + total.erros.sum();
+        double taxaErros = requisicoes == 0 ? 1 : total.erros.sum() / (double) requisicoes;
+        double p99Ms = ms(total.latencias.getValueAtPercentile(99));
+        double vazao = total.latencias.getTotalCount() / (double) duracaoSegundos;
+
+        assertAll("orçamento da carga",
+                () -> assertTrue(p99Ms <= orcamentoP99Ms, String.format("p99 de %.2f ms acima de %.2f ms", p99Ms, orcamentoP99Ms)),
+                () -> assertTrue(taxaErros <= orcamentoErros, String.format("%.2f%% de erros acima de %.2f%%", taxaErros * 100,
+                        orcamentoErros * 100)),
+                () -> assertTrue(vazao >= taxa * orcamentoVazao, String.format("vazão de %.1f req/s abaixo de %.1f req/s", vazao,
+                        taxa * orcamentoVazao)));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
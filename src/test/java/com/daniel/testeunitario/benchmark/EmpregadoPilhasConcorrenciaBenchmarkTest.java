@@ -0,0 +1,176 @@
+package com.daniel.testeunitario.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.daniel.testeunitario.TesteunitarioApplication;
+import com.daniel.testeunitario.model.Empregado;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.LoopResources;
+
+/* Compara a pilha bloqueante (Spring MVC + JPA no Tomcat) com a reativa (perfil "reactive": WebFlux + R2DBC no Netty) sob a mesma carga:
+*  muitas requisições GET /api/empregados/{id} simultâneas. O Tomcat é limitado a poucas threads para mostrar o efeito de uma thread por
+*  requisição; o Netty usa as threads do event loop (uma por núcleo).
+*
+*  Fica fora do build normal (tag "benchmark"). Para rodar:
+*  mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=EmpregadoPilhasConcorrenciaBenchmarkTest
+*  Parâmetros opcionais: -Dbenchmark.requisicoes=20000 -Dbenchmark.concorrencia=256 -Dbenchmark.threadsTomcat=16
+*
+*  Observação: o r2dbc-h2 executa as consultas no próprio H2 embarcado, então a vantagem da pilha reativa aparece mais com um banco remoto,
+*  onde a espera de rede deixa de prender uma thread por requisição.
+**/
+@Tag("benchmark")
+public class EmpregadoPilhasConcorrenciaBenchmarkTest {
+
+    private static final int EMPREGADOS = 1000;
+
+    private final int requisicoes = Integer.getInteger("benchmark.requisicoes", 20000);
+
+    private final int concorrencia = Integer.getInteger("benchmark.concorrencia", 256);
+
+    private final int threadsTomcat = Integer.getInteger("benchmark.threadsTomcat", 16);
+
+    @DisplayName("Benchmark de concorrência: Spring MVC + JPA x WebFlux + R2DBC")
+    @Test
+    void testCompararPilhas() {
+        Resultado bloqueante = medir("mvc", new String[] {
+                "--server.tomcat.threads.max=" + threadsTomcat,
+                "--spring.datasource.url=jdbc:h2:mem:benchmark_mvc"});
+        Resultado reativa = medir("reactive", new String[] {
+                "--spring.profiles.active=reactive",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark_reativo",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///benchmark_reativo"});
+
+        System.out.println();
+        System.out.printf("%-10s %12s %10s %10s %10s %8s%n", "pilha", "req/s", "p50 (ms)", "p99 (ms)", "max (ms)", "erros");
+        bloqueante.imprimir();
+        reativa.imprimir();
+
+        assertEquals(0, bloqueante.erros);
+        assertEquals(0, reativa.erros);
+    }
+
+    private Resultado medir(String pilha, String[] argumentos) {
+        List<String> args = new ArrayList<>(Arrays.asList(argumentos));
+        args.add("--server.port=0");
+        args.add("--spring.jpa.show-sql=false");
+        args.add("--spring.devtools.restart.enabled=false");
+        args.add("--logging.level.root=WARN");
+
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(TesteunitarioApplication.class)
+                .run(args.toArray(new String[0]))) {
+            // O cliente tem event loop próprio; com o padrão ele dividiria as threads com o servidor Netty da pilha reativa.
+            LoopResources threadsCliente = LoopResources.create("benchmark-cliente");
+            try {
+                WebClient cliente = WebClient.builder()
+                        .baseUrl("http://localhost:" + contexto.getEnvironment().getProperty("local.server.port"))
+                        .clientConnector(new ReactorClientHttpConnector(HttpClient.create().runOn(threadsCliente)))
+                        .build();
+                List<Long> ids = popular(cliente);
+
+                // Aquecimento (JIT, pools de conexão) antes da medição
+                disparar(cliente, ids, requisicoes / 10);
+                return disparar(cliente, ids, requisicoes).comPilha(pilha);
+            } finally {
+                threadsCliente.disposeLater().block(Duration.ofSeconds(10));
+            }
+        }
+    }
+
+    private List<Long> popular(WebClient cliente) {
+        List<Empregado> empregados = new ArrayList<>(EMPREGADOS);
+        for (int i = 0; i < EMPREGADOS; i++) {
+            empregados.add(Empregado.builder().nome("Nome" + i).sobrenome("Sobrenome" + i).email("benchmark" + i + "@gmail.com").build());
+        }
+        List<Long> ids = new ArrayList<>(EMPREGADOS);
+        cliente.post().uri("/api/empregados/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(empregados)
+                .retrieve()
+                .bodyToFlux(Empregado.class)
+                .doOnNext(empregado -> ids.add(empregado.getId()))
+                .blockLast(Duration.ofMinutes(1));
+        return ids;
+    }
+
+    // O cliente é não bloqueante: "concorrencia" requisições ficam em andamento ao mesmo tempo, sem uma thread por requisição no cliente.
+    private Resultado disparar(WebClient cliente, List<Long> ids, int quantidade) {
+        long[] latencias = new long[quantidade];
+        AtomicInteger indice = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        Flux.range(0, quantidade)
+                .flatMap(i -> {
+                    long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                    long enviado = System.nanoTime();
+                    return cliente.get().uri("/api/empregados/{id}", id)
+                            .retrieve()
+                            .toBodilessEntity()
+                            .doOnSuccess(resposta -> latencias[indice.getAndIncrement()] = System.nanoTime() - enviado)
+                            .onErrorResume(ex -> {
+                                erros.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, concorrencia)
+                .blockLast(Duration.ofMinutes(5));
+        long duracao = System.nanoTime() - inicio;
+
+        long[] medidas = Arrays.copyOf(latencias, indice.get());
+        Arrays.sort(medidas);
+        return new Resultado(quantidade * 1_000_000_000.0 / duracao, medidas, erros.get());
+    }
+
+    private static final class Resultado {
+
+        private final double requisicoesPorSegundo;
+
+        private final long[] latenciasOrdenadas;
+
+        private final int erros;
+
+        private String pilha;
+
+        private Resultado(double requisicoesPorSegundo, long[] latenciasOrdenadas, int erros) {
+            this.requisicoesPorSegundo = requisicoesPorSegundo;
+            this.latenciasOrdenadas = latenciasOrdenadas;
+            this.erros = erros;
+        }
+
+        private Resultado comPilha(String pilha) {
+            this.pilha = pilha;
+            return this;
+        }
+
+        private double percentilMs(double percentil) {
+            if (latenciasOrdenadas.length == 0) {
+                return 0;
+            }
+            int posicao = (int) Math.ceil(percentil / 100.0 * latenciasOrdenadas.length) - 1;
+            return latenciasOrdenadas[Math.max(0, posicao)] / 1_000_000.0;
+        }
+
+        private void imprimir() {
+            System.out.printf("%-10s %12.0f %10.2f %10.2f %10.2f %8d%n", pilha, requisicoesPorSegundo, percentilMs(50), percentilMs(99),
+                    percentilMs(100), erros);
+        }
+    }
+}
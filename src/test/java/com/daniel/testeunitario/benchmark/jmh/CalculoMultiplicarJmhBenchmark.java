@@ -0,0 +1,48 @@
+package com.daniel.testeunitario.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.daniel.testeunitario.examples.ServiceAImpl;
+import com.daniel.testeunitario.examples.ServiceBImpl;
+
+/* ServiceBImpl.calculoMultiplicar com o ServiceAImpl real. Os números ficam em campos (e não em constantes) para o JIT não dobrar a conta
+*  em tempo de compilação.
+**/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CalculoMultiplicarJmhBenchmark {
+
+    private int num1 = 2;
+
+    private int num2 = 3;
+
+    private int multiplicador = 4;
+
+    private ServiceBImpl serviceB;
+
+    @Setup
+    public void iniciar() {
+        serviceB = new ServiceBImpl();
+        serviceB.setServiceA(new ServiceAImpl());
+    }
+
+    @Benchmark
+    public int calculoMultiplicar() {
+        return serviceB.calculoMultiplicar(num1, num2, multiplicador);
+    }
+}
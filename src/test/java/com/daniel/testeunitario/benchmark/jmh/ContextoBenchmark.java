@@ -0,0 +1,40 @@
+package com.daniel.testeunitario.benchmark.jmh;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.daniel.testeunitario.TesteunitarioApplication;
+import com.daniel.testeunitario.service.support.FiltroBloomEmails;
+
+/* Sobe a aplicação sem servidor web, com um H2 em memória só do benchmark, e popula a tabela direto por SQL (INSERT ... SELECT), que é
+*  muito mais rápido que passar pelo Hibernate quando são milhões de linhas.
+**/
+final class ContextoBenchmark {
+
+    private static final int ALOCACAO_SEQUENCE = 50;
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String banco) {
+        return new SpringApplicationBuilder(TesteunitarioApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + banco,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN");
+    }
+
+    /* Empregados com ids de 1 a linhas e emails jmh<id>@gmail.com. O otimizador pooled do Hibernate (allocationSize = 50) usa o valor da
+    *  sequence como o fim do bloco de ids, por isso ela recomeça em linhas + 50.
+    **/
+    static void popular(ConfigurableApplicationContext contexto, int linhas) {
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into empregados (id, nome, sobrenome, email, versao) "
+                + "select x, 'Nome' || x, 'Sobrenome' || x, 'jmh' || x || '@gmail.com', 0 from system_range(1, ?)", linhas);
+        jdbcTemplate.execute("alter sequence empregados_seq restart with " + (linhas + ALOCACAO_SEQUENCE));
+        contexto.getBean(FiltroBloomEmails.class).reconstruir();
+    }
+}
@@ -0,0 +1,56 @@
+package com.daniel.testeunitario.benchmark.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.EmpregadoService;
+
+/* getAllEmpregados com a tabela em tamanhos diferentes. Com 1 milhão de linhas a lista inteira fica no heap, por isso o fork tem -Xmx2g. **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class EmpregadoFindAllJmhBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int linhas;
+
+    private ConfigurableApplicationContext contexto;
+
+    private EmpregadoService empregadoService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar("jmh_findall_" + linhas);
+        ContextoBenchmark.popular(contexto, linhas);
+        empregadoService = contexto.getBean(EmpregadoService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Empregado> getAllEmpregados() {
+        return empregadoService.getAllEmpregados();
+    }
+}
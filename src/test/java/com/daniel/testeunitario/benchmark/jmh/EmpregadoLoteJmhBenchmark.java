@@ -0,0 +1,86 @@
+package com.daniel.testeunitario.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.EmpregadoService;
+
+/* Vazão de criação de empregados (empregados por segundo), numa tabela que começa com 10 mil: o POST /api/empregados/batch
+*  (salvarEmpregadosEmLote: uma transação, INSERTs em lotes JDBC) contra o mesmo número de chamadas a salvarEmpregado (uma transação e um
+*  INSERT por empregado). Cada invocação cria QUANTIDADE empregados com emails novos.
+**/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 8, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmpregadoLoteJmhBenchmark {
+
+    private static final int EMPREGADOS = 10_000;
+
+    private static final int QUANTIDADE = 500;
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private ConfigurableApplicationContext contexto;
+
+    private EmpregadoService empregadoService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar("jmh_lote");
+        ContextoBenchmark.popular(contexto, EMPREGADOS);
+        empregadoService = contexto.getBean(EmpregadoService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE)
+    public List<Empregado> emLote() {
+        return empregadoService.salvarEmpregadosEmLote(novosEmpregados());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUANTIDADE)
+    public List<Empregado> umPorUm() {
+        List<Empregado> salvos = new ArrayList<>(QUANTIDADE);
+        for (Empregado empregado : novosEmpregados()) {
+            salvos.add(empregadoService.salvarEmpregado(empregado));
+        }
+        return salvos;
+    }
+
+    private List<Empregado> novosEmpregados() {
+        List<Empregado> empregados = new ArrayList<>(QUANTIDADE);
+        for (int i = 0; i < QUANTIDADE; i++) {
+            empregados.add(Empregado.builder()
+                    .nome("Daniel")
+                    .sobrenome("Penelva")
+                    .email("lote" + sequencia.incrementAndGet() + "@gmail.com").build());
+        }
+        return empregados;
+    }
+}
@@ -0,0 +1,78 @@
+package com.daniel.testeunitario.benchmark.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.daniel.testeunitario.dto.FiltroEmpregados;
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.dto.PaginaFiltroEmpregados;
+import com.daniel.testeunitario.service.EmpregadoService;
+
+/* Custo de uma página de 100 empregados em profundidades diferentes de uma tabela com 500 mil linhas ("profundidade" é a fração da
+*  tabela já percorrida: 0 é a primeira página, 0.99 é perto da última).
+*
+*  - porCursor: GET /api/empregados?after=<id>&limit=100, WHERE id > ? ORDER BY id; deve custar o mesmo em qualquer profundidade.
+*  - porOffset: a mesma página pelo filtro sem critérios (OFFSET), que precisa pular todas as linhas anteriores; é a referência.
+**/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 6, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmpregadoPaginacaoJmhBenchmark {
+
+    private static final int LINHAS = 500_000;
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    @Param({"0", "0.5", "0.99"})
+    private double profundidade;
+
+    private ConfigurableApplicationContext contexto;
+
+    private EmpregadoService empregadoService;
+
+    private long cursor;
+
+    private int pagina;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar("jmh_paginacao");
+        ContextoBenchmark.popular(contexto, LINHAS);
+        empregadoService = contexto.getBean(EmpregadoService.class);
+        // Os ids vão de 1 a LINHAS, então o cursor da página na profundidade pedida é o próprio número de linhas já percorridas.
+        cursor = (long) (LINHAS * profundidade);
+        pagina = (int) (cursor / TAMANHO_PAGINA);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public PaginaEmpregados porCursor() {
+        return empregadoService.getEmpregadosPorCursor(cursor, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public PaginaFiltroEmpregados porOffset() {
+        return empregadoService.filtrarEmpregados(new FiltroEmpregados(), pagina, TAMANHO_PAGINA);
+    }
+}
@@ -0,0 +1,104 @@
+package com.daniel.testeunitario.benchmark.jmh;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.exception.ResourceNotFoundException;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+import com.daniel.testeunitario.service.EmpregadoService;
+
+/* Operações individuais do EmpregadoService sobre uma tabela com 10 mil empregados. Os serviços são os beans do Spring, com cache,
+*  transações e métricas, como em produção.
+**/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmpregadoServiceJmhBenchmark {
+
+    private static final int EMPREGADOS = 10_000;
+
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private ConfigurableApplicationContext contexto;
+
+    private EmpregadoService empregadoService;
+
+    private EmpregadoRepository empregadoRepository;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar("jmh_servico");
+        ContextoBenchmark.popular(contexto, EMPREGADOS);
+        empregadoService = contexto.getBean(EmpregadoService.class);
+        empregadoRepository = contexto.getBean(EmpregadoRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Empregado salvarEmpregadoComEmailNovo() {
+        return empregadoService.salvarEmpregado(Empregado.builder()
+                .nome("Daniel")
+                .sobrenome("Penelva")
+                .email("novo" + sequencia.incrementAndGet() + "@gmail.com").build());
+    }
+
+    // O email já existe: mede o caminho da rejeição (filtro de Bloom diz "talvez" e a consulta por email confirma).
+    @Benchmark
+    public Object salvarEmpregadoComEmailRepetido() {
+        try {
+            return empregadoService.salvarEmpregado(Empregado.builder()
+                    .nome("Daniel")
+                    .sobrenome("Penelva")
+                    .email("jmh" + idAleatorio() + "@gmail.com").build());
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+
+    // Pelo serviço: depois do aquecimento quase todas as buscas são acertos do cache.
+    @Benchmark
+    public Optional<Empregado> getEmpregadoById() {
+        return empregadoService.getEmpregadoById(idAleatorio());
+    }
+
+    // Leitura que não passa pelo cache: uma página de 50 empregados a partir de um id aleatório.
+    @Benchmark
+    public PaginaEmpregados getEmpregadosPorCursor() {
+        return empregadoService.getEmpregadosPorCursor(idAleatorio() - 1, 50);
+    }
+
+    // Direto no repositório: sempre um SELECT por chave primária.
+    @Benchmark
+    public Optional<Empregado> findByIdNoBanco() {
+        return empregadoRepository.findById(idAleatorio());
+    }
+
+    private long idAleatorio() {
+        return ThreadLocalRandom.current().nextLong(1, EMPREGADOS + 1);
+    }
+}
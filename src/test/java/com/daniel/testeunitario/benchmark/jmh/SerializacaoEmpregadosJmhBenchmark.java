@@ -0,0 +1,51 @@
+package com.daniel.testeunitario.benchmark.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/* Serialização com Jackson de listas de Empregado, como no corpo de GET /api/empregados. Não precisa do contexto do Spring. **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializacaoEmpregadosJmhBenchmark {
+
+    @Param({"100", "10000"})
+    private int tamanho;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Empregado> empregados;
+
+    @Setup
+    public void iniciar() {
+        empregados = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            empregados.add(new Empregado((long) i, "Nome" + i, "Sobrenome" + i, "jmh" + i + "@gmail.com", 0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(empregados);
+    }
+}
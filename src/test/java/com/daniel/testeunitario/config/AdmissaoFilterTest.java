@@ -0,0 +1,113 @@
+package com.daniel.testeunitario.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.daniel.testeunitario.service.support.BaldesTokensClientes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AdmissaoFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdmissaoFilter filtro = new AdmissaoFilter(new BaldesTokensClientes(1, 2, 16), false, List.of("/api/empregados/export"),
+            meterRegistry);
+
+    @DisplayName("Teste para responder 429 com Retry-After quando o cliente esgota as fichas")
+    @Test
+    void testRecusarClienteSemFichas() throws Exception {
+
+        // given
+        for (int i = 0; i < 2; i++) {
+            filtro.doFilter(requisicao("integracao-a"), new MockHttpServletResponse(), new MockFilterChain());
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain cadeia = new MockFilterChain();
+        MockFilterChain cadeiaOutroCliente = new MockFilterChain();
+
+        // when
+        filtro.doFilter(requisicao("integracao-a"), response, cadeia);
+        filtro.doFilter(requisicao("integracao-b"), new MockHttpServletResponse(), cadeiaOutroCliente);
+
+        // then
+        assertNull(cadeia.getRequest());
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNotNull(cadeiaOutroCliente.getRequest());
+        assertEquals(1, meterRegistry.counter("empregados.admissao.recusadas", "motivo", "taxa").count());
+    }
+
+    @DisplayName("Teste para não aplicar o balde de fichas a requisições sem X-Client-Id")
+    @Test
+    void testAdmitirSemCabecalhoDoCliente() throws Exception {
+
+        // given
+        MockFilterChain cadeia = new MockFilterChain();
+        for (int i = 0; i < 2; i++) {
+            filtro.doFilter(requisicao(null), new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        // when
+        filtro.doFilter(requisicao(null), new MockHttpServletResponse(), cadeia);
+
+        // then
+        assertNotNull(cadeia.getRequest());
+        assertEquals(0, meterRegistry.counter("empregados.admissao.recusadas", "motivo", "taxa").count());
+    }
+
+    @DisplayName("Teste para usar o endereço de origem como cliente quando cliente-por-endereco está ligado")
+    @Test
+    void testRecusarPorEnderecoDeOrigem() throws Exception {
+
+        // given
+        AdmissaoFilter porEndereco = new AdmissaoFilter(new BaldesTokensClientes(1, 2, 16), true, List.of(), new SimpleMeterRegistry());
+        for (int i = 0; i < 2; i++) {
+            porEndereco.doFilter(requisicao(null), new MockHttpServletResponse(), new MockFilterChain());
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        porEndereco.doFilter(requisicao(null), response, new MockFilterChain());
+
+        // then
+        assertEquals(429, response.getStatus());
+    }
+
+    @DisplayName("Teste para deixar a exportação fora da admissão")
+    @Test
+    void testIgnorarCaminhoExcluido() throws Exception {
+
+        // given
+        for (int i = 0; i < 2; i++) {
+            filtro.doFilter(requisicao("integracao-a"), new MockHttpServletResponse(), new MockFilterChain());
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/empregados/export");
+        request.addHeader(AdmissaoFilter.CABECALHO_CLIENTE, "integracao-a");
+        MockFilterChain cadeia = new MockFilterChain();
+
+        // when
+        filtro.doFilter(request, new MockHttpServletResponse(), cadeia);
+
+        // then
+        assertNotNull(cadeia.getRequest());
+    }
+
+    private static MockHttpServletRequest requisicao(String cliente) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/empregados/1");
+        if (cliente != null) {
+            request.addHeader(AdmissaoFilter.CABECALHO_CLIENTE, cliente);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,75 @@
+package com.daniel.testeunitario.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.EmpregadoAsyncService;
+
+@WebMvcTest(EmpregadoAsyncController.class)
+public class EmpregadoAsyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmpregadoAsyncService empregadoAsyncServiceMock;
+
+    @DisplayName("Teste para buscar empregado por id de forma assíncrona")
+    @Test
+    void testBuscarEmpregadoPorIdAssincrono() throws Exception {
+
+        // given
+        Empregado empregado = Empregado.builder().id(1L).nome("Daniel").sobrenome("Penelva").email("d4n.andrade@gmail.com").versao(0L).build();
+        given(empregadoAsyncServiceMock.getEmpregadoById(1L)).willReturn(CompletableFuture.completedFuture(Optional.of(empregado)));
+
+        // when - a requisição é iniciada em modo assíncrono e a resposta sai no dispatch seguinte
+        MvcResult resultado = mockMvc.perform(get("/api/async/empregados/{id}", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(resultado))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.nome", is(empregado.getNome())));
+    }
+
+    @DisplayName("Teste para responder 503 quando o executor recusa a operação")
+    @Test
+    void testBuscarEmpregadoPorIdComExecutorLotado() throws Exception {
+
+        // given
+        CompletableFuture<Optional<Empregado>> recusado = new CompletableFuture<>();
+        recusado.completeExceptionally(new TaskRejectedException("fila cheia"));
+        given(empregadoAsyncServiceMock.getEmpregadoById(1L)).willReturn(recusado);
+
+        // when
+        MvcResult resultado = mockMvc.perform(get("/api/async/empregados/{id}", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(resultado))
+                .andDo(print())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+}
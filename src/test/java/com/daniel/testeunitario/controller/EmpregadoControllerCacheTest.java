@@ -0,0 +1,79 @@
+package com.daniel.testeunitario.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.daniel.testeunitario.config.CacheConfig;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:controller-cache")
+@AutoConfigureMockMvc
+public class EmpregadoControllerCacheTest {
+
+    /*
+     * O cache de empregados com o banco de verdade: uma alteração feita por fora do serviço (como a de outra instância, ou uma leitura
+     * concorrente que guardou a linha antiga) deixa no cache uma versão desatualizada, e as atualizações seguintes não podem depender dela.
+     */
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmpregadoRepository empregadoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void limparCache() {
+        cacheManager.getCache(CacheConfig.CACHE_EMPREGADOS).clear();
+    }
+
+    @DisplayName("Teste para atualizar empregado sem If-Match depois de uma atualização concorrente recusada, com o cache desatualizado")
+    @Test
+    void testAtualizarEmpregadoDepoisDeAtualizacaoRecusada() throws Exception {
+
+        // given
+        Empregado empregado = empregadoRepository.save(Empregado.builder()
+                .nome("Daniel")
+                .sobrenome("Penelva")
+                .email("cache.controller@gmail.com").build());
+        mockMvc.perform(get("/api/empregados/{id}", empregado.getId())).andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+        jdbcTemplate.update("UPDATE empregados SET nome = 'Outro', versao = versao + 1 WHERE id = ?", empregado.getId());
+        mockMvc.perform(put("/api/empregados/{id}", empregado.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Recusado\",\"sobrenome\":\"Penelva\",\"email\":\"cache.controller@gmail.com\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        // when
+        mockMvc.perform(put("/api/empregados/{id}", empregado.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Daniel Up\",\"sobrenome\":\"Penelva\",\"email\":\"cache.controller@gmail.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+
+        // then
+        mockMvc.perform(get("/api/empregados/{id}", empregado.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+}
@@ -0,0 +1,194 @@
+package com.daniel.testeunitario.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.daniel.testeunitario.config.CacheConfig;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+import com.daniel.testeunitario.support.OrcamentoSql;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmpregadoControllerOrcamentoSqlTest {
+
+    /*
+     * O EmpregadoControllerTest simula o serviço; aqui a requisição vai até o banco e cada teste fixa quantos comandos SQL o endpoint executa.
+     * O MockMvc roda a requisição na thread do teste, então o OrcamentoSql enxerga a contagem.
+     */
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmpregadoRepository empregadoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Empregado salvarEmpregado() {
+
+        return empregadoRepository.save(Empregado.builder()
+                .nome("Daniel")
+                .sobrenome("Penelva")
+                .email("orcamento.api" + SEQUENCIA.incrementAndGet() + "@gmail.com").build());
+    }
+
+    @BeforeEach
+    void limparCache() {
+        cacheManager.getCache(CacheConfig.CACHE_EMPREGADOS).clear();
+    }
+
+    @DisplayName("Teste para criar empregado com um INSERT do empregado e um do evento")
+    @Test
+    void testCriarEmpregado() throws Exception {
+
+        // given
+        Empregado empregado = Empregado.builder()
+                .nome("Daniel")
+                .sobrenome("Penelva")
+                .email("orcamento.api" + SEQUENCIA.incrementAndGet() + "@gmail.com").build();
+        OrcamentoSql.zerar();
+
+        // when
+        mockMvc.perform(post("/api/empregados")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(empregado)))
+                .andExpect(status().isCreated());
+
+        // then
+        OrcamentoSql.assertComandos(0, 2, 0, 0);
+    }
+
+    @DisplayName("Teste para repetir a criação com a mesma Idempotency-Key sem nenhum comando SQL")
+    @Test
+    void testCriarEmpregadoRepetidoComIdempotencyKey() throws Exception {
+
+        // given
+        String corpo = objectMapper.writeValueAsString(Empregado.builder()
+                .nome("Daniel")
+                .sobrenome("Penelva")
+                .email("orcamento.api" + SEQUENCIA.incrementAndGet() + "@gmail.com").build());
+        String chave = "orcamento-idempotencia-" + SEQUENCIA.get();
+        mockMvc.perform(post("/api/empregados").header("Idempotency-Key", chave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo))
+                .andExpect(status().isCreated());
+        OrcamentoSql.zerar();
+
+        // when
+        mockMvc.perform(post("/api/empregados").header("Idempotency-Key", chave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo))
+                .andExpect(status().isCreated());
+
+        // then
+        OrcamentoSql.assertTotal(0);
+    }
+
+    @DisplayName("Teste para buscar empregado por id com um único SELECT")
+    @Test
+    void testBuscarEmpregadoPorId() throws Exception {
+
+        // given
+        Empregado empregado = salvarEmpregado();
+        OrcamentoSql.zerar();
+
+        // when
+        mockMvc.perform(get("/api/empregados/{id}", empregado.getId())).andExpect(status().isOk());
+
+        // then
+        OrcamentoSql.assertComandos(1, 0, 0, 0);
+    }
+
+    @DisplayName("Teste para buscar só alguns campos de um empregado com um único SELECT")
+    @Test
+    void testBuscarEmpregadoProjetadoPorId() throws Exception {
+
+        // given
+        Empregado empregado = salvarEmpregado();
+        OrcamentoSql.zerar();
+
+        // when
+        mockMvc.perform(get("/api/empregados/{id}", empregado.getId()).param("fields", "id,email")).andExpect(status().isOk());
+
+        // then
+        OrcamentoSql.assertComandos(1, 0, 0, 0);
+    }
+
+    @DisplayName("Teste para atualizar empregado por id")
+    @Test
+    void testAtualizarEmpregado() throws Exception {
+
+        // given
+        Empregado empregado = salvarEmpregado();
+        Empregado alterado = Empregado.builder().nome("Alterado").sobrenome("Penelva").email(empregado.getEmail()).build();
+        OrcamentoSql.zerar();
+
+        // when
+        mockMvc.perform(put("/api/empregados/{id}", empregado.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(alterado)))
+                .andExpect(status().isOk());
+
+        // then - com open-in-view o merge reaproveita a entidade lida na busca pelo id: só um SELECT antes do UPDATE
+        OrcamentoSql.assertComandos(1, 1, 1, 0);
+    }
+
+    @DisplayName("Teste para atualizar parcialmente empregado com um único UPDATE e o INSERT do evento")
+    @Test
+    void testAtualizarParcialmenteEmpregado() throws Exception {
+
+        // given
+        Empregado empregado = salvarEmpregado();
+        OrcamentoSql.zerar();
+
+        // when
+        mockMvc.perform(patch("/api/empregados/{id}", empregado.getId())
+                .header(HttpHeaders.IF_MATCH, "\"" + empregado.getVersao() + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Alterado\"}"))
+                .andExpect(status().isNoContent());
+
+        // then
+        OrcamentoSql.assertComandos(0, 1, 1, 0);
+    }
+
+    @DisplayName("Teste para deletar empregado com um único DELETE e o INSERT do evento")
+    @Test
+    void testDeletarEmpregado() throws Exception {
+
+        // given
+        Empregado empregado = salvarEmpregado();
+        OrcamentoSql.zerar();
+
+        // when
+        mockMvc.perform(delete("/api/empregados/{id}", empregado.getId())).andExpect(status().isNoContent());
+
+        // then
+        OrcamentoSql.assertComandos(0, 1, 0, 1);
+    }
+}
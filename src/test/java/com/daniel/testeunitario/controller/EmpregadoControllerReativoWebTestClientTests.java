@@ -0,0 +1,8 @@
+package com.daniel.testeunitario.controller;
+
+import org.springframework.test.context.ActiveProfiles;
+
+// Os mesmos testes de EmpregadoControllerWebTestClientTests, na pilha reativa (perfil "reactive": WebFlux + R2DBC).
+@ActiveProfiles("reactive")
+public class EmpregadoControllerReativoWebTestClientTests extends EmpregadoControllerWebTestClientTests {
+}
@@ -5,7 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
@@ -17,18 +20,32 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*; // métodos são usados para adicionar manipuladores de resultados às suas solicitações simuladas com `MockMvc`
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
-
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.doAnswer;
+
+import com.daniel.testeunitario.dto.FiltroEmpregados;
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.dto.PaginaFiltroEmpregados;
+import com.daniel.testeunitario.dto.ResultadoBuscaPorIds;
 import com.daniel.testeunitario.model.Empregado;
 import com.daniel.testeunitario.service.impl.EmpregadoServiceImpl;
+import com.daniel.testeunitario.service.support.RegistroIdempotencia;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-@WebMvcTest
+@WebMvcTest(EmpregadoController.class)
+@Import(RegistroIdempotencia.class)
 public class EmpregadoControllerTest {
 
     @Autowired
@@ -79,6 +96,76 @@ public class EmpregadoControllerTest {
     }
 
 
+    @DisplayName("Teste para repetir a criação com a mesma Idempotency-Key sem chamar o serviço de novo")
+    @Test
+    void testCriarEmpregadoComIdempotencyKey() throws Exception {
+
+        // given
+        Empregado empregado = criarEmpregado();
+
+        given(empregadoServiceMock.salvarEmpregado(any(Empregado.class)))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+
+        // when
+        mockMvc.perform(post("/api/empregados").header("Idempotency-Key", "chave-criacao-1")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(empregado)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        ResultActions response = mockMvc.perform(post("/api/empregados").header("Idempotency-Key", "chave-criacao-1")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(empregado)));
+
+        // then
+        response.andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.email", is(empregado.getEmail())));
+        verify(empregadoServiceMock, times(1)).salvarEmpregado(any(Empregado.class));
+    }
+
+    @DisplayName("Teste para recusar a mesma Idempotency-Key com outro empregado")
+    @Test
+    void testCriarEmpregadoComIdempotencyKeyReutilizada() throws Exception {
+
+        // given
+        Empregado empregado = criarEmpregado();
+        Empregado outroEmpregado = Empregado.builder().nome("Jão").sobrenome("Silva").email("jao@gmail.com").build();
+
+        given(empregadoServiceMock.salvarEmpregado(any(Empregado.class)))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+        mockMvc.perform(post("/api/empregados").header("Idempotency-Key", "chave-criacao-2")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(empregado)))
+                .andExpect(status().isCreated());
+
+        // when
+        ResultActions response = mockMvc.perform(post("/api/empregados").header("Idempotency-Key", "chave-criacao-2")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(outroEmpregado)));
+
+        // then
+        response.andExpect(status().isUnprocessableEntity());
+        verify(empregadoServiceMock, times(1)).salvarEmpregado(any(Empregado.class));
+    }
+
+    @DisplayName("Teste para recusar a mesma Idempotency-Key com nome nulo e depois com o texto \"null\"")
+    @Test
+    void testCriarEmpregadoComIdempotencyKeyNomeNuloETextoNull() throws Exception {
+
+        // given
+        given(empregadoServiceMock.salvarEmpregado(any(Empregado.class)))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+        mockMvc.perform(post("/api/empregados").header("Idempotency-Key", "chave-criacao-3")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"nome\":null,\"sobrenome\":\"Silva\",\"email\":\"jao@gmail.com\"}"))
+                .andExpect(status().isCreated());
+
+        // when
+        ResultActions response = mockMvc.perform(post("/api/empregados").header("Idempotency-Key", "chave-criacao-3")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"nome\":\"null\",\"sobrenome\":\"Silva\",\"email\":\"jao@gmail.com\"}"));
+
+        // then
+        response.andExpect(status().isUnprocessableEntity());
+        verify(empregadoServiceMock, times(1)).salvarEmpregado(any(Empregado.class));
+    }
+
     @DisplayName("Teste para listar empregados")
     @Test
     void testListarEmpregados() throws Exception {
@@ -204,14 +291,376 @@ public class EmpregadoControllerTest {
         // given
         Empregado empregado = criarEmpregado();
 
-       doNothing().when(empregadoServiceMock).deleteEmpregado(empregado.getId());
+       given(empregadoServiceMock.deleteEmpregado(empregado.getId())).willReturn(true);
 
         // when
         ResultActions response = mockMvc.perform(delete("/api/empregados/{id}", empregado.getId()));
 
+        //then
+        response.andExpect(status().isNoContent())
+        .andDo(print());
+    }
+
+    @DisplayName("Teste para listar empregados paginados por cursor")
+    @Test
+    void testListarEmpregadosPorCursor() throws Exception {
+
+        // given
+        List<Empregado> listaEmpregado = new ArrayList<>();
+        listaEmpregado.add(Empregado.builder().id(11L).nome("Jão").sobrenome("Silva").email("jao@gmail.com").build());
+        listaEmpregado.add(Empregado.builder().id(12L).nome("Patricia").sobrenome("Nunes").email("patricia@gmail.com").build());
+
+        given(empregadoServiceMock.getEmpregadosPorCursor(10L, 2)).willReturn(new PaginaEmpregados(listaEmpregado, 12L));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/empregados").param("after", "10").param("limit", "2"));
+
+        //then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.conteudo.size()", is(listaEmpregado.size())))
+                .andExpect(jsonPath("$.proximoCursor", is(12)));
+    }
+
+    @DisplayName("Teste para exportar empregados em NDJSON")
+    @Test
+    void testExportarEmpregados() throws Exception {
+
+        // given
+        Empregado empregado1 = criarEmpregado();
+        Empregado empregado2 = Empregado.builder().id(2L).nome("Patricia").sobrenome("Nunes").email("patricia@gmail.com").build();
+
+        doAnswer(invocation -> {
+            Consumer<Empregado> consumidor = invocation.getArgument(0);
+            consumidor.accept(empregado1);
+            consumidor.accept(empregado2);
+            return null;
+        }).when(empregadoServiceMock).exportarEmpregados(any());
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/empregados/export"));
+
         //then
         response.andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(objectMapper.writeValueAsString(empregado1) + "\n"
+                        + objectMapper.writeValueAsString(empregado2) + "\n"));
+    }
+
+    @DisplayName("Teste para criar empregados em lote")
+    @Test
+    void testCriarEmpregadosEmLote() throws Exception {
+
+        // given
+        List<Empregado> listaEmpregado = new ArrayList<>();
+        listaEmpregado.add(Empregado.builder().nome("Jão").sobrenome("Silva").email("jao@gmail.com").build());
+        listaEmpregado.add(Empregado.builder().nome("Patricia").sobrenome("Nunes").email("patricia@gmail.com").build());
+
+        given(empregadoServiceMock.salvarEmpregadosEmLote(any())).willAnswer((invocation) -> invocation.getArgument(0));
+
+        // when
+        ResultActions response = mockMvc.perform(post("/api/empregados/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(listaEmpregado)));
+
+        //then
+        response.andExpect(status().isCreated())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(listaEmpregado.size())))
+                .andExpect(jsonPath("$[1].email", is("patricia@gmail.com")));
+    }
+
+    @DisplayName("Teste para buscar vários empregados por id")
+    @Test
+    void testBuscarEmpregadosPorIds() throws Exception {
+
+        // given
+        Empregado empregado = criarEmpregado();
+
+        given(empregadoServiceMock.getEmpregadosByIds(List.of(1L, 2L)))
+                .willReturn(new ResultadoBuscaPorIds(List.of(empregado), List.of(2L)));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/empregados").param("ids", "1,2"));
+
+        //then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.empregados[0].email", is(empregado.getEmail())))
+                .andExpect(jsonPath("$.idsNaoEncontrados[0]", is(2)));
+    }
+
+    @DisplayName("Teste para buscar vários empregados com os ids no corpo da requisição")
+    @Test
+    void testBuscarEmpregadosPorIdsNoCorpo() throws Exception {
+
+        // given
+        Empregado empregado = criarEmpregado();
+
+        given(empregadoServiceMock.getEmpregadosByIds(List.of(1L)))
+                .willReturn(new ResultadoBuscaPorIds(List.of(empregado), List.of()));
+
+        // when
+        ResultActions response = mockMvc.perform(post("/api/empregados/ids")
+                .contentType(MediaType.APPLICATION_JSON).content("[1]"));
+
+        //then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.empregados.size()", is(1)))
+                .andExpect(jsonPath("$.idsNaoEncontrados.size()", is(0)));
+    }
+
+    @DisplayName("Teste para atualizar parcialmente empregado por id")
+    @Test
+    void testAtualizarParcialmenteEmpregadoPorId() throws Exception {
+
+        // given
+        given(empregadoServiceMock.atualizarParcialmente(any(Long.class), any(Empregado.class), any())).willReturn(true);
+
+        // when
+        ResultActions response = mockMvc.perform(patch("/api/empregados/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Daniel Up\"}"));
+
+        //then
+        response.andExpect(status().isNoContent())
+                .andDo(print());
+    }
+
+    @DisplayName("Teste para atualizar parcialmente empregado por id não encontrado")
+    @Test
+    void testAtualizarParcialmenteEmpregadoPorIdNaoEncontrado() throws Exception {
+
+        // given
+        given(empregadoServiceMock.atualizarParcialmente(any(Long.class), any(Empregado.class), any())).willReturn(false);
+
+        // when
+        ResultActions response = mockMvc.perform(patch("/api/empregados/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Daniel Up\"}"));
+
+        //then
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @DisplayName("Teste para atualizar parcialmente empregado por id com versão desatualizada")
+    @Test
+    void testAtualizarParcialmenteEmpregadoPorIdComVersaoDesatualizada() throws Exception {
+
+        // given
+        given(empregadoServiceMock.atualizarParcialmente(any(Long.class), any(Empregado.class), eq(3L)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Empregado.class, 1L));
+
+        // when
+        ResultActions response = mockMvc.perform(patch("/api/empregados/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Daniel Up\"}"));
+
+        //then
+        response.andExpect(status().isPreconditionFailed())
+                .andDo(print());
+    }
+
+    @DisplayName("Teste para buscar empregado por id com ETag ainda válido")
+    @Test
+    void testBuscarEmpregadoPorIdNaoModificado() throws Exception {
+
+        // given
+        Empregado empregado = Empregado.builder().id(1L).nome("Daniel").sobrenome("Penelva").email("d4n.pamplona@gmail.com").versao(2L).build();
+        given(empregadoServiceMock.getEmpregadoById(1L)).willReturn(Optional.of(empregado));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/empregados/{id}", 1L)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\""));
+
+        //then
+        response.andExpect(status().isNotModified())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+
+    @DisplayName("Teste para atualizar empregado por id com If-Match desatualizado")
+    @Test
+    void testAtualizarEmpregadoPorIdComIfMatchDesatualizado() throws Exception {
+
+        // given
+        Empregado empregadoSalvo = Empregado.builder().id(1L).nome("Daniel").sobrenome("Penelva").email("d4n.pamplona@gmail.com").versao(2L).build();
+        given(empregadoServiceMock.getEmpregadoById(1L)).willReturn(Optional.of(empregadoSalvo));
+        given(empregadoServiceMock.updateEmpregado(any(Empregado.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Empregado.class, 1L));
+
+        // when
+        ResultActions response = mockMvc.perform(put("/api/empregados/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Daniel Up\"}"));
+
+        //then - a versão do If-Match vai para o UPDATE, e não é comparada com a do empregado buscado (que pode vir do cache)
+        response.andExpect(status().isPreconditionFailed())
+                .andDo(print());
+        verify(empregadoServiceMock).updateEmpregado(argThat(empregado -> Long.valueOf(1L).equals(empregado.getVersao())));
+    }
+
+    @DisplayName("Teste para deletar empregado por id não encontrado")
+    @Test
+    void testDeletarEmpregadoPorIdNaoEncontrado() throws Exception {
+
+        // given
+        given(empregadoServiceMock.deleteEmpregado(1L)).willReturn(false);
+
+        // when
+        ResultActions response = mockMvc.perform(delete("/api/empregados/{id}", 1L));
+
+        //then
+        response.andExpect(status().isNotFound())
         .andDo(print());
     }
 
+    @DisplayName("Teste para deletar empregados em lote por domínio de email")
+    @Test
+    void testDeletarEmpregadosEmLotePorDominio() throws Exception {
+
+        // given
+        given(empregadoServiceMock.deleteEmpregadosPorDominioEmail("gmail.com")).willReturn(3);
+
+        // when
+        ResultActions response = mockMvc.perform(post("/api/empregados/batch/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dominioEmail\":\"gmail.com\"}"));
+
+        //then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.removidos", is(3)));
+    }
+
+    @DisplayName("Teste para recusar a remoção em lote por domínio com curinga")
+    @Test
+    void testDeletarEmpregadosEmLotePorDominioComCuringa() throws Exception {
+
+        // when
+        ResultActions response = mockMvc.perform(post("/api/empregados/batch/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dominioEmail\":\"%\"}"));
+
+        //then
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(empregadoServiceMock, never()).deleteEmpregadosPorDominioEmail(any());
+    }
+
+    @DisplayName("Teste para buscar empregados por parte do nome")
+    @Test
+    void testBuscarEmpregadosPorNome() throws Exception {
+
+        // given
+        List<Empregado> encontrados = new ArrayList<>();
+        encontrados.add(Empregado.builder().id(1L).nome("Daniel").sobrenome("Penelva").email("d4n.andrade@gmail.com").build());
+
+        given(empregadoServiceMock.buscarEmpregados("dan", 5)).willReturn(encontrados);
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/empregados/search").param("q", "dan").param("limit", "5"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].nome", is("Daniel")));
+    }
+
+    @DisplayName("Teste para filtrar empregados com os critérios da URL")
+    @Test
+    void testFiltrarEmpregados() throws Exception {
+
+        // given
+        List<Empregado> empregados = new ArrayList<>();
+        empregados.add(criarEmpregado());
+
+        given(empregadoServiceMock.filtrarEmpregados(any(FiltroEmpregados.class), eq(0), eq(20)))
+                .willReturn(new PaginaFiltroEmpregados(empregados, 1));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/empregados/filtro")
+                .param("sobrenome", "Pen")
+                .param("dominioEmail", "gmail.com")
+                .param("ordenarPor", "sobrenome")
+                .param("limit", "20"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.conteudo.size()", is(1)))
+                .andExpect(jsonPath("$.proximaPagina", is(1)))
+                .andExpect(jsonPath("$.conteudo[0].emailDominio").doesNotExist());
+        verify(empregadoServiceMock).filtrarEmpregados(argThat(filtro -> "Pen".equals(filtro.getSobrenome())
+                && "gmail.com".equals(filtro.getDominioEmail()) && "sobrenome".equals(filtro.getOrdenarPor())), eq(0), eq(20));
+    }
+
+    @DisplayName("Teste para recusar página do filtro além do deslocamento máximo")
+    @Test
+    void testFiltrarEmpregadosComPaginaMuitoGrande() throws Exception {
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/empregados/filtro")
+                .param("pagina", String.valueOf(Integer.MAX_VALUE))
+                .param("limit", "1000"));
+
+        // then
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(empregadoServiceMock, never()).filtrarEmpregados(any(), anyInt(), anyInt());
+    }
+
+    @DisplayName("Teste para listar só os campos pedidos em fields")
+    @Test
+    void testListarEmpregadosProjetados() throws Exception {
+
+        // given
+        given(empregadoServiceMock.getAllEmpregadosProjetados(List.of("id", "email")))
+                .willReturn(List.of(Map.of("id", 1L, "email", "daniel@gmail.com")));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/empregados").param("fields", "id, email,id"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].email", is("daniel@gmail.com")))
+                .andExpect(jsonPath("$[0].nome").doesNotExist());
+    }
+
+    @DisplayName("Teste para buscar um empregado só com os campos pedidos em fields")
+    @Test
+    void testBuscarEmpregadoProjetadoPorId() throws Exception {
+
+        // given
+        given(empregadoServiceMock.getEmpregadoProjetadoById(1L, List.of("nome")))
+                .willReturn(Optional.of(Map.of("nome", "Daniel")));
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/empregados/{id}", 1L).param("fields", "nome"));
+
+        // then
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.nome", is("Daniel")))
+                .andExpect(jsonPath("$.email").doesNotExist())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @DisplayName("Teste para recusar campo desconhecido em fields")
+    @Test
+    void testRecusarCampoDesconhecidoEmFields() throws Exception {
+
+        // when
+        ResultActions response = mockMvc.perform(get("/api/empregados").param("fields", "id,senha"));
+
+        // then
+        response.andExpect(status().isBadRequest());
+        verify(empregadoServiceMock, never()).getAllEmpregadosProjetados(any());
+    }
 }
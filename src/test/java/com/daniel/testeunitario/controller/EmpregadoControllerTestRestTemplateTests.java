@@ -139,7 +139,7 @@ public class EmpregadoControllerTestRestTemplateTests {
             .exchange("http://localhost:8080/api/empregados/{id}", HttpMethod.DELETE, null, Void.class, pathVariables);
 
         // Verificar o código de status da resposta após a exclusão bem-sucedida
-        assertEquals(HttpStatus.OK, exchange.getStatusCode());
+        assertEquals(HttpStatus.NO_CONTENT, exchange.getStatusCode());
 
         // Verificar se a resposta não possui um corpo
         assertFalse(exchange.hasBody());
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
@@ -17,28 +18,46 @@ import static org.hamcrest.Matchers.*;
 import com.daniel.testeunitario.model.Empregado;
 
 
+/* Testes de ponta a ponta da API, contra a aplicação iniciada em uma porta aleatória (o WebTestClient já aponta para ela).
+*
+*  Esta classe roda na pilha padrão (Spring MVC + JPA); EmpregadoControllerReativoWebTestClientTests herda os mesmos testes e roda no perfil
+*  "reactive" (WebFlux + R2DBC). Cada classe começa com um contexto novo e, portanto, com o banco vazio.
+**/
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
 public class EmpregadoControllerWebTestClientTests {
 
     @Autowired
     private WebTestClient webTestClient;
 
+    // Ids gerados pelo banco nos primeiros testes, usados pelos seguintes.
+    private static long idPrimeiroEmpregado;
+
+    private static long idEmpregadoCriado;
+
     @Test
     @Order(1)
     void testCriarEmpregado() {
         
         // Dado (given): Você está configurando o estado inicial
         // Crie um objeto Empregado usando o padrão de construtor Builder
+        // O id é sempre gerado pelo banco; um primeiro empregado é criado antes para a listagem ter dois registros.
+        idPrimeiroEmpregado = webTestClient.post().uri("/api/empregados")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(Empregado.builder().nome("Daniel").sobrenome("Penelva").email("d4n.pamplona@gmail.com").build())
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(Empregado.class).returnResult().getResponseBody().getId();
+
         Empregado empregado = Empregado.builder()
-                .id(3L)
                 .nome("Daniel Up")
                 .sobrenome("Penelva Up")
                 .email("d4n.penelva@gmail.com").build();
 
         // Quando (when): Você executa a ação que deseja testar
         // Envie uma solicitação HTTP POST usando o WebTestClient
-        webTestClient.post().uri("http://localhost:8080/api/empregados")
+        webTestClient.post().uri("/api/empregados")
             .contentType(MediaType.APPLICATION_JSON)
             .bodyValue(empregado)
             .exchange()
@@ -46,7 +65,7 @@ public class EmpregadoControllerWebTestClientTests {
             .expectStatus().isCreated() // Verifique o código de status da resposta
             .expectHeader().contentType(MediaType.APPLICATION_JSON) // Verifique o cabeçalho de tipo de mídia (Content-Type) da resposta
             .expectBody() // Verifique o corpo da resposta JSON
-            .jsonPath("$.id").isEqualTo(empregado.getId())
+            .jsonPath("$.id").value(id -> idEmpregadoCriado = ((Number) id).longValue())
             .jsonPath("$.nome").isEqualTo(empregado.getNome())
             .jsonPath("$.sobrenome").isEqualTo(empregado.getSobrenome())
             .jsonPath("$.email").isEqualTo(empregado.getEmail());
@@ -56,12 +75,13 @@ public class EmpregadoControllerWebTestClientTests {
     @Order(2)
     void testBsucarEmpregadoPorId() {
     
-      // Envie uma solicitação HTTP GET para obter um empregado pelo ID 1 (.exchange() - envia o request)
-      webTestClient.get().uri("http://localhost:8080/api/empregados/3").exchange()
+      // Envie uma solicitação HTTP GET para obter um empregado pelo ID criado no teste anterior (.exchange() - envia o request)
+      webTestClient.get().uri("/api/empregados/{id}", idEmpregadoCriado).exchange()
             .expectStatus().isOk() // Verifique o código de status da resposta
             .expectHeader().contentType(MediaType.APPLICATION_JSON) // Verifique o cabeçalho de tipo de mídia (Content-Type) da resposta
+            .expectHeader().valueEquals("ETag", "\"0\"") // Verifique a versão do empregado no ETag
             .expectBody() // Verifique o corpo da resposta JSON
-            .jsonPath("$.id").isEqualTo(3)
+            .jsonPath("$.id").isEqualTo(idEmpregadoCriado)
             .jsonPath("$.nome").isEqualTo("Daniel Up")
             .jsonPath("$.sobrenome").isEqualTo("Penelva Up")
             .jsonPath("$.email").isEqualTo("d4n.penelva@gmail.com");
@@ -72,7 +92,7 @@ public class EmpregadoControllerWebTestClientTests {
     void testListarEmpregado() {
     
       // Envie uma solicitação HTTP GET para listar todos os empregados
-      webTestClient.get().uri("http://localhost:8080/api/empregados").exchange()
+      webTestClient.get().uri("/api/empregados").exchange()
             .expectStatus().isOk()  // Verifique o código de status da resposta
             .expectHeader().contentType(MediaType.APPLICATION_JSON)  // Verifique o cabeçalho de tipo de mídia (Content-Type) da resposta
             .expectBody()  // Verifique o corpo da resposta JSON
@@ -88,7 +108,7 @@ public class EmpregadoControllerWebTestClientTests {
     void testObterListarEmpregado() {
     
      // Envie uma solicitação HTTP GET para listar todos os empregados
-      webTestClient.get().uri("http://localhost:8080/api/empregados").exchange()   
+      webTestClient.get().uri("/api/empregados").exchange()   
             .expectStatus().isOk()  // Verifique o código de status da resposta
             .expectHeader().contentType(MediaType.APPLICATION_JSON)  // Verifique o cabeçalho de tipo de mídia (Content-Type) da resposta
             .expectBodyList(Empregado.class)  // Verifique o corpo da resposta JSON como uma lista de objetos Empregado
@@ -109,8 +129,8 @@ public class EmpregadoControllerWebTestClientTests {
                 .sobrenome("Silva")
                 .email("davi@gmail.com").build();
 
-         // Enviar uma solicitação HTTP PUT para atualizar o empregado com ID 1
-         webTestClient.put().uri("http://localhost:8080/api/empregados/2")
+         // Enviar uma solicitação HTTP PUT para atualizar o primeiro empregado
+         webTestClient.put().uri("/api/empregados/{id}", idPrimeiroEmpregado)
                 .contentType(MediaType.APPLICATION_JSON)  // Definir o tipo de mídia como JSON
                 .bodyValue(empregadoAtualizado)  // Enviar o objeto empregadoAtualizado no corpo da solicitação
                 .exchange()  // Executar a solicitação
@@ -123,28 +143,68 @@ public class EmpregadoControllerWebTestClientTests {
     void testDeletarEmpregado() {
 
         // Primeiro, verifica se o empregado com ID 1 existe
-         webTestClient.get().uri("http://localhost:8080/api/empregados")
+         webTestClient.get().uri("/api/empregados")
                 .exchange()
                 .expectStatus().isOk()  
                 .expectHeader().contentType(MediaType.APPLICATION_JSON)
                 .expectBodyList(Empregado.class)
                 .hasSize(2); 
              
-        // Em seguida, envia uma solicitação HTTP DELETE para excluir o empregado com ID 1
-         webTestClient.delete().uri("http://localhost:8080/api/empregados/2")
+        // Em seguida, envia uma solicitação HTTP DELETE para excluir o primeiro empregado
+         webTestClient.delete().uri("/api/empregados/{id}", idPrimeiroEmpregado)
                 .exchange()
-                .expectStatus().isOk();
+                .expectStatus().isNoContent();
       
         // Após a exclusão, verifica se não há mais empregados (espera-se que a lista esteja vazia)
-         webTestClient.get().uri("http://localhost:8080/api/empregados").exchange()
+         webTestClient.get().uri("/api/empregados").exchange()
                 .expectStatus().isOk()  
                 .expectHeader().contentType(MediaType.APPLICATION_JSON)  
                 .expectBodyList(Empregado.class)
                 .hasSize(1);
 
-         // Finalmente, tenta buscar o empregado com ID 1 novamente, o que deve resultar em um erro 4xx
-         webTestClient.get().uri("http://localhost:8080/api/empregados/1").exchange()
+         // Finalmente, tenta buscar o empregado removido novamente, o que deve resultar em um erro 4xx
+         webTestClient.get().uri("/api/empregados/{id}", idPrimeiroEmpregado).exchange()
                 .expectStatus()
                 .is4xxClientError(); 
     }
+
+    @Test
+    @Order(7)
+    void testBuscarEmpregadoNaoModificado() {
+
+        // Com o ETag recebido antes no If-None-Match, a resposta é 304 sem corpo
+        webTestClient.get().uri("/api/empregados/{id}", idEmpregadoCriado)
+                .header("If-None-Match", "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    @Order(8)
+    void testAtualizarEmpregadoComVersaoDesatualizada() {
+
+        // Primeiro atualiza com a versão atual (0), o que leva o empregado para a versão 1
+        webTestClient.patch().uri("/api/empregados/{id}", idEmpregadoCriado)
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Empregado.builder().nome("Daniel Patch").build())
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectHeader().valueEquals("ETag", "\"1\"");
+
+        // Um PUT ainda com a versão 0 no If-Match é recusado com 412, sem alterar o empregado
+        webTestClient.put().uri("/api/empregados/{id}", idEmpregadoCriado)
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Empregado.builder().nome("Davi").sobrenome("Silva").email("davi.silva@gmail.com").build())
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        webTestClient.get().uri("/api/empregados/{id}", idEmpregadoCriado).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.nome").isEqualTo("Daniel Patch")
+                .jsonPath("$.versao").isEqualTo(1);
+    }
 }
@@ -0,0 +1,113 @@
+package com.daniel.testeunitario.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.UnsupportedEncodingException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.EmpregadoEventosService;
+import com.daniel.testeunitario.service.EmpregadoService;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:feed")
+@AutoConfigureMockMvc
+public class EmpregadoEventosControllerTest {
+
+    /*
+     * O stream SSE continua aberto depois do perform: os eventos são escritos na resposta pela thread do despacho, então o teste espera o
+     * conteúdo aparecer em vez de usar asyncDispatch.
+     */
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmpregadoService empregadoService;
+
+    @Autowired
+    private EmpregadoEventosService eventosService;
+
+    private static String aguardarConteudo(MockHttpServletResponse response, String esperado)
+            throws InterruptedException, UnsupportedEncodingException {
+        for (int tentativa = 0; tentativa < 250; tentativa++) {
+            String conteudo = response.getContentAsString();
+            if (conteudo.contains(esperado)) {
+                return conteudo;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Evento não recebido: " + esperado + " em " + response.getContentAsString());
+    }
+
+    @DisplayName("Teste para receber pelo SSE só as alterações feitas depois de conectar")
+    @Test
+    void testTransmitirAlteracoes() throws Exception {
+
+        // given
+        empregadoService.salvarEmpregado(Empregado.builder().nome("Antes").sobrenome("Penelva").email("sse.antes@empresa.com").build());
+        MvcResult resultado = mockMvc.perform(get("/api/empregados/changes/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // when
+        Empregado empregado = empregadoService.salvarEmpregado(
+                Empregado.builder().nome("Daniel").sobrenome("Penelva").email("sse.daniel@empresa.com").build());
+
+        // then
+        String conteudo = aguardarConteudo(resultado.getResponse(), "sse.daniel@empresa.com");
+        assertTrue(conteudo.contains("event:CRIADO"));
+        assertTrue(conteudo.contains("\"empregadoId\":" + empregado.getId()));
+        assertFalse(conteudo.contains("sse.antes@empresa.com"));
+    }
+
+    @DisplayName("Teste para retomar o SSE a partir do Last-Event-ID")
+    @Test
+    void testRetomarDoUltimoEvento() throws Exception {
+
+        // given
+        long ultimoRecebido = eventosService.getUltimaSequencia();
+        empregadoService.salvarEmpregado(Empregado.builder().nome("Ana").sobrenome("Souza").email("sse.ana@empresa.com").build());
+
+        // when
+        MvcResult resultado = mockMvc.perform(get("/api/empregados/changes/stream").header("Last-Event-ID", ultimoRecebido))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        String conteudo = aguardarConteudo(resultado.getResponse(), "sse.ana@empresa.com");
+        assertTrue(conteudo.contains("id:" + (ultimoRecebido + 1)));
+    }
+
+    @DisplayName("Teste para buscar as alterações depois de uma sequência")
+    @Test
+    void testGetAlteracoes() throws Exception {
+
+        // given
+        long since = eventosService.getUltimaSequencia();
+        Empregado empregado = empregadoService.salvarEmpregado(
+                Empregado.builder().nome("Bruno").sobrenome("Lima").email("delta.bruno@empresa.com").build());
+        empregadoService.deleteEmpregado(empregado.getId());
+
+        // when / then
+        mockMvc.perform(get("/api/empregados/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventos.length()", is(2)))
+                .andExpect(jsonPath("$.eventos[0].tipo", is("CRIADO")))
+                .andExpect(jsonPath("$.eventos[1].tipo", is("REMOVIDO")))
+                .andExpect(jsonPath("$.eventos[1].email").doesNotExist())
+                .andExpect(jsonPath("$.ultimaSequencia", is((int) since + 2)))
+                .andExpect(jsonPath("$.maisEventos", is(false)));
+    }
+}
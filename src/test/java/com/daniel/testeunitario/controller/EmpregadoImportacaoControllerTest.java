@@ -0,0 +1,102 @@
+package com.daniel.testeunitario.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.daniel.testeunitario.dto.ErroImportacao;
+import com.daniel.testeunitario.dto.RelatorioImportacao;
+import com.daniel.testeunitario.service.EmpregadoImportacaoService;
+import com.daniel.testeunitario.service.EmpregadoImportacaoService.Formato;
+
+@WebMvcTest(EmpregadoImportacaoController.class)
+public class EmpregadoImportacaoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmpregadoImportacaoService importacaoServiceMock;
+
+    @DisplayName("Teste para importar empregados em NDJSON e devolver o relatório")
+    @Test
+    void testImportarNdjson() throws Exception {
+
+        // given
+        RelatorioImportacao relatorio = new RelatorioImportacao(2, 1, 1, List.of(new ErroImportacao(2, "Email inválido: x")), 0, 10, 200.0);
+        given(importacaoServiceMock.importarEmpregados(any(InputStream.class), eq(Formato.NDJSON))).willReturn(relatorio);
+
+        // when
+        mockMvc.perform(post("/api/empregados/import")
+                .contentType("application/x-ndjson")
+                .content("{\"nome\":\"Daniel\",\"sobrenome\":\"Penelva\",\"email\":\"d4n.andrade@gmail.com\"}\n"
+                        + "{\"nome\":\"Daniel\",\"sobrenome\":\"Penelva\",\"email\":\"x\"}\n"))
+
+        // then
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados", is(1)))
+                .andExpect(jsonPath("$.erros[0].linha", is(2)))
+                .andExpect(jsonPath("$.erros[0].mensagem", is("Email inválido: x")));
+    }
+
+    @DisplayName("Teste para recusar CSV com cabeçalho inválido")
+    @Test
+    void testRecusarCsvComCabecalhoInvalido() throws Exception {
+
+        // given
+        given(importacaoServiceMock.importarEmpregados(any(InputStream.class), eq(Formato.CSV)))
+                .willThrow(new IllegalArgumentException("Cabeçalho do CSV sem a coluna email"));
+
+        // when
+        mockMvc.perform(post("/api/empregados/import").contentType("text/csv").content("nome,sobrenome\n"))
+
+        // then
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro", is("Cabeçalho do CSV sem a coluna email")));
+    }
+
+    @DisplayName("Teste para responder 503 com Retry-After quando já há importação em andamento")
+    @Test
+    void testRecusarImportacaoSimultanea() throws Exception {
+
+        // given
+        given(importacaoServiceMock.importarEmpregados(any(InputStream.class), eq(Formato.NDJSON)))
+                .willThrow(new RejectedExecutionException("Limite de importações simultâneas atingido"));
+
+        // when
+        mockMvc.perform(post("/api/empregados/import").contentType("application/x-ndjson").content("{}\n"))
+
+        // then
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.erro", is("Limite de importações simultâneas atingido")));
+    }
+
+    @DisplayName("Teste para recusar formato de importação não suportado")
+    @Test
+    void testRecusarFormatoNaoSuportado() throws Exception {
+
+        // when
+        mockMvc.perform(post("/api/empregados/import").contentType(MediaType.APPLICATION_JSON).content("[]"))
+
+        // then
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
@@ -0,0 +1,89 @@
+package com.daniel.testeunitario.controller;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.daniel.testeunitario.dto.SituacaoGravacao;
+import com.daniel.testeunitario.dto.SituacaoGravacao.Situacao;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.EmpregadoWriteBehindService;
+
+@WebMvcTest(controllers = EmpregadoWriteBehindController.class, properties = "empregados.write-behind.habilitado=true")
+public class EmpregadoWriteBehindControllerTest {
+
+    private static final String EMPREGADO_JSON = "{\"nome\":\"Daniel\",\"sobrenome\":\"Penelva\",\"email\":\"d4n.andrade@gmail.com\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmpregadoWriteBehindService writeBehindServiceMock;
+
+    @DisplayName("Teste para aceitar o empregado com 202 e o endereço da situação")
+    @Test
+    void testCriarEmpregado() throws Exception {
+
+        // given
+        given(writeBehindServiceMock.enfileirar(any(Empregado.class)))
+                .willReturn(new SituacaoGravacao("abc-123", Situacao.PENDENTE, null, null));
+
+        // when
+        mockMvc.perform(post("/api/empregados/write-behind").contentType(MediaType.APPLICATION_JSON).content(EMPREGADO_JSON))
+
+        // then
+                .andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/empregados/write-behind/abc-123"))
+                .andExpect(jsonPath("$.token", is("abc-123")))
+                .andExpect(jsonPath("$.situacao", is("PENDENTE")));
+    }
+
+    @DisplayName("Teste para consultar a situação de um token gravado e de um desconhecido")
+    @Test
+    void testGetSituacao() throws Exception {
+
+        // given
+        given(writeBehindServiceMock.getSituacao("abc-123"))
+                .willReturn(Optional.of(new SituacaoGravacao("abc-123", Situacao.GRAVADO, 7L, null)));
+        given(writeBehindServiceMock.getSituacao("desconhecido")).willReturn(Optional.empty());
+
+        // when / then
+        mockMvc.perform(get("/api/empregados/write-behind/{token}", "abc-123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.situacao", is("GRAVADO")))
+                .andExpect(jsonPath("$.id", is(7)));
+        mockMvc.perform(get("/api/empregados/write-behind/{token}", "desconhecido"))
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("Teste para responder 503 com Retry-After quando o buffer está cheio")
+    @Test
+    void testBufferCheio() throws Exception {
+
+        // given
+        given(writeBehindServiceMock.enfileirar(any(Empregado.class))).willThrow(new RejectedExecutionException("Buffer de gravação cheio"));
+
+        // when
+        mockMvc.perform(post("/api/empregados/write-behind").contentType(MediaType.APPLICATION_JSON).content(EMPREGADO_JSON))
+
+        // then
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+}
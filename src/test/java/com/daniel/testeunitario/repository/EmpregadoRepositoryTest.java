@@ -4,13 +4,21 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
+import com.daniel.testeunitario.dto.FiltroEmpregados;
 import com.daniel.testeunitario.model.Empregado;
 
 @DataJpaTest
@@ -27,6 +35,9 @@ public class EmpregadoRepositoryTest {
     @Autowired
     private EmpregadoRepository empregadoRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     // Criar um empregado
     private Empregado criarEmpregado(){
        
@@ -129,5 +140,197 @@ public class EmpregadoRepositoryTest {
          // then - verificar mensagem de validação
          assertTrue(empregadoRepository.findById(empregado1.getId()).isEmpty());
     }
-}
 
+    @DisplayName("Teste para listar empregados a partir de um cursor (keyset)")
+    @Test
+    void testListarEmpregadosPorCursor(){
+
+        // Given - gerando os dados antes do condicionamento.
+        Empregado empregado1 = empregadoRepository.save(criarEmpregado());
+        Empregado empregado2 = empregadoRepository.save(Empregado.builder()
+                .nome("João")
+                .sobrenome("da Silva")
+                .email("joao@gmail.com").build());
+        Empregado empregado3 = empregadoRepository.save(Empregado.builder()
+                .nome("Maria")
+                .sobrenome("Souza")
+                .email("maria@gmail.com").build());
+
+        // when - criando a condição (o comportamento) a ser testado
+        List<Empregado> pagina = empregadoRepository.findByIdGreaterThanOrderByIdAsc(empregado1.getId(), PageRequest.of(0, 1));
+
+        // then - verificar mensagem de validação
+        assertEquals(1, pagina.size());
+        assertEquals(empregado2.getId(), pagina.get(0).getId());
+        assertTrue("O cursor deve avançar em ordem de id", empregado3.getId() > pagina.get(0).getId());
+    }
+
+    @DisplayName("Teste para buscar os emails já cadastrados de um lote")
+    @Test
+    void testBuscarEmailsExistentes(){
+
+        // Given - gerando os dados antes do condicionamento.
+        Empregado empregado1 = criarEmpregado();
+
+        empregadoRepository.save(empregado1);
+
+        // when - criando a condição (o comportamento) a ser testado
+        List<String> emailsExistentes = empregadoRepository.findEmailsExistentes(List.of(empregado1.getEmail(), "novo@gmail.com"));
+
+        // then - verificar mensagem de validação
+        assertEquals(List.of(empregado1.getEmail()), emailsExistentes);
+    }
+
+    @DisplayName("Teste para atualizar só os campos enviados de um empregado")
+    @Test
+    void testAtualizarCamposDoEmpregado(){
+
+        // Given - gerando os dados antes do condicionamento.
+        Empregado empregado1 = empregadoRepository.saveAndFlush(criarEmpregado());
+
+        // when - criando a condição (o comportamento) a ser testado
+        int linhasAfetadas = empregadoRepository.atualizarCampos(empregado1.getId(), Empregado.builder().nome("Daniel Up").build(), null);
+        int linhasIdInexistente = empregadoRepository.atualizarCampos(empregado1.getId() + 100, Empregado.builder().nome("Outro").build(), null);
+
+        // then - verificar mensagem de validação
+        Empregado empregadoAtualizado = empregadoRepository.findById(empregado1.getId()).get();
+        assertEquals(1, linhasAfetadas);
+        assertEquals(0, linhasIdInexistente);
+        assertEquals("Daniel Up", empregadoAtualizado.getNome());
+        assertEquals("Penelva", empregadoAtualizado.getSobrenome());
+        assertEquals(Long.valueOf(empregado1.getVersao() + 1), empregadoAtualizado.getVersao());
+    }
+
+    @DisplayName("Teste para não atualizar os campos de um empregado com versão desatualizada")
+    @Test
+    void testAtualizarCamposComVersaoDesatualizada(){
+
+        // Given - gerando os dados antes do condicionamento.
+        Empregado empregado1 = empregadoRepository.saveAndFlush(criarEmpregado());
+        Long versaoLida = empregado1.getVersao();
+
+        // when - criando a condição (o comportamento) a ser testado
+        int primeiraAtualizacao = empregadoRepository.atualizarCampos(empregado1.getId(), Empregado.builder().nome("Daniel Up").build(), versaoLida);
+        int segundaAtualizacao = empregadoRepository.atualizarCampos(empregado1.getId(), Empregado.builder().nome("Outro").build(), versaoLida);
+
+        // then - verificar mensagem de validação
+        Empregado empregadoAtualizado = empregadoRepository.findById(empregado1.getId()).get();
+        assertEquals(1, primeiraAtualizacao);
+        assertEquals(0, segundaAtualizacao);
+        assertEquals("Daniel Up", empregadoAtualizado.getNome());
+    }
+
+    @DisplayName("Teste para deletar empregados direto, sem buscá-los antes")
+    @Test
+    void testDeletarEmpregadosDireto(){
+
+        // Given - gerando os dados antes do condicionamento.
+        Empregado empregado1 = empregadoRepository.save(criarEmpregado());
+        Empregado empregado2 = empregadoRepository.save(Empregado.builder()
+                .nome("João")
+                .sobrenome("da Silva")
+                .email("joao@empresa.com").build());
+        empregadoRepository.flush();
+
+        // when - criando a condição (o comportamento) a ser testado
+        int removidosPorId = empregadoRepository.deletarPorId(empregado1.getId());
+        int removidosIdInexistente = empregadoRepository.deletarPorId(empregado1.getId());
+        List<Long> idsCuringa = empregadoRepository.findIdsPorDominioEmail("%");
+        int removidosPorDominio = empregadoRepository.deletarPorIds(empregadoRepository.findIdsPorDominioEmail("empresa.com"));
+
+        // then - verificar mensagem de validação
+        assertEquals(1, removidosPorId);
+        assertEquals(0, removidosIdInexistente);
+        assertTrue(idsCuringa.isEmpty());
+        assertEquals(1, removidosPorDominio);
+        assertEquals(0, empregadoRepository.count());
+        assertTrue(empregado2.getId() > 0);
+    }
+
+    @DisplayName("Teste para filtrar empregados por prefixo, domínio e faixa de ids, ordenando por sobrenome")
+    @Test
+    void testFiltrarEmpregados(){
+
+        // Given - gerando os dados antes do condicionamento.
+        Empregado daniel = empregadoRepository.save(criarEmpregado());
+        Empregado danilo = empregadoRepository.save(Empregado.builder().nome("Danilo").sobrenome("Alves").email("danilo@Gmail.com").build());
+        empregadoRepository.save(Empregado.builder().nome("Daniela").sobrenome("Costa").email("daniela@empresa.com").build());
+        empregadoRepository.save(Empregado.builder().nome("João").sobrenome("da Silva").email("joao@gmail.com").build());
+        empregadoRepository.flush();
+        entityManager.clear();
+
+        FiltroEmpregados filtro = FiltroEmpregados.builder()
+                .nome("Dan")
+                .dominioEmail("gmail.com")
+                .idMinimo(daniel.getId())
+                .ordenarPor("sobrenome").build();
+
+        // when - criando a condição (o comportamento) a ser testado
+        List<Empregado> filtrados = empregadoRepository.filtrar(filtro, 0, 10);
+        List<Empregado> segundaPagina = empregadoRepository.filtrar(filtro, 1, 10);
+
+        // then - verificar mensagem de validação
+        assertEquals(List.of(danilo.getId(), daniel.getId()), filtrados.stream().map(Empregado::getId).collect(Collectors.toList()));
+        assertEquals("gmail.com", filtrados.get(0).getEmailDominio());
+        assertEquals(1, segundaPagina.size());
+    }
+
+    @DisplayName("Teste para conferir que os filtros usam os índices da tabela empregados")
+    @Test
+    void testFiltrosUsamIndices(){
+
+        // when - criando a condição (o comportamento) a ser testado
+        String planoSobrenome = explicar("select * from empregados where sobrenome like 'Pen%' order by sobrenome, nome, id");
+        String planoNome = explicar("select * from empregados where nome like 'Dan%' order by nome, sobrenome, id");
+        String planoDominio = explicar("select * from empregados where email_dominio = 'gmail.com' order by id");
+
+        // then - verificar mensagem de validação
+        assertTrue(planoSobrenome, planoSobrenome.contains("IDX_EMPREGADOS_SOBRENOME_NOME"));
+        assertTrue(planoNome, planoNome.contains("IDX_EMPREGADOS_NOME_SOBRENOME"));
+        assertTrue(planoDominio, planoDominio.contains("IDX_EMPREGADOS_EMAIL_DOMINIO"));
+    }
+
+    @DisplayName("Teste para buscar só os campos pedidos sem carregar entidades no contexto de persistência")
+    @Test
+    void testFindProjetado(){
+
+        // Given - gerando os dados antes do condicionamento.
+        Empregado empregado = empregadoRepository.save(criarEmpregado());
+        empregadoRepository.flush();
+        entityManager.clear();
+
+        // when - criando a condição (o comportamento) a ser testado
+        List<Map<String, Object>> projetados = empregadoRepository.findAllProjetado(List.of("email", "id"));
+        Map<String, Object> projetado = empregadoRepository.findProjetadoById(empregado.getId(), List.of("id", "email")).orElseThrow();
+
+        // then - verificar mensagem de validação
+        assertEquals(List.of("email", "id"), List.copyOf(projetados.get(0).keySet()));
+        assertEquals(Map.of("id", empregado.getId(), "email", empregado.getEmail()), projetado);
+        assertTrue(empregadoRepository.findProjetadoById(empregado.getId() + 1, List.of("id")).isEmpty());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @DisplayName("Teste para percorrer todos os empregados pela StatelessSession, em ordem de id e sem gerenciar entidades")
+    @Test
+    void testPercorrerSemEstado(){
+
+        // Given - gerando os dados antes do condicionamento.
+        Empregado empregado1 = empregadoRepository.save(criarEmpregado());
+        Empregado empregado2 = empregadoRepository.save(Empregado.builder().nome("João").sobrenome("Silva").email("joao@gmail.com").build());
+        empregadoRepository.flush();
+        entityManager.clear();
+
+        // when - criando a condição (o comportamento) a ser testado
+        List<Empregado> percorridos = new ArrayList<>();
+        empregadoRepository.percorrerSemEstado(percorridos::add);
+
+        // then - verificar mensagem de validação
+        assertEquals(List.of(empregado1.getId(), empregado2.getId()), percorridos.stream().map(Empregado::getId).collect(Collectors.toList()));
+        assertEquals("joao@gmail.com", percorridos.get(1).getEmail());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private String explicar(String sql) {
+        return entityManager.createNativeQuery("explain " + sql).getSingleResult().toString().toUpperCase();
+    }
+}
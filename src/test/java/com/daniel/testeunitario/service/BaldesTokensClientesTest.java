@@ -0,0 +1,59 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.daniel.testeunitario.service.support.BaldesTokensClientes;
+
+public class BaldesTokensClientesTest {
+
+    private final AtomicLong relogio = new AtomicLong(-TimeUnit.SECONDS.toNanos(100));
+
+    // 10 fichas por segundo, rajada de 3.
+    private final BaldesTokensClientes baldes = new BaldesTokensClientes(10, 3, 64, relogio::get);
+
+    @DisplayName("Teste para recusar o cliente depois da rajada e liberar quando a próxima ficha chega")
+    @Test
+    void testRecusarDepoisDaRajada() {
+
+        // given / when
+        long primeira = baldes.consumir("integracao-a");
+        long segunda = baldes.consumir("integracao-a");
+        long terceira = baldes.consumir("integracao-a");
+        long quarta = baldes.consumir("integracao-a");
+
+        // then
+        assertEquals(0, primeira + segunda + terceira);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), quarta);
+
+        relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, baldes.consumir("integracao-a"));
+        assertTrue(baldes.consumir("integracao-a") > 0);
+    }
+
+    @DisplayName("Teste para não descontar as fichas de um cliente do balde de outro")
+    @Test
+    void testBaldesSeparadosPorCliente() {
+
+        // given
+        String ruidoso = "integracao-a";
+        String outro = "integracao-b";
+        for (int i = 0; i < 3; i++) {
+            baldes.consumir(ruidoso);
+        }
+
+        // when
+        long esperaRuidoso = baldes.consumir(ruidoso);
+        long esperaOutro = baldes.consumir(outro);
+
+        // then
+        assertTrue(esperaRuidoso > 0);
+        assertEquals(0, esperaOutro);
+    }
+}
@@ -0,0 +1,142 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.impl.EmpregadoAsyncServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class EmpregadoAsyncServiceTest {
+
+    /*
+     * O EmpregadoService é simulado e o executor é real, com 1 thread e fila de 1 tarefa, para conseguir lotar o executor e estourar o tempo
+     * limite de forma controlada.
+     */
+
+    @Mock
+    private EmpregadoService empregadoService;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EmpregadoAsyncServiceImpl empregadoAsyncService;
+
+    // Segura a única thread do executor até o teste liberar.
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @BeforeEach
+    void setup() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+
+        meterRegistry = new SimpleMeterRegistry();
+        empregadoAsyncService = new EmpregadoAsyncServiceImpl(empregadoService, executor, meterRegistry,
+                Duration.ofMillis(200), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void encerrar() {
+        liberar.countDown();
+        executor.shutdown();
+    }
+
+    private Empregado criarEmpregado() {
+
+        return Empregado.builder()
+                .id(1L)
+                .nome("Daniel")
+                .sobrenome("Penelva")
+                .email("d4n.andrade@gmail.com").build();
+    }
+
+    private Empregado aguardarLiberacao() {
+        try {
+            liberar.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return criarEmpregado();
+    }
+
+    @DisplayName("Teste para buscar empregado por id no executor dedicado")
+    @Test
+    void testBuscarEmpregadoPorIdAssincrono() throws Exception {
+
+        // given
+        Empregado empregado = criarEmpregado();
+        given(empregadoService.getEmpregadoById(1L)).willReturn(Optional.of(empregado));
+
+        // when
+        Optional<Empregado> encontrado = empregadoAsyncService.getEmpregadoById(1L).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(empregado, encontrado.get());
+    }
+
+    @DisplayName("Teste para falhar com timeout quando a leitura passa do tempo limite")
+    @Test
+    void testBuscarEmpregadoPorIdComTimeout() {
+
+        // given
+        given(empregadoService.getEmpregadoById(1L)).willAnswer(invocacao -> Optional.of(aguardarLiberacao()));
+
+        // when
+        CompletableFuture<Optional<Empregado>> futuro = empregadoAsyncService.getEmpregadoById(1L);
+
+        // then
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> futuro.get(5, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof TimeoutException);
+        assertEquals(1.0, meterRegistry.counter("empregados.async.expiradas").count());
+    }
+
+    @DisplayName("Teste para recusar a operação quando a fila do executor está cheia")
+    @Test
+    void testRecusarComExecutorLotado() throws Exception {
+
+        // given - a thread fica ocupada e a única vaga da fila é preenchida
+        Empregado empregado = criarEmpregado();
+        CountDownLatch iniciou = new CountDownLatch(1);
+        given(empregadoService.salvarEmpregado(empregado)).willAnswer(invocacao -> {
+            iniciou.countDown();
+            return aguardarLiberacao();
+        });
+        empregadoAsyncService.salvarEmpregado(empregado);
+        iniciou.await(5, TimeUnit.SECONDS);
+        empregadoAsyncService.salvarEmpregado(empregado);
+
+        // when
+        CompletableFuture<Empregado> recusado = empregadoAsyncService.salvarEmpregado(empregado);
+
+        // then
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> recusado.get(5, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof RejectedExecutionException);
+        assertEquals(1.0, meterRegistry.counter("empregados.async.rejeitadas").count());
+    }
+}
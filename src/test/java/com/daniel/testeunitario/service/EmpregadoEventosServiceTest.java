@@ -0,0 +1,96 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.daniel.testeunitario.dto.PaginaEventos;
+import com.daniel.testeunitario.exception.ResourceNotFoundException;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.model.EventoEmpregado;
+import com.daniel.testeunitario.model.EventoEmpregado.Tipo;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:eventos")
+public class EmpregadoEventosServiceTest {
+
+    /*
+     * As escritas passam pelo EmpregadoService de verdade, que grava os eventos no outbox; cada teste lê o feed a partir da última sequência
+     * de antes dele, então não depende do que os outros testes gravaram.
+     */
+
+    @Autowired
+    private EmpregadoEventosService eventosService;
+
+    @Autowired
+    private EmpregadoService empregadoService;
+
+    @DisplayName("Teste para registrar criação, atualizações e remoção no feed, em ordem de sequência")
+    @Test
+    void testRegistrarAlteracoes() {
+
+        // given
+        long inicio = eventosService.getUltimaSequencia();
+
+        // when
+        Empregado empregado = empregadoService.salvarEmpregado(
+                Empregado.builder().nome("Daniel").sobrenome("Penelva").email("feed.daniel@empresa.com").build());
+        empregadoService.updateEmpregado(Empregado.builder().id(empregado.getId()).nome("Daniel").sobrenome("Andrade")
+                .email("feed.daniel@empresa.com").versao(empregado.getVersao()).build());
+        empregadoService.atualizarParcialmente(empregado.getId(), Empregado.builder().nome("Dan").build(), null);
+        empregadoService.deleteEmpregado(empregado.getId());
+
+        // then
+        PaginaEventos pagina = eventosService.getEventos(inicio, 100);
+        List<EventoEmpregado> eventos = pagina.getEventos();
+        assertEquals(List.of(Tipo.CRIADO, Tipo.ATUALIZADO, Tipo.ATUALIZADO, Tipo.REMOVIDO),
+                eventos.stream().map(EventoEmpregado::getTipo).collect(Collectors.toList()));
+        assertTrue(eventos.stream().allMatch(evento -> evento.getEmpregadoId().equals(empregado.getId())));
+        assertEquals("Andrade", eventos.get(1).getSobrenome());
+        assertEquals(1L, eventos.get(1).getVersao());
+        assertEquals("Dan", eventos.get(2).getNome());
+        assertNull(eventos.get(2).getSobrenome());
+        assertEquals(eventos.get(3).getSequencia(), pagina.getUltimaSequencia());
+        assertFalse(pagina.isMaisEventos());
+
+        for (int i = 1; i < eventos.size(); i++) {
+            assertTrue(eventos.get(i).getSequencia() > eventos.get(i - 1).getSequencia());
+        }
+    }
+
+    @DisplayName("Teste para paginar o feed e não registrar evento de escrita desfeita")
+    @Test
+    void testPaginarFeedSemEscritaDesfeita() {
+
+        // given
+        long inicio = eventosService.getUltimaSequencia();
+        empregadoService.salvarEmpregadosEmLote(List.of(
+                Empregado.builder().nome("Ana").sobrenome("Souza").email("feed.ana@empresa.com").build(),
+                Empregado.builder().nome("Bruno").sobrenome("Lima").email("feed.bruno@empresa.com").build(),
+                Empregado.builder().nome("Carla").sobrenome("Dias").email("feed.carla@empresa.com").build()));
+
+        // when
+        Empregado repetido = Empregado.builder().nome("Ana").sobrenome("Souza").email("feed.ana@empresa.com").build();
+        assertThrows(ResourceNotFoundException.class, () -> empregadoService.salvarEmpregado(repetido));
+
+        PaginaEventos primeira = eventosService.getEventos(inicio, 2);
+        PaginaEventos segunda = eventosService.getEventos(primeira.getUltimaSequencia(), 2);
+
+        // then
+        assertEquals(2, primeira.getEventos().size());
+        assertTrue(primeira.isMaisEventos());
+        assertEquals(1, segunda.getEventos().size());
+        assertFalse(segunda.isMaisEventos());
+        assertEquals("feed.carla@empresa.com", segunda.getEventos().get(0).getEmail());
+        assertEquals(segunda.getUltimaSequencia(), eventosService.getUltimaSequencia());
+    }
+}
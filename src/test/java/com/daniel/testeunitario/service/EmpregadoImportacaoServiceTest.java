@@ -0,0 +1,201 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.daniel.testeunitario.dto.ErroImportacao;
+import com.daniel.testeunitario.dto.RelatorioImportacao;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+import com.daniel.testeunitario.service.EmpregadoImportacaoService.Formato;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:importacao")
+public class EmpregadoImportacaoServiceTest {
+
+    /*
+     * A importação passa pelo pipeline inteiro (leitura, validação em paralelo e gravação em lotes) até o banco, que é próprio deste
+     * contexto. Com mais de um validador a ordem de chegada das linhas varia, então os testes não dependem dela.
+     */
+
+    @Autowired
+    private EmpregadoImportacaoService importacaoService;
+
+    @Autowired
+    private EmpregadoService empregadoService;
+
+    @Autowired
+    private EmpregadoRepository empregadoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static InputStream arquivo(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("Teste para importar NDJSON em lotes, relatando as linhas rejeitadas")
+    @Test
+    void testImportarNdjson() throws IOException {
+
+        // given - 1200 linhas válidas (três lotes) e depois uma linha de cada erro
+        empregadoService.salvarEmpregado(Empregado.builder().nome("Daniel").sobrenome("Penelva").email("existente@empresa.com").build());
+        long empregadosAntes = empregadoRepository.count();
+
+        StringBuilder conteudo = new StringBuilder();
+        for (int i = 1; i <= 1200; i++) {
+            conteudo.append("{\"nome\":\"Nome").append(i).append("\",\"sobrenome\":\"Sobrenome\",\"email\":\"ndjson").append(i)
+                    .append("@empresa.com\"}\n");
+        }
+        conteudo.append("{\"nome\": \"Quebrado\"\n");
+        conteudo.append("{\"nome\":\"Daniel\",\"sobrenome\":\"Penelva\",\"email\":\"sem-arroba\"}\n");
+        conteudo.append("\n");
+        conteudo.append("{\"nome\":\"Daniel\",\"sobrenome\":\"Penelva\",\"email\":\"ndjson1@empresa.com\"}\n");
+        conteudo.append("{\"nome\":\"Daniel\",\"sobrenome\":\"Penelva\",\"email\":\"existente@empresa.com\"}\n");
+
+        // when
+        RelatorioImportacao relatorio = importacaoService.importarEmpregados(arquivo(conteudo.toString()), Formato.NDJSON);
+
+        // then
+        assertEquals(1204, relatorio.getTotalLinhas());
+        assertEquals(1200, relatorio.getImportados());
+        assertEquals(4, relatorio.getRejeitados());
+        assertEquals(empregadosAntes + 1200, empregadoRepository.count());
+        assertTrue(relatorio.getLinhasPorSegundo() > 0);
+
+        List<ErroImportacao> erros = relatorio.getErros();
+        assertEquals(List.of(1201L, 1202L, 1204L, 1205L), erros.stream().map(ErroImportacao::getLinha).collect(Collectors.toList()));
+        assertTrue(erros.get(0).getMensagem().startsWith("JSON inválido"));
+        assertEquals("Email inválido: sem-arroba", erros.get(1).getMensagem());
+        assertEquals("Já existe empregado com esse email: ndjson1@empresa.com", erros.get(2).getMensagem());
+        assertEquals("Já existe empregado com esse email: existente@empresa.com", erros.get(3).getMensagem());
+    }
+
+    @DisplayName("Teste para gravar um a um o lote com email cadastrado por fora da conferência, rejeitando só a linha repetida")
+    @Test
+    void testImportarLoteComEmailGravadoPorFora() throws IOException {
+
+        // given - o INSERT direto não passa pelo filtro de Bloom: a conferência deixa o email passar e só o banco recusa o lote
+        jdbcTemplate.update("insert into empregados (id, nome, sobrenome, email, versao) "
+                + "values (next value for empregados_seq, 'Daniel', 'Penelva', 'por-fora@empresa.com', 0)");
+        String conteudo = "{\"nome\":\"Ana\",\"sobrenome\":\"Lima\",\"email\":\"lote1@empresa.com\"}\n"
+                + "{\"nome\":\"Daniel\",\"sobrenome\":\"Penelva\",\"email\":\"por-fora@empresa.com\"}\n"
+                + "{\"nome\":\"Maria\",\"sobrenome\":\"Souza\",\"email\":\"lote2@empresa.com\"}\n";
+
+        // when
+        RelatorioImportacao relatorio = importacaoService.importarEmpregados(arquivo(conteudo), Formato.NDJSON);
+
+        // then
+        assertEquals(2, relatorio.getImportados());
+        assertEquals(1, relatorio.getRejeitados());
+        assertEquals(2L, relatorio.getErros().get(0).getLinha());
+        assertEquals("Já existe empregado com esse email: por-fora@empresa.com", relatorio.getErros().get(0).getMensagem());
+        assertTrue(empregadoRepository.findByEmail("lote1@empresa.com").isPresent());
+        assertTrue(empregadoRepository.findByEmail("lote2@empresa.com").isPresent());
+    }
+
+    @DisplayName("Teste para importar CSV com colunas em outra ordem, campos entre aspas e email repetido no arquivo")
+    @Test
+    void testImportarCsv() throws IOException {
+
+        // given
+        String conteudo = "email,nome,sobrenome\r\n"
+                + "csv1@empresa.com,João,\"Silva, \"\"Jr.\"\"\"\r\n"
+                + "csv2@empresa.com,Maria,Souza\r\n"
+                + "csv2@empresa.com,Maria,Souza\r\n"
+                + "csv3@empresa.com,Ana\r\n"
+                + "csv4@empresa.com, ,Lima\r\n";
+
+        // when
+        RelatorioImportacao relatorio = importacaoService.importarEmpregados(arquivo(conteudo), Formato.CSV);
+
+        // then
+        assertEquals(5, relatorio.getTotalLinhas());
+        assertEquals(2, relatorio.getImportados());
+        assertEquals(3, relatorio.getRejeitados());
+        assertEquals("Silva, \"Jr.\"", empregadoRepository.findByEmail("csv1@empresa.com").get().getSobrenome());
+
+        List<ErroImportacao> erros = relatorio.getErros();
+        assertTrue(erros.get(0).getLinha() == 3 || erros.get(0).getLinha() == 4);
+        assertEquals("Email repetido na importação: csv2@empresa.com", erros.get(0).getMensagem());
+        assertEquals(5, erros.get(1).getLinha());
+        assertEquals("CSV inválido: esperadas 3 colunas, encontradas 2", erros.get(1).getMensagem());
+        assertEquals(6, erros.get(2).getLinha());
+        assertEquals("Nome, sobrenome e email são obrigatórios", erros.get(2).getMensagem());
+    }
+
+    @DisplayName("Teste para recusar CSV sem a coluna de email no cabeçalho")
+    @Test
+    void testRecusarCsvSemColunaObrigatoria() {
+
+        // given
+        String conteudo = "nome,sobrenome\nDaniel,Penelva\n";
+
+        // when
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> importacaoService.importarEmpregados(arquivo(conteudo), Formato.CSV));
+
+        // then
+        assertEquals("Cabeçalho do CSV sem a coluna email", erro.getMessage());
+    }
+
+    @DisplayName("Teste para recusar uma segunda importação enquanto a primeira está em andamento")
+    @Test
+    void testRecusarImportacaoSimultanea() throws Exception {
+
+        // given - a primeira importação fica lendo um corpo que ainda não terminou
+        PipedOutputStream escrita = new PipedOutputStream();
+        CountDownLatch leituraIniciada = new CountDownLatch(1);
+        InputStream corpo = new FilterInputStream(new PipedInputStream(escrita)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                leituraIniciada.countDown();
+                return super.read(b, off, len);
+            }
+        };
+        CompletableFuture<RelatorioImportacao> primeira = CompletableFuture.supplyAsync(() -> {
+            try {
+                return importacaoService.importarEmpregados(corpo, Formato.NDJSON);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        assertTrue(leituraIniciada.await(10, TimeUnit.SECONDS));
+
+        // when
+        RejectedExecutionException erro = assertThrows(RejectedExecutionException.class, () -> importacaoService.importarEmpregados(
+                arquivo("{\"nome\":\"Ana\",\"sobrenome\":\"Lima\",\"email\":\"recusada@empresa.com\"}\n"), Formato.NDJSON));
+
+        // then
+        assertEquals("Limite de importações simultâneas atingido", erro.getMessage());
+
+        escrita.write("{\"nome\":\"Ana\",\"sobrenome\":\"Lima\",\"email\":\"simultanea1@empresa.com\"}\n".getBytes(StandardCharsets.UTF_8));
+        escrita.close();
+        assertEquals(1, primeira.get(10, TimeUnit.SECONDS).getImportados());
+
+        RelatorioImportacao seguinte = importacaoService.importarEmpregados(
+                arquivo("{\"nome\":\"Ana\",\"sobrenome\":\"Lima\",\"email\":\"simultanea2@empresa.com\"}\n"), Formato.NDJSON);
+        assertEquals(1, seguinte.getImportados());
+        assertTrue(empregadoRepository.findByEmail("recusada@empresa.com").isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import com.daniel.testeunitario.config.CacheConfig;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+
+@SpringBootTest
+public class EmpregadoServiceCacheTest {
+
+    /*
+     * Diferente do EmpregadoServiceTest, aqui o serviço é o bean do Spring (com o proxy de cache) e só o repositório é simulado, para
+     * contar quantas vezes o banco seria consultado.
+     */
+
+    @MockBean
+    private EmpregadoRepository empregadoRepository;
+
+    @Autowired
+    private EmpregadoService empregadoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Empregado criarEmpregado() {
+
+        return Empregado.builder()
+                .id(1L)
+                .nome("Daniel")
+                .sobrenome("Penelva")
+                .email("d4n.andrade@gmail.com").build();
+    }
+
+    @BeforeEach
+    void limparCache() {
+        cacheManager.getCache(CacheConfig.CACHE_EMPREGADOS).clear();
+    }
+
+    @DisplayName("Teste para buscar empregado por id consultando o banco uma única vez")
+    @Test
+    void testBuscarEmpregadoPorIdUsaCache() {
+
+        // given
+        Empregado empregado = criarEmpregado();
+        given(empregadoRepository.findById(1L)).willReturn(Optional.of(empregado));
+
+        // when
+        empregadoService.getEmpregadoById(1L);
+        Optional<Empregado> buscarEmpregado = empregadoService.getEmpregadoById(1L);
+
+        // then
+        assertEquals(empregado, buscarEmpregado.get());
+        verify(empregadoRepository, times(1)).findById(1L);
+    }
+
+    @DisplayName("Teste para não guardar no cache empregado não encontrado")
+    @Test
+    void testBuscarEmpregadoNaoEncontradoNaoUsaCache() {
+
+        // given
+        given(empregadoRepository.findById(1L)).willReturn(Optional.empty());
+
+        // when
+        empregadoService.getEmpregadoById(1L);
+        Optional<Empregado> buscarEmpregado = empregadoService.getEmpregadoById(1L);
+
+        // then
+        assertTrue(buscarEmpregado.isEmpty());
+        verify(empregadoRepository, times(2)).findById(1L);
+    }
+
+    @DisplayName("Teste para invalidar o cache ao atualizar e ao deletar empregado")
+    @Test
+    void testAtualizarEDeletarInvalidamCache() {
+
+        // given
+        Empregado empregado = criarEmpregado();
+        given(empregadoRepository.findById(1L)).willReturn(Optional.of(empregado));
+        given(empregadoRepository.saveAndFlush(empregado)).willReturn(empregado);
+
+        // when
+        empregadoService.getEmpregadoById(1L);
+        empregadoService.updateEmpregado(empregado);
+        empregadoService.getEmpregadoById(1L);
+        empregadoService.deleteEmpregado(1L);
+        empregadoService.getEmpregadoById(1L);
+
+        // then
+        verify(empregadoRepository, times(3)).findById(1L);
+    }
+}
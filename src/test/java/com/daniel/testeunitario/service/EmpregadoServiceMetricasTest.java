@@ -0,0 +1,59 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmpregadoServiceMetricasTest {
+
+    /* Aqui nada é simulado: a requisição passa pelo controller, pelo proxy do serviço e pelo Hibernate, para conferir as métricas reais. **/
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmpregadoRepository empregadoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DisplayName("Teste para medir o tempo e os comandos SQL de uma busca por id")
+    @Test
+    void testBuscarEmpregadoPorIdRegistraMetricas() throws Exception {
+
+        // given
+        Empregado empregado = empregadoRepository.save(Empregado.builder()
+                .nome("Daniel")
+                .sobrenome("Penelva")
+                .email("metricas@gmail.com").build());
+
+        // when
+        mockMvc.perform(get("/api/empregados/{id}", empregado.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/empregados/{id}", empregado.getId())).andExpect(status().isOk());
+
+        // then
+        Timer timer = meterRegistry.get("empregados.servico").tag("metodo", "getEmpregadoById").timer();
+        DistributionSummary comandosSql = meterRegistry.get("empregados.sql.por.requisicao")
+                .tag("endpoint", "EmpregadoController.findByIdEmpregado").summary();
+
+        assertEquals(2, timer.count());
+        assertEquals(2, comandosSql.count());
+        assertEquals(1.0, comandosSql.totalAmount()); // o primeiro GET faz um SELECT, o segundo vem do cache
+    }
+}
@@ -0,0 +1,238 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.daniel.testeunitario.config.CacheConfig;
+import com.daniel.testeunitario.exception.ResourceNotFoundException;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.support.OrcamentoSql;
+
+@SpringBootTest
+public class EmpregadoServiceOrcamentoSqlTest {
+
+    /*
+     * Diferente do EmpregadoServiceTest (repositório simulado), aqui o serviço usa o banco de verdade e cada teste confere quantos comandos
+     * SQL a operação executa. Uma consulta a mais (N+1, SELECT antes do save, etc.) reprova o build. Toda escrita inclui o INSERT do seu
+     * evento no outbox (empregados_eventos).
+     */
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+    @Autowired
+    private EmpregadoService empregadoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Empregado criarEmpregado() {
+
+        return Empregado.builder()
+                .nome("Daniel")
+                .sobrenome("Penelva")
+                .email("orcamento" + SEQUENCIA.incrementAndGet() + "@gmail.com").build();
+    }
+
+    @BeforeEach
+    void limparCache() {
+        cacheManager.getCache(CacheConfig.CACHE_EMPREGADOS).clear();
+    }
+
+    @DisplayName("Teste para salvar empregado com email novo com um INSERT do empregado e um do evento")
+    @Test
+    void testSalvarEmpregadoComEmailNovo() {
+
+        // given
+        Empregado empregado = criarEmpregado();
+        OrcamentoSql.zerar();
+
+        // when
+        empregadoService.salvarEmpregado(empregado);
+
+        // then - o filtro de Bloom dispensa o SELECT por email
+        OrcamentoSql.assertComandos(0, 2, 0, 0);
+    }
+
+    @DisplayName("Teste para rejeitar email repetido com um único SELECT e nenhum INSERT")
+    @Test
+    void testSalvarEmpregadoComEmailRepetido() {
+
+        // given
+        Empregado empregado = empregadoService.salvarEmpregado(criarEmpregado());
+        Empregado repetido = Empregado.builder().nome("Outro").sobrenome("Nome").email(empregado.getEmail()).build();
+        OrcamentoSql.zerar();
+
+        // when
+        assertThrows(ResourceNotFoundException.class, () -> empregadoService.salvarEmpregado(repetido));
+
+        // then
+        OrcamentoSql.assertComandos(1, 0, 0, 0);
+    }
+
+    @DisplayName("Teste para salvar 120 empregados em lote com INSERTs em lote JDBC, inclusive os eventos")
+    @Test
+    void testSalvarEmpregadosEmLote() {
+
+        // given
+        List<Empregado> empregados = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            empregados.add(criarEmpregado());
+        }
+        OrcamentoSql.zerar();
+
+        // when
+        empregadoService.salvarEmpregadosEmLote(empregados);
+
+        // then - lotes de 50, 50 e 20
+        OrcamentoSql.assertComandos(0, 4, 0, 0);
+    }
+
+    @DisplayName("Teste para rejeitar lote com email gravado por fora do serviço com o mesmo erro de email repetido")
+    @Test
+    void testSalvarEmpregadosEmLoteComEmailGravadoPorFora() {
+
+        // given - o INSERT direto não passa pelo filtro de Bloom, então só o banco percebe a repetição
+        Empregado existente = criarEmpregado();
+        jdbcTemplate.update("insert into empregados (id, nome, sobrenome, email, versao) values (next value for empregados_seq, ?, ?, ?, 0)",
+                existente.getNome(), existente.getSobrenome(), existente.getEmail());
+        Empregado novo = criarEmpregado();
+        Empregado repetido = Empregado.builder().nome("Outro").sobrenome("Nome").email(existente.getEmail()).build();
+
+        // when
+        assertThrows(ResourceNotFoundException.class, () -> empregadoService.salvarEmpregadosEmLote(List.of(novo, repetido)));
+
+        // then - o lote inteiro volta atrás
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from empregados where email = ?", Integer.class, novo.getEmail()));
+    }
+
+    @DisplayName("Teste para buscar empregado por id com um SELECT e depois pelo cache")
+    @Test
+    void testBuscarEmpregadoPorId() {
+
+        // given
+        Empregado empregado = empregadoService.salvarEmpregado(criarEmpregado());
+        limparCache();
+        OrcamentoSql.zerar();
+
+        // when
+        empregadoService.getEmpregadoById(empregado.getId());
+        empregadoService.getEmpregadoById(empregado.getId());
+
+        // then
+        OrcamentoSql.assertComandos(1, 0, 0, 0);
+    }
+
+    @DisplayName("Teste para buscar vários empregados por ids com um único SELECT")
+    @Test
+    void testBuscarEmpregadosPorIds() {
+
+        // given
+        Empregado primeiro = empregadoService.salvarEmpregado(criarEmpregado());
+        Empregado segundo = empregadoService.salvarEmpregado(criarEmpregado());
+        OrcamentoSql.zerar();
+
+        // when
+        empregadoService.getEmpregadosByIds(Arrays.asList(primeiro.getId(), segundo.getId(), -1L));
+
+        // then
+        OrcamentoSql.assertComandos(1, 0, 0, 0);
+    }
+
+    @DisplayName("Teste para buscar uma página por cursor com um único SELECT")
+    @Test
+    void testBuscarEmpregadosPorCursor() {
+
+        // given
+        empregadoService.salvarEmpregado(criarEmpregado());
+        OrcamentoSql.zerar();
+
+        // when
+        empregadoService.getEmpregadosPorCursor(null, 10);
+
+        // then
+        OrcamentoSql.assertComandos(1, 0, 0, 0);
+    }
+
+    @DisplayName("Teste para atualizar empregado")
+    @Test
+    void testAtualizarEmpregado() {
+
+        // given
+        Empregado empregado = empregadoService.salvarEmpregado(criarEmpregado());
+        Empregado alterado = Empregado.builder()
+                .id(empregado.getId())
+                .nome("Alterado")
+                .sobrenome(empregado.getSobrenome())
+                .email(empregado.getEmail())
+                .versao(empregado.getVersao()).build();
+        OrcamentoSql.zerar();
+
+        // when
+        empregadoService.updateEmpregado(alterado);
+
+        // then - o merge carrega o estado atual antes do UPDATE
+        OrcamentoSql.assertComandos(1, 1, 1, 0);
+    }
+
+    @DisplayName("Teste para atualizar parcialmente empregado com um único UPDATE e o INSERT do evento")
+    @Test
+    void testAtualizarParcialmente() {
+
+        // given
+        Empregado empregado = empregadoService.salvarEmpregado(criarEmpregado());
+        OrcamentoSql.zerar();
+
+        // when
+        empregadoService.atualizarParcialmente(empregado.getId(), Empregado.builder().nome("Alterado").build(), empregado.getVersao());
+
+        // then
+        OrcamentoSql.assertComandos(0, 1, 1, 0);
+    }
+
+    @DisplayName("Teste para deletar empregado com um único DELETE e o INSERT do evento")
+    @Test
+    void testDeletarEmpregado() {
+
+        // given
+        Empregado empregado = empregadoService.salvarEmpregado(criarEmpregado());
+        OrcamentoSql.zerar();
+
+        // when
+        empregadoService.deleteEmpregado(empregado.getId());
+
+        // then
+        OrcamentoSql.assertComandos(0, 1, 0, 1);
+    }
+
+    @DisplayName("Teste para deletar empregados em lote por ids com um SELECT dos existentes e um único DELETE")
+    @Test
+    void testDeletarEmpregadosPorIds() {
+
+        // given
+        Empregado primeiro = empregadoService.salvarEmpregado(criarEmpregado());
+        Empregado segundo = empregadoService.salvarEmpregado(criarEmpregado());
+        OrcamentoSql.zerar();
+
+        // when
+        empregadoService.deleteEmpregadosPorIds(Arrays.asList(primeiro.getId(), segundo.getId()));
+
+        // then
+        OrcamentoSql.assertComandos(1, 1, 0, 1);
+    }
+}
@@ -2,19 +2,31 @@ package com.daniel.testeunitario.service;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 //Adicionado essa importação
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.sql.SQLException;
+
+import javax.persistence.EntityManager;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,12 +35,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.boot.test.context.SpringBootTest;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.daniel.testeunitario.dto.FiltroEmpregados;
+import com.daniel.testeunitario.dto.PaginaEmpregados;
+import com.daniel.testeunitario.dto.PaginaFiltroEmpregados;
+import com.daniel.testeunitario.dto.ResultadoBuscaPorIds;
 import com.daniel.testeunitario.exception.ResourceNotFoundException;
 import com.daniel.testeunitario.model.Empregado;
 import com.daniel.testeunitario.repository.EmpregadoRepository;
 import com.daniel.testeunitario.service.impl.EmpregadoServiceImpl;
+import com.daniel.testeunitario.service.support.FiltroBloomEmails;
+import com.daniel.testeunitario.service.support.IndiceBuscaEmpregados;
+import com.daniel.testeunitario.service.support.OutboxEmpregados;
 
 @ExtendWith(MockitoExtension.class)
 @SpringBootTest 
@@ -37,6 +60,18 @@ public class EmpregadoServiceTest {
     @Mock
     private EmpregadoRepository empregadoRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private FiltroBloomEmails filtroEmails;
+
+    @Mock
+    private IndiceBuscaEmpregados indiceBusca;
+
+    @Mock
+    private OutboxEmpregados outbox;
+
     @InjectMocks
     private EmpregadoServiceImpl empregadoServiceImpl;
 
@@ -68,10 +103,11 @@ public class EmpregadoServiceTest {
      * 5. `given(empregadoRepository.findByEmail(empregado.getEmail())).willReturn(Optional.empty());`: Usando o Mockito, configura um 
      *     comportamento para o mock `empregadoRepository`. Aqui, diz que quando o método `findByEmail` for chamado com o email do empregado que 
      *     está tentando criar, ele deve retornar um `Optional` vazio. Isso simula a situação em que não há empregado com o mesmo email no 
-     *     repositório.
+     *     repositório. Antes disso, o mock `filtroEmails` é configurado para responder que o email "talvez exista", que é o caso em que o 
+     *     serviço consulta o banco.
      * 
-     * 6. `given(empregadoRepository.save(empregado)).willReturn(empregado);`: Aqui, configura outro comportamento para o mock 
-     *    `empregadoRepository`. Aqui, diz que quando o método `save` for chamado com o empregado, ele deve retornar o próprio empregado. Isso 
+     * 6. `given(empregadoRepository.saveAndFlush(empregado)).willReturn(empregado);`: Aqui, configura outro comportamento para o mock 
+     *    `empregadoRepository`. Aqui, diz que quando o método `saveAndFlush` for chamado com o empregado, ele deve retornar o próprio empregado. Isso 
      *    é comum ao salvar um objeto, onde geralmente o objeto salvo é retornado.
      * 
      * 7. `Empregado criarEmpregado = empregadoServiceImpl.salvarEmpregado(empregado);`: Aqui, chama o método `salvarEmpregado` do serviço 
@@ -92,8 +128,9 @@ public class EmpregadoServiceTest {
         // Given - gerando os dados antes do condicionamento.
         Empregado empregado = criarEmpregado();
 
+        given(filtroEmails.podeConter(empregado.getEmail())).willReturn(true);
         given(empregadoRepository.findByEmail(empregado.getEmail())).willReturn(Optional.empty());
-        given(empregadoRepository.save(empregado)).willReturn(empregado);
+        given(empregadoRepository.saveAndFlush(empregado)).willReturn(empregado);
 
         // when - criando a condição (o comportamento) a ser testado
         Empregado criarEmpregado = empregadoServiceImpl.salvarEmpregado(empregado);
@@ -119,17 +156,17 @@ public class EmpregadoServiceTest {
      * 5. `given(empregadoRepository.findByEmail(empregado.getEmail())).willReturn(Optional.of(empregado));`: Usando o Mockito, configura um 
      *     comportamento para o mock `empregadoRepository`. Aqui, diz que quando o método `findByEmail` for chamado com o email do empregado que 
      *     está tentando criar, ele deve retornar um `Optional` contendo esse empregado. Isso simula a situação em que um empregado com o mesmo 
-     *     email já existe no repositório.
+     *     email já existe no repositório. O mock `filtroEmails` responde que o email "talvez exista", senão o banco nem seria consultado.
      * 
      * 6. `assertThrows(ResourceNotFoundException.class, () -> { empregadoServiceImpl.salvarEmpregado(empregado); });`: Aqui, está usando o 
      *     método `assertThrows` do JUnit 5 para verificar se uma exceção do tipo `ResourceNotFoundException` é lançada quando você chama 
      *     `empregadoServiceImpl.salvarEmpregado(empregado);`. Isso é feito usando uma expressão lambda.
      * 
-     * 7. `Mockito.verify(empregadoRepository, never()).save(any(Empregado.class));`: Por fim, usa o Mockito para verificar se o método `save` 
+     * 7. `Mockito.verify(empregadoRepository, never()).saveAndFlush(any(Empregado.class));`: Por fim, usa o Mockito para verificar se o método `saveAndFlush` 
      *     do repositório nunca foi chamado (já que esperamos que ele não seja chamado devido à exceção lançada).
      * 
      * Em resumo, esse teste verifica se o método `salvarEmpregado` lança a exceção correta quando um empregado com o mesmo email já existe no 
-     * repositório e se o método `save` não é chamado nessa situação. Isso garante que o comportamento de lançamento de exceção esteja correto 
+     * repositório e se o método `saveAndFlush` não é chamado nessa situação. Isso garante que o comportamento de lançamento de exceção esteja correto 
      * quando necessário.
     */
     @DisplayName("Teste para criar um empregado com throw Exception")
@@ -139,6 +176,7 @@ public class EmpregadoServiceTest {
         // Given - gerando os dados antes do condicionamento.
         Empregado empregado = criarEmpregado();
         
+        given(filtroEmails.podeConter(empregado.getEmail())).willReturn(true);
         given(empregadoRepository.findByEmail(empregado.getEmail())).willReturn(Optional.of(empregado));
 
         // when - criando a condição (o comportamento) a ser testado
@@ -147,7 +185,7 @@ public class EmpregadoServiceTest {
        });
 
         // then - verificar mensagem de validação
-        Mockito.verify(empregadoRepository, never()).save(any(Empregado.class));
+        Mockito.verify(empregadoRepository, never()).saveAndFlush(any(Empregado.class));
     }
 
 
@@ -320,8 +358,8 @@ public class EmpregadoServiceTest {
      *     funciona corretamente.
      * 
      * 2. `// Given - gerando os dados antes do condicionamento.`: Nesta seção, está preparando o cenário do teste. Aqui, cria um objeto 
-     *     `Empregado` usando o método `criarEmpregado()`. Em seguida, configura o comportamento simulado do método `save` do 
-     *     `empregadoRepository` usando o Mockito. Isso significa que, quando o método `save` for chamado com o objeto `empregado`, ele deve 
+     *     `Empregado` usando o método `criarEmpregado()`. Em seguida, configura o comportamento simulado do método `saveAndFlush` do 
+     *     `empregadoRepository` usando o Mockito. Isso significa que, quando o método `saveAndFlush` for chamado com o objeto `empregado`, ele deve 
      *      retornar o mesmo objeto `empregado`. Depois, atualiza os detalhes do `empregado`, mudando o nome para "Daniel Up" e o email para 
      *     "d4n.penelva@gmail.com".
      * 
@@ -349,7 +387,7 @@ public class EmpregadoServiceTest {
         
         // Given - gerando os dados antes do condicionamento.
         Empregado empregado = criarEmpregado();
-        given(empregadoRepository.save(empregado)).willReturn(empregado);
+        given(empregadoRepository.saveAndFlush(empregado)).willReturn(empregado);
         empregado.setNome("Daniel Up");
         empregado.setEmail("d4n.penelva@gmail.com");
 
@@ -368,21 +406,22 @@ public class EmpregadoServiceTest {
      * 
      * 1. **Given (Dado)**: Nesta seção, está configurando o ambiente e os dados iniciais para o seu teste. No seu caso:
      *       - Foi definido o `empregadoId` como 1L, que é o ID do empregado que você deseja excluir.
-     *       - Aqui, usa o método `doNothing().when(empregadoRepository).deleteById(empregadoId)` para configurar o mock do `empregadoRepository`. 
-     *         Isso significa que quando o método `deleteById` do `empregadoRepository` for chamado com o `empregadoId`, ele não fará nada.
+     *       - Aqui, usa o método `given(empregadoRepository.deletarPorId(empregadoId)).willReturn(1)` para configurar o mock do 
+     *         `empregadoRepository`. Isso significa que quando o método `deletarPorId` do `empregadoRepository` for chamado com o `empregadoId`, 
+     *         ele informa que uma linha foi removida.
      * 
      * 2. **When (Quando)**: Nesta seção, executa a operação ou o comportamento que deseja testar. No seu caso:
      *       - Aqui, chama `empregadoServiceImpl.deleteEmpregado(empregadoId)` para excluir o empregado com o ID fornecido.
      * 
      * 3. **Then (Então)**: Aqui, verifica se o comportamento esperado ocorreu após a operação do "When". No seu caso:
-     *       - Aqui, usa `verify(empregadoRepository, times(1)).deleteById(empregadoId)` para verificar se o método `deleteById` do 
+     *       - Aqui, usa `verify(empregadoRepository, times(1)).deletarPorId(empregadoId)` para verificar se o método `deletarPorId` do 
      *         `empregadoRepository` foi chamado exatamente uma vez com o `empregadoId`. Isso garante que o serviço `empregadoServiceImpl` 
      *         realmente chamou o método de exclusão no repositório com o ID correto.
      * 
      * Em resumo, esse teste unitário verifica se o serviço `deleteEmpregado` do `empregadoServiceImpl` está excluindo o empregado correto usando 
      * o ID fornecido, e se ele está interagindo corretamente com o repositório (neste caso, representado pelo `empregadoRepository`) para realizar 
-     * a exclusão. O método `doNothing()` no `given` é usado para simular o comportamento do repositório, garantindo que a exclusão não seja 
-     * executada, pois isso é apenas um teste do serviço, não do repositório real.
+     * a exclusão. O `given` é usado para simular o comportamento do repositório, garantindo que a exclusão não seja executada, pois isso é 
+     * apenas um teste do serviço, não do repositório real.
      * */
     @DisplayName("Teste para deletar empregado por id")
     @Test
@@ -390,12 +429,366 @@ public class EmpregadoServiceTest {
         
         // Given - gerando os dados antes do condicionamento.
         long empregadoId = 1L;
-        doNothing().when(empregadoRepository).deleteById(empregadoId);
+        given(empregadoRepository.deletarPorId(empregadoId)).willReturn(1);
 
         // when - criando a condição (o comportamento) a ser testado 
-       empregadoServiceImpl.deleteEmpregado(empregadoId);
+       boolean removido = empregadoServiceImpl.deleteEmpregado(empregadoId);
     
         // then - verificar mensagem de validação
-        verify(empregadoRepository, times(1)).deleteById(empregadoId);
+        assertTrue(removido);
+        verify(empregadoRepository, times(1)).deletarPorId(empregadoId);
+        verify(empregadoRepository, never()).findById(empregadoId);
+    }
+
+
+    @DisplayName("Teste para listar empregados por cursor com próxima página")
+    @Test
+    void testListarEmpregadosPorCursor(){
+
+        // given
+        Empregado empregado1 = criarEmpregado();
+        Empregado empregado2 = Empregado.builder()
+                .id(2L)
+                .nome("João")
+                .sobrenome("Silva")
+                .email("joao@gmail.com").build();
+
+        given(empregadoRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), eq(PageRequest.of(0, 2))))
+                .willReturn(List.of(empregado1, empregado2));
+
+        // when
+        PaginaEmpregados pagina = empregadoServiceImpl.getEmpregadosPorCursor(null, 1);
+
+        // then
+        assertEquals(1, pagina.getConteudo().size());
+        assertEquals(Long.valueOf(1L), pagina.getProximoCursor());
+    }
+
+    @DisplayName("Teste para listar a última página por cursor")
+    @Test
+    void testListarUltimaPaginaPorCursor(){
+
+        // given
+        Empregado empregado = criarEmpregado();
+
+        given(empregadoRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), eq(PageRequest.of(0, 11))))
+                .willReturn(List.of(empregado));
+
+        // when
+        PaginaEmpregados pagina = empregadoServiceImpl.getEmpregadosPorCursor(0L, 10);
+
+        // then
+        assertEquals(1, pagina.getConteudo().size());
+        assertNull(pagina.getProximoCursor());
+    }
+
+    @DisplayName("Teste para exportar empregados pela varredura sem estado do repositório")
+    @Test
+    void testExportarEmpregados(){
+
+        // given
+        Empregado empregado1 = criarEmpregado();
+        Empregado empregado2 = Empregado.builder()
+                .id(2L)
+                .nome("João")
+                .sobrenome("Silva")
+                .email("joao@gmail.com").build();
+
+        willAnswer(invocacao -> {
+            Consumer<Empregado> consumidor = invocacao.getArgument(0);
+            consumidor.accept(empregado1);
+            consumidor.accept(empregado2);
+            return null;
+        }).given(empregadoRepository).percorrerSemEstado(any());
+
+        // when
+        List<Empregado> exportados = new ArrayList<>();
+        empregadoServiceImpl.exportarEmpregados(exportados::add);
+
+        // then
+        assertEquals(List.of(empregado1, empregado2), exportados);
+        // a varredura sem estado é o único acesso ao repositório: nada de findAll ou stream que carregue entidades gerenciadas
+        verify(empregadoRepository).percorrerSemEstado(any());
+        verifyNoMoreInteractions(empregadoRepository);
+    }
+
+    @DisplayName("Teste para criar empregados em lote com uma única verificação de email")
+    @Test
+    void testCriarEmpregadosEmLote(){
+
+        // given
+        Empregado empregado1 = criarEmpregado();
+        Empregado empregado2 = Empregado.builder()
+                .nome("João")
+                .sobrenome("Silva")
+                .email("joao@gmail.com").build();
+
+        // só o primeiro email passa pelo filtro e precisa ser conferido no banco
+        given(filtroEmails.podeConter(empregado1.getEmail())).willReturn(true);
+        given(empregadoRepository.findEmailsExistentes(List.of(empregado1.getEmail())))
+                .willReturn(Collections.emptyList());
+
+        // when
+        List<Empregado> salvos = empregadoServiceImpl.salvarEmpregadosEmLote(List.of(empregado1, empregado2));
+
+        // then
+        assertEquals(2, salvos.size());
+        assertNull("O id deve ser gerado pela sequence", empregado1.getId());
+        verify(entityManager, times(1)).persist(empregado1);
+        verify(entityManager, times(1)).persist(empregado2);
+        verify(empregadoRepository, never()).findByEmail(any());
+    }
+
+    @DisplayName("Teste para criar empregados em lote com email já cadastrado")
+    @Test
+    void testCriarEmpregadosEmLoteComEmailExistente(){
+
+        // given
+        Empregado empregado = criarEmpregado();
+
+        given(filtroEmails.podeConter(empregado.getEmail())).willReturn(true);
+        given(empregadoRepository.findEmailsExistentes(List.of(empregado.getEmail())))
+                .willReturn(List.of(empregado.getEmail()));
+
+        // when - then
+        assertThrows(ResourceNotFoundException.class, () -> {
+            empregadoServiceImpl.salvarEmpregadosEmLote(List.of(empregado));
+        });
+
+        verify(entityManager, never()).persist(any(Empregado.class));
+    }
+
+    @DisplayName("Teste para criar um empregado com email que o filtro descarta, sem consultar o banco")
+    @Test
+    void testCriarEmpregadoSemConsultaDeEmail() {
+
+        // given
+        Empregado empregado = criarEmpregado();
+
+        given(filtroEmails.podeConter(empregado.getEmail())).willReturn(false);
+        given(empregadoRepository.saveAndFlush(empregado)).willReturn(empregado);
+
+        // when
+        Empregado criarEmpregado = empregadoServiceImpl.salvarEmpregado(empregado);
+
+        // then
+        assertNotNull(criarEmpregado);
+        verify(empregadoRepository, never()).findByEmail(any());
+        verify(filtroEmails, times(1)).adicionar(empregado.getEmail());
+    }
+
+    @DisplayName("Teste para criar um empregado com email repetido detectado pelo índice único")
+    @Test
+    void testCriarEmpregadoComViolacaoDoIndiceUnico() {
+
+        // given
+        Empregado empregado = criarEmpregado();
+        ConstraintViolationException violacao = new ConstraintViolationException("Unique index or primary key violation",
+                new SQLException(), "PUBLIC.UK_EMPREGADOS_EMAIL_INDEX_A");
+
+        given(empregadoRepository.saveAndFlush(empregado)).willThrow(new DataIntegrityViolationException("email", violacao));
+
+        // when - then
+        assertThrows(ResourceNotFoundException.class, () -> {
+            empregadoServiceImpl.salvarEmpregado(empregado);
+        });
+
+        verify(filtroEmails, never()).adicionar(any());
+    }
+
+    @DisplayName("Teste para buscas concorrentes pelo mesmo id compartilharem uma única consulta")
+    @Test
+    void testBuscasConcorrentesPorIdFazemUmaConsulta() throws Exception {
+
+        // given
+        Empregado empregado = criarEmpregado();
+        int numeroThreads = 32;
+        CountDownLatch largada = new CountDownLatch(1);
+
+        // a consulta demora o suficiente para todas as threads chegarem enquanto ela está em andamento
+        given(empregadoRepository.findById(1L)).willAnswer(invocation -> {
+            Thread.sleep(300);
+            return Optional.of(empregado);
+        });
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(numeroThreads);
+        List<Future<Optional<Empregado>>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < numeroThreads; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return empregadoServiceImpl.getEmpregadoById(1L);
+                }));
+            }
+            largada.countDown();
+
+            // then
+            for (Future<Optional<Empregado>> resultado : resultados) {
+                assertEquals(empregado, resultado.get().get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(empregadoRepository, times(1)).findById(1L);
+    }
+
+    @DisplayName("Teste para buscar vários empregados por id mantendo a ordem pedida")
+    @Test
+    void testBuscarEmpregadosPorIds(){
+
+        // given
+        Empregado empregado1 = criarEmpregado();
+        Empregado empregado3 = Empregado.builder()
+                .id(3L)
+                .nome("João")
+                .sobrenome("Silva")
+                .email("joao@gmail.com").build();
+
+        given(empregadoRepository.findAllById(List.of(3L, 2L, 1L))).willReturn(List.of(empregado1, empregado3));
+
+        // when
+        ResultadoBuscaPorIds resultado = empregadoServiceImpl.getEmpregadosByIds(List.of(3L, 2L, 1L, 3L));
+
+        // then
+        assertEquals(List.of(empregado3, empregado1), resultado.getEmpregados());
+        assertEquals(List.of(2L), resultado.getIdsNaoEncontrados());
+    }
+
+    @DisplayName("Teste para atualizar parcialmente um empregado sem buscá-lo antes")
+    @Test
+    void testAtualizarParcialmenteEmpregado(){
+
+        // given
+        Empregado alteracoes = Empregado.builder().email("d4n.penelva@gmail.com").build();
+
+        given(empregadoRepository.atualizarCampos(1L, alteracoes, null)).willReturn(1);
+
+        // when
+        boolean atualizado = empregadoServiceImpl.atualizarParcialmente(1L, alteracoes, null);
+
+        // then
+        assertTrue(atualizado);
+        verify(empregadoRepository, never()).findById(any());
+        verify(filtroEmails, times(1)).adicionar("d4n.penelva@gmail.com");
+    }
+
+    @DisplayName("Teste para atualizar parcialmente um empregado que não existe")
+    @Test
+    void testAtualizarParcialmenteEmpregadoNaoEncontrado(){
+
+        // given
+        Empregado alteracoes = Empregado.builder().nome("Daniel Up").build();
+
+        given(empregadoRepository.atualizarCampos(1L, alteracoes, null)).willReturn(0);
+
+        // when
+        boolean atualizado = empregadoServiceImpl.atualizarParcialmente(1L, alteracoes, null);
+
+        // then
+        assertTrue(!atualizado);
+    }
+
+    @DisplayName("Teste para atualizar parcialmente um empregado com versão desatualizada")
+    @Test
+    void testAtualizarParcialmenteEmpregadoComVersaoDesatualizada(){
+
+        // given
+        Empregado alteracoes = Empregado.builder().nome("Daniel Up").build();
+
+        given(empregadoRepository.atualizarCampos(1L, alteracoes, 3L)).willReturn(0);
+        given(empregadoRepository.existsById(1L)).willReturn(true);
+
+        // when
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+            empregadoServiceImpl.atualizarParcialmente(1L, alteracoes, 3L);
+        });
+
+        // then
+        verify(filtroEmails, never()).adicionar(any());
+    }
+
+    @DisplayName("Teste para deletar empregados em lote com um DELETE por lote de ids existentes")
+    @Test
+    void testDeletarEmpregadosPorIds(){
+
+        // given
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            ids.add(id);
+        }
+        List<Long> existentesSegundoLote = ids.subList(1000, 1400);
+
+        given(empregadoRepository.findIdsExistentes(ids.subList(0, 1000))).willReturn(ids.subList(0, 1000));
+        given(empregadoRepository.findIdsExistentes(ids.subList(1000, 1500))).willReturn(existentesSegundoLote);
+        given(empregadoRepository.deletarPorIds(ids.subList(0, 1000))).willReturn(1000);
+        given(empregadoRepository.deletarPorIds(existentesSegundoLote)).willReturn(400);
+
+        // when
+        int removidos = empregadoServiceImpl.deleteEmpregadosPorIds(ids);
+
+        // then
+        assertEquals(1400, removidos);
+        verify(filtroEmails, times(1)).registrarRemocoes(1400);
+        verify(outbox, times(1)).registrarRemocoes(ids.subList(0, 1400));
+    }
+
+    @DisplayName("Teste para buscar empregados pelo índice com limite máximo")
+    @Test
+    void testBuscarEmpregados(){
+
+        // given
+        Empregado empregado = criarEmpregado();
+
+        given(indiceBusca.buscar("dan", 100)).willReturn(Collections.singletonList(empregado));
+
+        // when
+        List<Empregado> encontrados = empregadoServiceImpl.buscarEmpregados("dan", 5000);
+
+        // then
+        assertEquals(1, encontrados.size());
+        verify(empregadoRepository, never()).findAll();
+    }
+
+    @DisplayName("Teste para indexar o empregado salvo e remover o deletado do índice de busca")
+    @Test
+    void testManterIndiceDeBusca(){
+
+        // given
+        Empregado empregado = criarEmpregado();
+
+        given(filtroEmails.podeConter(empregado.getEmail())).willReturn(false);
+        given(empregadoRepository.saveAndFlush(empregado)).willReturn(empregado);
+        given(empregadoRepository.deletarPorId(1L)).willReturn(1);
+
+        // when
+        empregadoServiceImpl.salvarEmpregado(empregado);
+        empregadoServiceImpl.deleteEmpregado(1L);
+
+        // then
+        verify(indiceBusca, times(1)).indexar(empregado);
+        verify(indiceBusca, times(1)).remover(1L);
+    }
+
+    @DisplayName("Teste para filtrar empregados paginando sem COUNT")
+    @Test
+    void testFiltrarEmpregados(){
+
+        // given
+        FiltroEmpregados filtro = FiltroEmpregados.builder().sobrenome("Pen").ordenarPor("sobrenome").build();
+        List<Empregado> empregados = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            empregados.add(Empregado.builder().id(id).nome("Daniel").sobrenome("Penelva").email(id + "@gmail.com").build());
+        }
+
+        given(empregadoRepository.filtrar(filtro, 4L, 3)).willReturn(empregados);
+
+        // when
+        PaginaFiltroEmpregados pagina = empregadoServiceImpl.filtrarEmpregados(filtro, 2, 2);
+
+        // then
+        assertEquals(2, pagina.getConteudo().size());
+        assertEquals(Integer.valueOf(3), pagina.getProximaPagina());
+        verify(empregadoRepository, never()).count();
     }
 }
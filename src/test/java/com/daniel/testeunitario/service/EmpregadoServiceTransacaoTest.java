@@ -0,0 +1,114 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.daniel.testeunitario.config.CacheConfig;
+import com.daniel.testeunitario.model.Empregado;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transacao")
+public class EmpregadoServiceTransacaoTest {
+
+    /*
+     * Confere a política de transação do EmpregadoServiceImpl. Cada teste abre um EntityManager preso à thread, como o open-in-view faz
+     * numa requisição, para as entidades continuarem no contexto de persistência depois que a transação do serviço termina.
+     * Banco próprio: o create-drop deste contexto não recria a sequence que os outros contextos em cache estão usando.
+     */
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+    @Autowired
+    private EmpregadoService empregadoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private EntityManager entityManager;
+
+    private Empregado criarEmpregado() {
+
+        return Empregado.builder()
+                .nome("Daniel")
+                .sobrenome("Penelva")
+                .email("transacao" + SEQUENCIA.incrementAndGet() + "@gmail.com").build();
+    }
+
+    @BeforeEach
+    void abrirEntityManager() {
+        cacheManager.getCache(CacheConfig.CACHE_EMPREGADOS).clear();
+        entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+    }
+
+    @AfterEach
+    void fecharEntityManager() {
+        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        entityManager.close();
+    }
+
+    @DisplayName("Teste para leituras carregarem empregados somente leitura, ignorados pelo dirty checking")
+    @Test
+    void testLeituraSomenteLeitura() {
+
+        // given
+        Empregado salvo = empregadoService.salvarEmpregado(criarEmpregado());
+        entityManager.clear();
+
+        // when
+        Empregado lido = empregadoService.getEmpregadosPorCursor(salvo.getId() - 1, 1).getConteudo().get(0);
+        lido.setNome("Alterado");
+        empregadoService.salvarEmpregado(criarEmpregado());
+
+        // then
+        Session sessao = entityManager.unwrap(Session.class);
+        assertTrue(sessao.isReadOnly(lido));
+        assertFalse(sessao.isDefaultReadOnly());
+        assertEquals(FlushMode.AUTO, sessao.getHibernateFlushMode());
+        assertEquals("Daniel", empregadoService.getEmpregadoProjetadoById(salvo.getId(), List.of("nome")).get().get("nome"));
+    }
+
+    @DisplayName("Teste para atualizar empregado lido antes na mesma requisição por uma leitura somente leitura")
+    @Test
+    void testAtualizarEmpregadoLidoSomenteLeitura() {
+
+        // given
+        Empregado salvo = empregadoService.salvarEmpregado(criarEmpregado());
+        entityManager.clear();
+        cacheManager.getCache(CacheConfig.CACHE_EMPREGADOS).clear();
+        Empregado lido = empregadoService.getEmpregadoById(salvo.getId()).get();
+
+        // when
+        Empregado atualizado = empregadoService.updateEmpregado(Empregado.builder()
+                .id(lido.getId())
+                .nome("Atualizado")
+                .sobrenome(lido.getSobrenome())
+                .email(lido.getEmail())
+                .versao(lido.getVersao()).build());
+
+        // then
+        assertEquals(Long.valueOf(salvo.getVersao() + 1), atualizado.getVersao());
+        assertEquals("Atualizado", empregadoService.getEmpregadoProjetadoById(salvo.getId(), List.of("nome")).get().get("nome"));
+    }
+}
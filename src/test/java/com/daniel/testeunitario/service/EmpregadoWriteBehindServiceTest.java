@@ -0,0 +1,200 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.daniel.testeunitario.dto.SituacaoGravacao;
+import com.daniel.testeunitario.dto.SituacaoGravacao.Situacao;
+import com.daniel.testeunitario.exception.ResourceNotFoundException;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+import com.daniel.testeunitario.service.impl.EmpregadoWriteBehindServiceImpl;
+import com.daniel.testeunitario.service.support.FiltroBloomEmails;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:writebehind", "empregados.write-behind.habilitado=true",
+        "empregados.write-behind.intervalo=500ms"})
+public class EmpregadoWriteBehindServiceTest {
+
+    /*
+     * A gravação acontece na thread do write-behind, então os testes esperam a situação do token sair de PENDENTE. Com intervalo de 500ms,
+     * um segundo envio feito logo depois do primeiro ainda encontra o primeiro no buffer.
+     */
+
+    @Autowired
+    private EmpregadoWriteBehindService writeBehindService;
+
+    @Autowired
+    private EmpregadoService empregadoService;
+
+    @Autowired
+    private EmpregadoRepository empregadoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FiltroBloomEmails filtroEmails;
+
+    private SituacaoGravacao aguardarGravacao(String token) throws InterruptedException {
+        for (int tentativa = 0; tentativa < 250; tentativa++) {
+            SituacaoGravacao situacao = writeBehindService.getSituacao(token).orElseThrow();
+            if (situacao.getSituacao() != Situacao.PENDENTE) {
+                return situacao;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Empregado não gravado a tempo: " + token);
+    }
+
+    @DisplayName("Teste para gravar em lote os empregados do buffer, rejeitando email já cadastrado")
+    @Test
+    void testGravarEmLote() throws InterruptedException {
+
+        // given
+        empregadoService.salvarEmpregado(Empregado.builder().nome("Daniel").sobrenome("Penelva").email("cadastrado@empresa.com").build());
+
+        // when
+        SituacaoGravacao primeiro = writeBehindService.enfileirar(
+                Empregado.builder().nome("Ana").sobrenome("Souza").email("ana.souza@empresa.com").build());
+        SituacaoGravacao segundo = writeBehindService.enfileirar(
+                Empregado.builder().nome("Bruno").sobrenome("Lima").email("bruno.lima@empresa.com").build());
+        SituacaoGravacao repetido = writeBehindService.enfileirar(
+                Empregado.builder().nome("Daniel").sobrenome("Penelva").email("cadastrado@empresa.com").build());
+
+        // then
+        assertEquals(Situacao.PENDENTE, primeiro.getSituacao());
+
+        SituacaoGravacao gravado = aguardarGravacao(primeiro.getToken());
+        assertEquals(Situacao.GRAVADO, gravado.getSituacao());
+        assertEquals("ana.souza@empresa.com", empregadoRepository.findById(gravado.getId()).orElseThrow().getEmail());
+        assertEquals(Situacao.GRAVADO, aguardarGravacao(segundo.getToken()).getSituacao());
+
+        SituacaoGravacao rejeitado = aguardarGravacao(repetido.getToken());
+        assertEquals(Situacao.REJEITADO, rejeitado.getSituacao());
+        assertEquals("Já existe empregado com esse email: cadastrado@empresa.com", rejeitado.getMensagem());
+
+        assertTrue(meterRegistry.get("empregados.write-behind.gravacao").timer().count() >= 1);
+        assertNotNull(meterRegistry.get("empregados.write-behind.fila").gauge());
+    }
+
+    @DisplayName("Teste para gravar um a um o lote recusado pelo banco, rejeitando só o pedido com email cadastrado por fora")
+    @Test
+    void testGravarUmAUmQuandoBancoRecusaLote() throws InterruptedException {
+
+        // given - o INSERT direto não passa pelo filtro de Bloom: a conferência deixa o email passar e só o banco recusa o lote
+        jdbcTemplate.update("insert into empregados (id, nome, sobrenome, email, versao) "
+                + "values (next value for empregados_seq, 'Daniel', 'Penelva', 'por-fora@empresa.com', 0)");
+
+        // when
+        SituacaoGravacao primeiro = writeBehindService.enfileirar(
+                Empregado.builder().nome("Eva").sobrenome("Rocha").email("eva.rocha@empresa.com").build());
+        SituacaoGravacao repetido = writeBehindService.enfileirar(
+                Empregado.builder().nome("Daniel").sobrenome("Penelva").email("por-fora@empresa.com").build());
+        SituacaoGravacao ultimo = writeBehindService.enfileirar(
+                Empregado.builder().nome("Igor").sobrenome("Melo").email("igor.melo@empresa.com").build());
+
+        // then
+        assertEquals(Situacao.GRAVADO, aguardarGravacao(primeiro.getToken()).getSituacao());
+        assertEquals(Situacao.GRAVADO, aguardarGravacao(ultimo.getToken()).getSituacao());
+        SituacaoGravacao rejeitado = aguardarGravacao(repetido.getToken());
+        assertEquals(Situacao.REJEITADO, rejeitado.getSituacao());
+        assertEquals("Já existe empregado com esse email: por-fora@empresa.com", rejeitado.getMensagem());
+    }
+
+    @DisplayName("Teste para recusar no envio empregado sem sobrenome")
+    @Test
+    void testRecusarEmpregadoSemCampoObrigatorio() {
+
+        // given
+        Empregado semSobrenome = Empregado.builder().nome("Carla").email("sem.sobrenome@empresa.com").build();
+
+        // when
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, () -> writeBehindService.enfileirar(semSobrenome));
+
+        // then
+        assertEquals("Nome, sobrenome e email são obrigatórios", erro.getMessage());
+        // o email recusado não ficou reservado como pendente
+        assertNotNull(writeBehindService.enfileirar(Empregado.builder().nome("Carla").sobrenome("Dias")
+                .email("sem.sobrenome@empresa.com").build()).getToken());
+    }
+
+    @DisplayName("Teste para recusar email que já está aguardando gravação")
+    @Test
+    void testRecusarEmailPendente() throws InterruptedException {
+
+        // given
+        SituacaoGravacao primeiro = writeBehindService.enfileirar(
+                Empregado.builder().nome("Carla").sobrenome("Dias").email("carla.dias@empresa.com").build());
+
+        // when
+        Empregado repetido = Empregado.builder().nome("Carla").sobrenome("Dias").email("carla.dias@empresa.com").build();
+
+        // then
+        assertThrows(ResourceNotFoundException.class, () -> writeBehindService.enfileirar(repetido));
+        assertEquals(Situacao.GRAVADO, aguardarGravacao(primeiro.getToken()).getSituacao());
+    }
+
+    @DisplayName("Teste para gravar todo envio aceito quando o encerramento acontece no meio dos envios")
+    @Test
+    void testGravarEnviosAceitosDuranteEncerramento() throws Exception {
+
+        // given - uma instância própria, para o encerramento não desligar a do contexto
+        EmpregadoWriteBehindServiceImpl servico = new EmpregadoWriteBehindServiceImpl(empregadoService, empregadoRepository, filtroEmails,
+                new SimpleMeterRegistry(), 10000, 50, Duration.ofMillis(20), Duration.ofHours(1), Duration.ofSeconds(30));
+        servico.iniciar();
+        ExecutorService enviadores = Executors.newFixedThreadPool(4);
+        List<Future<List<String>>> aceitos = new ArrayList<>();
+        for (int enviador = 0; enviador < 4; enviador++) {
+            int numero = enviador;
+            aceitos.add(enviadores.submit(() -> {
+                List<String> tokens = new ArrayList<>();
+                try {
+                    for (int i = 0; ; i++) {
+                        tokens.add(servico.enfileirar(Empregado.builder().nome("Envio").sobrenome("Encerramento")
+                                .email("encerramento" + numero + "." + i + "@empresa.com").build()).getToken());
+                    }
+                } catch (RejectedExecutionException ex) {
+                    return tokens;
+                }
+            }));
+        }
+        Thread.sleep(200);
+
+        // when
+        servico.encerrar();
+
+        // then
+        int total = 0;
+        for (Future<List<String>> tokens : aceitos) {
+            for (String token : tokens.get()) {
+                assertEquals(Situacao.GRAVADO, servico.getSituacao(token).orElseThrow().getSituacao());
+                total++;
+            }
+        }
+        enviadores.shutdown();
+        assertTrue(total > 0);
+        assertEquals(total, jdbcTemplate.queryForObject("select count(*) from empregados where sobrenome = 'Encerramento'", Integer.class));
+    }
+}
@@ -0,0 +1,69 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+import com.daniel.testeunitario.service.support.FiltroBloomEmails;
+
+public class FiltroBloomEmailsTest {
+
+    private final EmpregadoRepository empregadoRepository = mock(EmpregadoRepository.class);
+
+    // As reconstruções enviadas ao executor ficam aqui, e o teste decide quando cada uma roda.
+    private final List<Runnable> enviadas = new ArrayList<>();
+
+    private final FiltroBloomEmails filtro = new FiltroBloomEmails(empregadoRepository, mock(PlatformTransactionManager.class), enviadas::add,
+            1000);
+
+    @DisplayName("Teste para responder que um email nulo não está no filtro, sem erro")
+    @Test
+    void testEmailNulo() {
+
+        // given
+        filtro.adicionar(null);
+
+        // when
+        boolean podeConter = filtro.podeConter(null);
+
+        // then
+        assertFalse(podeConter);
+    }
+
+    @DisplayName("Teste para enviar uma única reconstrução ao executor enquanto ela não termina")
+    @Test
+    void testReconstruirUmaVezPorVez() {
+
+        // given
+        filtro.adicionar("removido@gmail.com");
+        given(empregadoRepository.streamAllEmails()).willReturn(Stream.of("d4n.andrade@gmail.com"));
+
+        // when
+        filtro.registrarRemocoes(1000);
+        filtro.registrarRemocoes(1000);
+        filtro.reconstruir();
+
+        // then
+        assertEquals(1, enviadas.size());
+        assertTrue(filtro.podeConter("removido@gmail.com"));
+
+        enviadas.get(0).run();
+        assertTrue(filtro.podeConter("d4n.andrade@gmail.com"));
+        assertFalse(filtro.podeConter("removido@gmail.com"));
+
+        given(empregadoRepository.streamAllEmails()).willReturn(Stream.empty());
+        filtro.registrarRemocoes(1000);
+        assertEquals(2, enviadas.size());
+    }
+}
@@ -0,0 +1,109 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.repository.EmpregadoRepository;
+import com.daniel.testeunitario.service.support.IndiceBuscaEmpregados;
+
+@ExtendWith(MockitoExtension.class)
+public class IndiceBuscaEmpregadosTest {
+
+    @Mock
+    private EmpregadoRepository empregadoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IndiceBuscaEmpregados indiceBusca;
+
+    @BeforeEach
+    void criarIndice() {
+        indiceBusca = new IndiceBuscaEmpregados(empregadoRepository, transactionManager);
+        indiceBusca.indexar(new Empregado(1L, "Daniel", "Penelva", "d4n.andrade@gmail.com", 0L));
+        indiceBusca.indexar(new Empregado(2L, "Danielle", "Souza", "dani@gmail.com", 0L));
+        indiceBusca.indexar(new Empregado(3L, "Patrícia", "Nunes", "patricia@empresa.com", 0L));
+        indiceBusca.indexar(new Empregado(4L, "Jordana", "Silva", "jordana@gmail.com", 0L));
+    }
+
+    private List<Long> buscarIds(String consulta, int limite) {
+        return indiceBusca.buscar(consulta, limite).stream().map(Empregado::getId).collect(Collectors.toList());
+    }
+
+    @DisplayName("Teste para buscar por parte do nome ordenando pela relevância")
+    @Test
+    void testBuscarPorParteDoNome() {
+
+        // when
+        List<Long> ids = buscarIds("dan", 10);
+
+        // then - prefixo de palavra (Daniel, Danielle) vem antes de substring (Jordana)
+        assertEquals(List.of(1L, 2L, 4L), ids);
+    }
+
+    @DisplayName("Teste para buscar com vários termos, sem acento e com limite")
+    @Test
+    void testBuscarComVariosTermosSemAcento() {
+
+        // when/then
+        assertEquals(List.of(3L), buscarIds("patricia nunes", 10));
+        assertEquals(List.of(1L), buscarIds("daniel penelva", 10));
+        assertEquals(List.of(1L), buscarIds("dan", 1));
+        assertTrue(buscarIds("daniel souza penelva", 10).isEmpty());
+    }
+
+    @DisplayName("Teste para buscar por termo curto e por parte do email")
+    @Test
+    void testBuscarPorTermoCurtoEEmail() {
+
+        // when/then
+        assertEquals(List.of(1L, 2L), buscarIds("d", 10));
+        assertEquals(List.of(3L), buscarIds("empresa", 10));
+        assertEquals(List.of(1L), buscarIds("d4n.andrade", 10));
+    }
+
+    @DisplayName("Teste para manter o índice nas atualizações e remoções")
+    @Test
+    void testAtualizarERemoverDoIndice() {
+
+        // when
+        indiceBusca.indexar(new Empregado(1L, "Carlos", "Penelva", "d4n.andrade@gmail.com", 1L));
+        indiceBusca.aplicarAlteracoes(2L, Empregado.builder().sobrenome("Marques").build());
+        indiceBusca.remover(4L);
+        indiceBusca.removerPorDominioEmail("empresa.com");
+
+        // then
+        assertEquals(List.of(2L), buscarIds("dan", 10));
+        assertEquals(List.of(1L), buscarIds("carlos", 10));
+        assertEquals(List.of(2L), buscarIds("marques", 10));
+        assertEquals(Long.valueOf(1L), indiceBusca.buscar("marques", 10).get(0).getVersao());
+        assertTrue(buscarIds("souza", 10).isEmpty());
+        assertTrue(buscarIds("patricia", 10).isEmpty());
+    }
+
+    @DisplayName("Teste para ignorar versão mais antiga que a indexada")
+    @Test
+    void testIgnorarVersaoAntiga() {
+
+        // given
+        indiceBusca.indexar(new Empregado(1L, "Carlos", "Penelva", "d4n.andrade@gmail.com", 2L));
+
+        // when
+        indiceBusca.indexar(new Empregado(1L, "Daniel", "Penelva", "d4n.andrade@gmail.com", 1L));
+
+        // then
+        assertEquals(List.of(1L), buscarIds("carlos", 10));
+    }
+}
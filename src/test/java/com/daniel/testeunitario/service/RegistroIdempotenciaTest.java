@@ -0,0 +1,102 @@
+package com.daniel.testeunitario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.daniel.testeunitario.exception.ResourceNotFoundException;
+import com.daniel.testeunitario.model.Empregado;
+import com.daniel.testeunitario.service.support.RegistroIdempotencia;
+import com.daniel.testeunitario.service.support.RegistroIdempotencia.Resultado;
+
+public class RegistroIdempotenciaTest {
+
+    private final RegistroIdempotencia registro = new RegistroIdempotencia(100, Duration.ofMinutes(1));
+
+    private final AtomicInteger execucoes = new AtomicInteger();
+
+    @DisplayName("Teste para executar uma única vez as tentativas simultâneas com a mesma chave")
+    @Test
+    void testAgruparTentativasSimultaneas() throws Exception {
+
+        // given
+        CountDownLatch operacaoIniciada = new CountDownLatch(1);
+        CountDownLatch liberarOperacao = new CountDownLatch(1);
+        Empregado criado = new Empregado(1L, "Daniel", "Penelva", "d4n.andrade@gmail.com", 0L);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+
+        // when
+        try {
+            Future<Resultado<Empregado>> primeira = threads.submit(() -> registro.executar("chave", "corpo", () -> {
+                execucoes.incrementAndGet();
+                operacaoIniciada.countDown();
+                aguardar(liberarOperacao);
+                return criado;
+            }));
+            assertTrue(operacaoIniciada.await(5, TimeUnit.SECONDS));
+            Future<Resultado<Empregado>> segunda = threads.submit(() -> registro.executar("chave", "corpo", () -> {
+                execucoes.incrementAndGet();
+                return new Empregado(2L, "Daniel", "Penelva", "d4n.andrade@gmail.com", 0L);
+            }));
+            Thread.sleep(100);
+            liberarOperacao.countDown();
+
+            // then
+            assertSame(criado, primeira.get(5, TimeUnit.SECONDS).getValor());
+            assertFalse(primeira.get().isRepetido());
+            assertSame(criado, segunda.get(5, TimeUnit.SECONDS).getValor());
+            assertTrue(segunda.get().isRepetido());
+            assertEquals(1, execucoes.get());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @DisplayName("Teste para repetir a recusa de regra de negócio e liberar a chave depois de outra falha")
+    @Test
+    void testGuardarSoRecusaDeNegocio() {
+
+        // given
+        ResourceNotFoundException recusa = new ResourceNotFoundException("Já existe empregado com esse email: d4n.andrade@gmail.com");
+
+        // when
+        assertThrows(ResourceNotFoundException.class, () -> registro.executar("recusada", "corpo", () -> {
+            execucoes.incrementAndGet();
+            throw recusa;
+        }));
+        ResourceNotFoundException repetida = assertThrows(ResourceNotFoundException.class,
+                () -> registro.executar("recusada", "corpo", execucoes::incrementAndGet));
+
+        assertThrows(IllegalStateException.class, () -> registro.executar("falha", "corpo", () -> {
+            execucoes.incrementAndGet();
+            throw new IllegalStateException("banco indisponível");
+        }));
+        Resultado<Integer> novaTentativa = registro.executar("falha", "corpo", execucoes::incrementAndGet);
+
+        // then
+        assertSame(recusa, repetida);
+        assertEquals(3, novaTentativa.getValor());
+        assertFalse(novaTentativa.isRepetido());
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.daniel.testeunitario.support;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.daniel.testeunitario.service.support.ContadorSql;
+import com.daniel.testeunitario.service.support.ContadorSql.Tipo;
+
+/* Orçamento de comandos SQL para testes de integração: zera o ContadorSql antes da operação e confere depois quantos comandos de cada tipo
+*  foram executados, para que uma consulta a mais (N+1, SELECT antes do save, etc.) reprove o teste.
+*
+*  A contagem é por thread: vale para chamadas diretas ao serviço e para o MockMvc, que executa a requisição na própria thread do teste.
+*  Depende do ContadorSql registrado pelo MetricasConfig (empregados.metricas.habilitadas, ligado por padrão).
+*
+*  Uso:
+*  OrcamentoSql.zerar();
+*  empregadoService.getEmpregadoById(id);
+*  OrcamentoSql.assertComandos(1, 0, 0, 0);
+**/
+public final class OrcamentoSql {
+
+    private OrcamentoSql() {
+    }
+
+    public static void zerar() {
+        ContadorSql.zerar();
+    }
+
+    // Confere SELECTs, INSERTs, UPDATEs e DELETEs de uma vez; chamadas de sequence e outros comandos não entram no orçamento.
+    public static void assertComandos(int selects, int inserts, int updates, int deletes) {
+        assertAll("comandos SQL",
+                () -> assertEquals(selects, ContadorSql.total(Tipo.SELECT), "SELECTs"),
+                () -> assertEquals(inserts, ContadorSql.total(Tipo.INSERT), "INSERTs"),
+                () -> assertEquals(updates, ContadorSql.total(Tipo.UPDATE), "UPDATEs"),
+                () -> assertEquals(deletes, ContadorSql.total(Tipo.DELETE), "DELETEs"));
+    }
+
+    public static void assertSelects(int esperado) {
+        assertEquals(esperado, ContadorSql.total(Tipo.SELECT), "SELECTs");
+    }
+
+    public static void assertTotal(int esperado) {
+        assertEquals(esperado, ContadorSql.total(), "comandos SQL");
+    }
+}